@@ -0,0 +1,70 @@
+package Benchmarks;
+
+import Collision.Collideable;
+import Collision.CollisionLayers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the area of effect queries of a Room around the player, each looking for enemies only.
+ * The cost should follow the amount of entities near the area rather than the amount in the room.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AreaQueryBenchmark {
+
+    //The size of the fireball explosion.
+    private static final int RADIUS = 150;
+    private static final int ENEMIES = CollisionLayers.ENEMY | CollisionLayers.FLYER;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int entityCount;
+
+    private BenchmarkRoom fixture;
+
+    /**
+     * Builds the room.
+     */
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        fixture = new BenchmarkRoom(entityCount);
+    }
+
+    /**
+     * Finds the enemies caught by an explosion on the player.
+     * @return The enemies caught.
+     */
+    @Benchmark
+    public ArrayList<Collideable> circle()
+    {
+        return fixture.room.queryCircle(BenchmarkRoom.PLAYER_X, BenchmarkRoom.PLAYER_Y, RADIUS, ENEMIES);
+    }
+
+    /**
+     * Finds the enemies caught by a quarter circle cone pointing east from the player.
+     * @return The enemies caught.
+     */
+    @Benchmark
+    public ArrayList<Collideable> cone()
+    {
+        return fixture.room.queryCone(BenchmarkRoom.PLAYER_X, BenchmarkRoom.PLAYER_Y, 1, 0, Math.PI / 4, RADIUS, ENEMIES);
+    }
+
+    /**
+     * Finds the enemies caught by a beam fired east from the player.
+     * @return The enemies caught.
+     */
+    @Benchmark
+    public ArrayList<Collideable> capsule()
+    {
+        return fixture.room.queryCapsule(BenchmarkRoom.PLAYER_X, BenchmarkRoom.PLAYER_Y,
+                BenchmarkRoom.PLAYER_X + RADIUS * 2, BenchmarkRoom.PLAYER_Y, 25, ENEMIES);
+    }
+}
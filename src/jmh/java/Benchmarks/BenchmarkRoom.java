@@ -0,0 +1,66 @@
+package Benchmarks;
+
+import CharacterResources.Enemies.EvilRock;
+import CharacterResources.Player.Player;
+import MapDesign.Obstacle;
+import MapDesign.Rooms.Room;
+import Simulation.GameWorld;
+import Simulation.RenderSink;
+import Simulation.WorldBounds;
+
+import java.util.Random;
+
+/**
+ * A headless GameWorld whose starting Room is filled with a chosen amount of collideables, shared by the benchmarks.
+ * One in ten entities is an EvilRock, the rest are Obstacles, all placed by a fixed seed so every run measures the same room.
+ * Nothing is placed close to the player, so a pickaxe swing or a moving projectile never starts i-frame threads.
+ */
+class BenchmarkRoom {
+
+    /**
+     * The seed used for the world and for placing entities.
+     */
+    static final long SEED = 42;
+    /**
+     * The player is moved here, entities are kept out of the area around it.
+     */
+    static final int PLAYER_X = 400;
+    static final int PLAYER_Y = 300;
+    private static final int CLEAR_RADIUS = 120;
+    private static final int ENEMY_RATIO = 10;
+
+    final GameWorld world;
+    final Room room;
+    final Player player;
+
+    /**
+     * Builds the world and fills a new Room with entities.
+     * @param entityCount The amount of collideables to add besides the player.
+     */
+    BenchmarkRoom(int entityCount)
+    {
+        System.setProperty("java.awt.headless", "true");
+        world = new GameWorld(WorldBounds.DEFAULT, RenderSink.NONE, SEED);
+        player = world.getPlayer();
+        player.setPos(PLAYER_X, PLAYER_Y);
+        //The starting room is empty and already active, and is the room the pickaxe checks against.
+        room = world.getCurrentRoomRef();
+
+        Random rand = new Random(SEED);
+        int width = world.getBounds().getWidth() - 50;
+        int height = world.getBounds().getHeight() - 50;
+        for(int i = 0; i < entityCount; i++)
+        {
+            int x, y;
+            do {
+                x = rand.nextInt(width);
+                y = rand.nextInt(height);
+            } while(Math.abs(x - PLAYER_X) < CLEAR_RADIUS && Math.abs(y - PLAYER_Y) < CLEAR_RADIUS);
+
+            if(i % ENEMY_RATIO == 0)
+                room.addEnemy(new EvilRock(x, y, world));
+            else
+                room.addObstacle(new Obstacle(world, x, y));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package Benchmarks;
+
+import Collision.BoundsKernel;
+import Collision.Collideable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures collision checks of the player, as a full sweep of Collideable.collides over every collideable in a room
+ * and as a Creature.canMove neighbourhood query.
+ * The same sweep is also run as a batch with BoundsKernel, in one fork without and one with the Vector API module.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int entityCount;
+
+    private BenchmarkRoom fixture;
+    //The collision boxes of the collideables in the room, as BoundsKernel reads them.
+    private int[] centerXs, centerYs, halfWidths, halfHeights;
+    private final ArrayList<Collideable> nearby = new ArrayList<Collideable>();
+
+    /**
+     * Builds the room.
+     */
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        fixture = new BenchmarkRoom(entityCount);
+        int count = fixture.room.getCollideables().size();
+        centerXs = new int[count];
+        centerYs = new int[count];
+        halfWidths = new int[count];
+        halfHeights = new int[count];
+        int i = 0;
+        for(Collideable c : fixture.room.getCollideables())
+        {
+            centerXs[i] = c.getImageCenterX();
+            centerYs[i] = c.getImageCenterY();
+            halfWidths[i] = Math.abs(c.getWidth() / 2);
+            halfHeights[i] = Math.abs(c.getHeight() / 2);
+            i++;
+        }
+    }
+
+    /**
+     * Calls Collideable.collides between the player and every collideable in the room.
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    public void collides(Blackhole blackhole)
+    {
+        for(Collideable c : fixture.room.getCollideables())
+            blackhole.consume(fixture.player.collides(c));
+    }
+
+    /**
+     * Tests the player against every collideable in the room with the scalar BoundsKernel, 64 at a time.
+     * @param blackhole Consumes the hit masks.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + BoundsKernel.SCALAR_PROPERTY + "=true")
+    public void overlapMaskScalar(Blackhole blackhole)
+    {
+        overlapMask(blackhole);
+    }
+
+    /**
+     * Tests the player against every collideable in the room with the Vector API BoundsKernel, 64 at a time.
+     * @param blackhole Consumes the hit masks.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public void overlapMaskVector(Blackhole blackhole)
+    {
+        overlapMask(blackhole);
+    }
+
+    /**
+     * Finds the collideables overlapping the player through the grid, tested as a batch.
+     * @return The overlapping collideables.
+     */
+    @Benchmark
+    public ArrayList<Collideable> queryOverlapping()
+    {
+        return fixture.room.getSpatialGrid().queryOverlapping(fixture.player.getImageCenterX(), fixture.player.getImageCenterY(),
+                fixture.player.getWidth() / 2, fixture.player.getHeight() / 2, fixture.player.getBlockingMask(), fixture.player, nearby);
+    }
+
+    /**
+     * Checks whether the player can move east against the collideables near it.
+     * @return Whether the move is possible.
+     */
+    @Benchmark
+    public boolean canMove()
+    {
+        return fixture.player.canMove("E", fixture.room.getSpatialGrid());
+    }
+
+    private void overlapMask(Blackhole blackhole)
+    {
+        int centerX = fixture.player.getImageCenterX(), centerY = fixture.player.getImageCenterY();
+        int halfWidth = fixture.player.getWidth() / 2, halfHeight = fixture.player.getHeight() / 2;
+        for(int from = 0; from < centerXs.length; from += BoundsKernel.MAX_BATCH)
+            blackhole.consume(BoundsKernel.overlapMask(centerX, centerY, halfWidth, halfHeight, centerXs, centerYs, halfWidths, halfHeights,
+                    from, Math.min(BoundsKernel.MAX_BATCH, centerXs.length - from)));
+    }
+}
@@ -0,0 +1,33 @@
+package Benchmarks;
+
+import MapDesign.DungeonGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating the layout of a dungeon, which happens on every start and reset of a run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DungeonBenchmark {
+
+    @Param({"13", "100", "1000", "10000"})
+    private int roomCount;
+
+    private long seed;
+
+    /**
+     * Generates a dungeon, with a new seed every call so the same layout is not measured over and over.
+     * @return The dungeon, so it is not optimized away.
+     */
+    @Benchmark
+    public DungeonGraph generate()
+    {
+        return DungeonGraph.generate(seed++, roomCount);
+    }
+}
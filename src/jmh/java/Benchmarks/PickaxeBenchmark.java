@@ -0,0 +1,49 @@
+package Benchmarks;
+
+import CharacterResources.Player.Pickaxe;
+import Collision.ContactPhase;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Pickaxe.update during a swing followed by the contact phase, which checks the swing against the collideables around it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PickaxeBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int entityCount;
+
+    private BenchmarkRoom fixture;
+    private Pickaxe pickaxe;
+    private ContactPhase contacts;
+
+    /**
+     * Builds the room.
+     */
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        fixture = new BenchmarkRoom(entityCount);
+        pickaxe = fixture.player.getPickaxe();
+        contacts = new ContactPhase(16);
+    }
+
+    /**
+     * Updates the pickaxe by one tick of a swing and finds what it touches, without striking it.
+     */
+    @Benchmark
+    public void update()
+    {
+        if(pickaxe.getAttackCount() <= 0)
+            pickaxe.initAttack();
+        pickaxe.update(null);
+        contacts.generate(fixture.room, fixture.player);
+    }
+}
@@ -0,0 +1,74 @@
+package Benchmarks;
+
+import Collision.Collideable;
+import Collision.ContactPhase;
+import Collision.Projectile;
+import MapDesign.Rooms.Room;
+import Simulation.GameWorld;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Projectile.move followed by the contact phase, which sweeps the move against the collideables around it.
+ * Each operation moves one projectile north and one south so their positions stay put between operations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectileBenchmark {
+
+    private static final int SPEED = 3;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int entityCount;
+
+    private BenchmarkRoom fixture;
+    private Projectile north;
+    private Projectile south;
+    private ContactPhase contacts;
+
+    /**
+     * Builds the room and adds two projectiles in the middle of it.
+     */
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        fixture = new BenchmarkRoom(entityCount);
+        north = new ProbeProjectile(200, 300, new String[]{"N"}, fixture.world, fixture.room);
+        south = new ProbeProjectile(200, 300, new String[]{"S"}, fixture.world, fixture.room);
+        fixture.room.addProjectile(north);
+        fixture.room.addProjectile(south);
+        contacts = new ContactPhase(16);
+    }
+
+    /**
+     * Moves both projectiles by one step and finds what they touch, without applying it.
+     */
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void move()
+    {
+        north.move(fixture.room.getSpatialGrid());
+        south.move(fixture.room.getSpatialGrid());
+        contacts.generate(fixture.room, fixture.player);
+    }
+
+    //A projectile without any effect, so hits do not change the state being measured.
+    private static class ProbeProjectile extends Projectile {
+
+        ProbeProjectile(int x, int y, String[] moveDir, GameWorld world, Room room)
+        {
+            super(x, y, 25, 25, SPEED, 0, moveDir, world, room);
+        }
+
+        @Override
+        public void collisionEffect(Collideable collideable)
+        {
+            //Nothing here
+        }
+    }
+}
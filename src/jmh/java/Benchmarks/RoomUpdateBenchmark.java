@@ -0,0 +1,41 @@
+package Benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single Room.update, which paths every enemy towards the player and moves every projectile.
+ * The room is rebuilt for every iteration, since enemies slowly crowd around the player as it runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomUpdateBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int entityCount;
+
+    private BenchmarkRoom fixture;
+
+    /**
+     * Builds the room.
+     */
+    @Setup(Level.Iteration)
+    public void setup()
+    {
+        fixture = new BenchmarkRoom(entityCount);
+    }
+
+    /**
+     * Updates the room by one tick.
+     */
+    @Benchmark
+    public void update()
+    {
+        fixture.room.update(null);
+    }
+}
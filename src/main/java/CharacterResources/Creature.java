@@ -1,14 +1,12 @@
 package CharacterResources;
 
-import CharacterResources.Enemies.Enemy;
 import CharacterResources.Items.*;
-import CharacterResources.Player.Player;
-import Collision.CollisionEntity;
-import Collision.Projectile;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
 import Collision.*;
+import MapDesign.TileMap;
 
 import java.awt.Graphics;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.InputMismatchException;
 
@@ -35,7 +33,7 @@ public abstract class Creature implements Collideable
     protected int atk;
     /**
      * The speed which a Creature has. (The amount which it is set to move on every move call
-     * @see #move(String direction, HashSet collideables)
+     * @see #move(String direction, SpatialGrid collideables)
      */
     protected int speed;
 
@@ -48,6 +46,18 @@ public abstract class Creature implements Collideable
      * The current yPos of the Creature.
      */
     protected int yPos;
+
+    /**
+     * The x position of the Creature at the start of the current tick. Used for interpolated rendering.
+     * @see #savePreviousPosition()
+     */
+    protected int prevXPos;
+
+    /**
+     * The y position of the Creature at the start of the current tick. Used for interpolated rendering.
+     * @see #savePreviousPosition()
+     */
+    protected int prevYPos;
     /**
      * The current width of the creature. <b>Not to be confused with width of the actual creature image!</b>
      * @see #getImageWidth()
@@ -60,16 +70,20 @@ public abstract class Creature implements Collideable
     protected int height;
 
     /**
-     * The GamePlayComponent which the creature is linked to and will be drawn to.
-     * @see GamePlayComponent
+     * The GameWorld which the creature belongs to.
+     * @see GameWorld
      */
-    protected GamePlayComponent gameWorld;
+    protected GameWorld gameWorld;
+
+    //Reused for the neighbourhood queries of canMove, so moving does not allocate.
+    private static final int NEARBY_CAPACITY = 16;
+    private final ArrayList<Collideable> nearby = new ArrayList<Collideable>(NEARBY_CAPACITY);
 
     /**
      * Constructs a Creature object with default hp, atk, speed, position, width, and height.
-     * @param inGameWorld The component that the Creature will be drawn to, helps with bound detection in move method
+     * @param inGameWorld The GameWorld that the Creature belongs to, helps with bound detection in move method
      */
-    public Creature(GamePlayComponent inGameWorld)
+    public Creature(GameWorld inGameWorld)
     {
         maxHP = 1;
         currentHp = maxHP;
@@ -81,6 +95,7 @@ public abstract class Creature implements Collideable
         width = 50;
         height = 50;
 
+        savePreviousPosition();
         //Will help with bound detection in move method.
         gameWorld = inGameWorld;
     }
@@ -91,9 +106,9 @@ public abstract class Creature implements Collideable
      * @param inY Initial Y position.
      * @param inWidth Creature width.
      * @param inHeight Creature height.
-     * @param inGameWorld The parent GamePlayComponent which the Creature is being drawn to.
+     * @param inGameWorld The parent GameWorld which the Creature belongs to.
      */
-    public Creature(int inX, int inY, int inWidth, int inHeight, GamePlayComponent inGameWorld)
+    public Creature(int inX, int inY, int inWidth, int inHeight, GameWorld inGameWorld)
     {
         maxHP = 1;
         currentHp = maxHP;
@@ -105,6 +120,7 @@ public abstract class Creature implements Collideable
         width = inWidth;
         height = inHeight;
 
+        savePreviousPosition();
         //Will help with bound detection in move method.
         gameWorld = inGameWorld;
     }
@@ -120,9 +136,9 @@ public abstract class Creature implements Collideable
      * @param y the y position of the top left corner of the creature.
      * @param width The width of the creature.
      * @param height The height of the creature.
-     * @param inGameWorld The component that the Creature will be drawn to, helps with bound detection in move method.
+     * @param inGameWorld The GameWorld that the Creature belongs to, helps with bound detection in move method.
      */
-    public Creature(int health, int attack, int speed, int x, int y, int width, int height, GamePlayComponent inGameWorld)
+    public Creature(int health, int attack, int speed, int x, int y, int width, int height, GameWorld inGameWorld)
     {
         maxHP = health;
         currentHp = maxHP;
@@ -133,6 +149,7 @@ public abstract class Creature implements Collideable
         this.width = width;
         this.height = height;
 
+        savePreviousPosition();
         //Will help with bound detection in move method.
         gameWorld = inGameWorld;
     }
@@ -232,8 +249,8 @@ public abstract class Creature implements Collideable
      */
     public void setPos(int x, int y)
     {
-        if(x < gameWorld.getPreferredSize().width && x > 0
-        && y < gameWorld.getPreferredSize().height && y > 0) {
+        if(x < gameWorld.getBounds().getWidth() && x > 0
+        && y < gameWorld.getBounds().getHeight() && y > 0) {
             xPos = x;
             yPos = y;
         }
@@ -257,6 +274,35 @@ public abstract class Creature implements Collideable
         return yPos;
     }
 
+    /**
+     * Stores the current position as the previous position. Should be called once at the start of every tick.
+     */
+    public void savePreviousPosition()
+    {
+        prevXPos = xPos;
+        prevYPos = yPos;
+    }
+
+    /**
+     * Gets the x position to render at, interpolated between the previous and current tick.
+     * @param alpha How far between the previous (0) and current (1) tick to interpolate.
+     * @return The interpolated x position.
+     */
+    public int getRenderX(double alpha)
+    {
+        return (int)Math.round(prevXPos + (xPos - prevXPos) * alpha);
+    }
+
+    /**
+     * Gets the y position to render at, interpolated between the previous and current tick.
+     * @param alpha How far between the previous (0) and current (1) tick to interpolate.
+     * @return The interpolated y position.
+     */
+    public int getRenderY(double alpha)
+    {
+        return (int)Math.round(prevYPos + (yPos - prevYPos) * alpha);
+    }
+
     /**
      * Sets the dimensions of a creature object.
      * @param width the new width of the creature.
@@ -316,27 +362,42 @@ public abstract class Creature implements Collideable
         window.fillRect(xPos,yPos,width, height);
     }
 
+    /**
+     * Draws the Creature at its interpolated position by offsetting the Graphics context around the draw call.
+     * @param window the Graphics window.
+     * @param alpha How far between the previous (0) and current (1) tick to interpolate.
+     */
+    public void drawInterpolated(Graphics window, double alpha)
+    {
+        int offsetX = getRenderX(alpha) - xPos;
+        int offsetY = getRenderY(alpha) - yPos;
+        window.translate(offsetX, offsetY);
+        draw(window);
+        window.translate(-offsetX, -offsetY);
+    }
+
     /**
      * Moves the Creature according to the specified direction.
      * @param direction the direction in which to move.
-     * @param collideables An array of Hashsets, precondition for this method to work is for all hashsets to have a generic type of an object which implements collideable.
+     * The Creature is moved to its new cells in the SpatialGrid afterwards.
+     * @param collideables The SpatialGrid of the Room the Creature is moving in.
      */
-    public void move(String direction, HashSet<Collideable> collideables) {
+    public void move(String direction, SpatialGrid collideables) {
 
         if(!canMove(direction, collideables))
             return;
 
-        switch (direction.toUpperCase()) {
+        switch (direction) {
             case "N":
                 if(yPos - speed >= 0)
                     yPos-=speed;
                 break;
             case "E":
-                if(xPos + speed + width <= gameWorld.getWidth())
+                if(xPos + speed + width <= gameWorld.getBounds().getWidth())
                     xPos += speed;
                 break;
             case "S":
-                if(yPos + speed + height <= gameWorld.getHeight())
+                if(yPos + speed + height <= gameWorld.getBounds().getHeight())
                     yPos += speed;
                 break;
             case "W":
@@ -344,61 +405,74 @@ public abstract class Creature implements Collideable
                     xPos -= speed;
                 break;
         }
+        collideables.update(this);
     }
 
     //Checks if attempted movement will collide with any other collideables.
 
     /**
-     * Checks if Creature can move in specified direction. With the context of all collideables within the HashSet.
+     * Checks if Creature can move in specified direction. With the context of all collideables within the SpatialGrid.
+     * Only the collideables near the position the Creature would move to are checked, along with the TileMap of the grid.
      * @param direction Direction of attempted movement as type String.
-     * @param collideables Collision.Collideable HashSet which contains collideables to be checked against.
+     * @param collideables The SpatialGrid which contains collideables to be checked against.
      * @return A boolean value which determines whether or not player can move in specified direction.
      */
-    public boolean canMove(String direction, HashSet<Collideable> collideables)
+    public boolean canMove(String direction, SpatialGrid collideables)
     {
-            for(Collideable other : collideables)
-            {
-                if(!canMove(direction,other))
-                {
-                    return false;
-                }
-            }
-        return true;
+        int centerX = getImageCenterX();
+        int centerY = getImageCenterY();
+        switch (direction) {
+            case "N" -> centerY -= speed;
+            case "E" -> centerX += speed;
+            case "W" -> centerX -= speed;
+            case "S" -> centerY += speed;
+            default -> throw new InputMismatchException("Direction doesn't map properly");
+        }
+        int blockingMask = getBlockingMask();
+        if(blockingMask == CollisionLayers.NONE)
+            return true;
+        //Static walls are not Collideables, they are looked up in the tiles under the new position.
+        TileMap tiles = collideables.getTileMap();
+        if((blockingMask & CollisionLayers.OBSTACLE) != 0 && tiles != null && tiles.overlapsBlocked(centerX, centerY, width / 2, height / 2))
+            return false;
+        //Only what can block this Creature and overlaps the new position is returned.
+        collideables.queryOverlapping(centerX, centerY, width / 2, height / 2, blockingMask, this, nearby);
+        return nearby.isEmpty();
     }
 
     /**
      * Checks if Creature can move in specified direction. With the context of one specific Collision.Collideable.
      * See Collideables Hashset version to check multiple entities when you are trying to be unspecific.
-     * This will check if the two Collideables are obstacles, if either of them are not, returns true.
-     * This always returns true if the Player attempts to move into a Creature which is instance of type Enemy.
+     * Only Collideables on a layer in the blocking mask of this Creature can stop it, see CollisionLayers.
+     * The Player for example walks through enemies, and enemies walk through the Player and projectiles.
      * @param direction Direction of attempted movement as type String.
      * @param other Collision.Collideable to be checked against.
      * @return A boolean value which determines whether or not player can move in specified direction.
      */
     public boolean canMove(String direction, Collideable other) {
-        if (this instanceof Player && other instanceof Enemy)
-            return true;
-        else if (this instanceof Enemy && other instanceof Player)
-            return true;
-        else if (this instanceof Enemy && other instanceof Projectile)
-            return true;
-        else if (!(isObstacle() || other.isObstacle()))
+        if ((getBlockingMask() & other.getCollisionLayer()) == 0)
             return true;
 
-        CollisionEntity tester;
-        switch (direction.toUpperCase()) {
-            case "N" -> tester = new CollisionEntity(xPos, yPos - speed, width, height, gameWorld, this);
-            case "E" -> tester = new CollisionEntity(xPos+speed,yPos,width,height,gameWorld, this);
-            case "W" -> tester = new CollisionEntity(xPos-speed,yPos,width,height,gameWorld, this);
-            case "S" -> tester = new CollisionEntity(xPos, yPos + speed, width,height,gameWorld, this);
+        switch (direction) {
+            case "N" -> { return !collidesAt(0, -speed, other); }
+            case "E" -> { return !collidesAt(speed, 0, other); }
+            case "W" -> { return !collidesAt(-speed, 0, other); }
+            case "S" -> { return !collidesAt(0, speed, other); }
             default -> throw new InputMismatchException("Direction doesn't map properly");
-
         }
+    }
 
-        if(tester.collides(other)!=null)
+    //The same square to square test as Collideable.collides, for this Creature moved by an offset.
+    //Done in place so a move check does not need to construct a CollisionEntity.
+    private boolean collidesAt(int offsetX, int offsetY, Collideable other)
+    {
+        if(other == this)
             return false;
-        return true;
-
+        int xDist = Math.abs(other.getImageCenterX() - (getImageCenterX() + offsetX));
+        int yDist = Math.abs(other.getImageCenterY() - (getImageCenterY() + offsetY));
+        int radiiX = Math.abs(width / 2) + Math.abs(other.getWidth() / 2);
+        int radiiY = Math.abs(height / 2) + Math.abs(other.getHeight() / 2);
+        return xDist < radiiX && yDist < radiiY;
     }
 
     /**
@@ -2,8 +2,9 @@ package CharacterResources.Enemies;
 import CharacterResources.Player.Player;
 import Collision.Collideable;
 import Collision.Projectile;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
 import MapDesign.Rooms.Room;
+import GUIDesign.SpriteCache;
 
 import javax.swing.*;
 
@@ -22,6 +23,11 @@ public class BatWave extends Projectile {
     private static final String NORTHEASTWAVE = "NorthEastWave.png";
     private static final String EASTWAVE = "EastWave.png";
     private static final String WESTWAVE = "WestWave.png";
+    /**
+     * Every sprite a BatWave can use, so they can be loaded before any wave is spawned.
+     */
+    static final String[] WAVE_SPRITES = {SOUTHWAVE, SOUTHEASTWAVE, SOUTHWESTWAVE, NORTHWAVE,
+            NORTHWESTWAVE, NORTHEASTWAVE, EASTWAVE, WESTWAVE};
 
     //Constants related to actual pixel width and height of wave images.
     private static final int WAVE_WIDTH = 15;
@@ -41,7 +47,7 @@ public class BatWave extends Projectile {
      * @param playerCenterX The current x location of the player's center
      * @param playerCenterY The current y location of the player's center
      */
-    public BatWave(GamePlayComponent parent, Room parentRoom, SoundBat bat, int playerCenterX, int playerCenterY)
+    public BatWave(GameWorld parent, Room parentRoom, SoundBat bat, int playerCenterX, int playerCenterY)
     {
         //super(parent,bat.getX()+bat.getWidth()/2,bat.getY()+bat.getHeight()/3);
         super(bat.getX(), bat.getY(), WAVE_WIDTH, WAVE_HEIGHT, bat.getSpeed(), bat.getAtk(), playerCenterX, playerCenterY, parent, parentRoom);
@@ -95,7 +101,7 @@ public class BatWave extends Projectile {
             }
         }
 
-        obstacle = new ImageIcon(getClass().getClassLoader().getResource(waveImageDir));
+        obstacle = SpriteCache.get(waveImageDir);
         parentBat = bat;
         speed = parentBat.getSpeed();
 
@@ -2,10 +2,11 @@ package CharacterResources.Enemies;
 
 import CharacterResources.Creature;
 import Collision.Collideable;
-import GUIDesign.GamePlayComponent;
+import Collision.CollisionLayers;
+import Collision.SpatialGrid;
+import MapDesign.FlowField;
+import Simulation.GameWorld;
 import java.awt.*;
-import java.util.HashSet;
-import java.util.concurrent.locks.*;
 
 /**
  * Abstract class which defines and implements the basic functions of an enemy which the player will face in their adventure.
@@ -13,19 +14,18 @@ import java.util.concurrent.locks.*;
 public abstract class Enemy extends Creature //Make sure to make abstract later
 {
     /**
-     * The amount of repaints which must pass before the Enemy object can be damaged again.
-     * Likely to be based off ticks in the future, like many other repaint based features.
+     * The amount of ticks which must pass before the Enemy object can be damaged again.
      */
-    public static final int ENEMY_I_FRAMES = 900;
-    private final ReentrantLock healthLock = new ReentrantLock();
+    public static final int ENEMY_I_FRAMES = 900 / GameWorld.TICK_INTERVAL; //In ticks, 900ms
+    private int iFrameCount;
 
     /**
      * Initializes enemy for testing purposes with default xPos, yPos, width and height.
      * No longer used.
-     * @param inGameWorld The GamePlayComponent which the enemy is associated with.
+     * @param inGameWorld The GameWorld which the enemy is associated with.
      */
     @Deprecated
-    public Enemy(GamePlayComponent inGameWorld)
+    public Enemy(GameWorld inGameWorld)
     {
         super(inGameWorld);
     }
@@ -36,15 +36,16 @@ public abstract class Enemy extends Creature //Make sure to make abstract later
      * @param y Initial y position
      * @param width Enemy width.
      * @param height Enemy height.
-     * @param inGameWorld The GamePlayComponent the Enemy is being drawn to.
+     * @param inGameWorld The GameWorld the Enemy belongs to.
      */
-    public Enemy(int x, int y, int width, int height, GamePlayComponent inGameWorld)
+    public Enemy(int x, int y, int width, int height, GameWorld inGameWorld)
     {
         super(inGameWorld);
         xPos = x;
         yPos = y;
         super.width = width;
         super.height = height;
+        savePreviousPosition();
     }
 
     /**
@@ -56,30 +57,38 @@ public abstract class Enemy extends Creature //Make sure to make abstract later
      * @param y The initial y position of the Enemy.
      * @param width The width of the Enemy.
      * @param height The height of the Enemy.
-     * @param inGameWorld The GamePlayComponent the Enemy is being drawn to.
+     * @param inGameWorld The GameWorld the Enemy belongs to.
      */
-    public Enemy(int health, int attack, int speed, int x, int y, int width, int height , GamePlayComponent inGameWorld)
+    public Enemy(int health, int attack, int speed, int x, int y, int width, int height , GameWorld inGameWorld)
     {
         super(health, attack, speed, x, y, width, height, inGameWorld);
     }
 
     /**
      * Handles the logic for which way the Enemy object should move.
-     * In the default implementation, the enemy continuously moves towards the player.
+     * In the default implementation, the enemy follows the flow field of the Room around obstacles towards the player,
+     * stepping from tile center to tile center, and walks straight at the player once it is on the tile of the player.
      * @param playerCenterX the x position of the center of the player.
      * @param playerCenterY the y position of the center of the player.
-     * @param collideables A HashSet of type Collideable which contains all possible things which Enemy could collide with.
+     * @param collideables The SpatialGrid of the Room, which contains all possible things which Enemy could collide with.
+     * @param flowField The FlowField of the Room, with the player as its goal.
      * @see Collideable
+     * @see FlowField
      */
-    public void pathFinding(int playerCenterX, int playerCenterY, HashSet<Collideable> collideables)
+    public void pathFinding(int playerCenterX, int playerCenterY, SpatialGrid collideables, FlowField flowField)
     {
         int enemyCenterX = getX() + getImageWidth()/2;
         int enemyCenterY = getY() + getImageHeight()/2;
-        int xDistance = Math.abs(enemyCenterX - playerCenterX);
-        int yDistance = Math.abs(enemyCenterY - playerCenterY);
+        int footprint = flowField.footprintOf(getWidth(), getHeight());
+        int next = flowField.nextTile(enemyCenterX, enemyCenterY, footprint);
+        //Also walks straight at the player when there is no way around the obstacles.
+        int targetX = next < 0 ? playerCenterX : flowField.centerXOf(next, footprint);
+        int targetY = next < 0 ? playerCenterY : flowField.centerYOf(next, footprint);
+        int xDistance = Math.abs(enemyCenterX - targetX);
+        int yDistance = Math.abs(enemyCenterY - targetY);
         if (xDistance > 0)
         {
-            if (enemyCenterX > playerCenterX)
+            if (enemyCenterX > targetX)
             {
                 super.move("W", collideables);
             }
@@ -90,7 +99,7 @@ public abstract class Enemy extends Creature //Make sure to make abstract later
         }
         if (yDistance > 0)
         {
-            if (enemyCenterY > playerCenterY)
+            if (enemyCenterY > targetY)
             {
                 super.move("N", collideables);
             }
@@ -114,39 +123,69 @@ public abstract class Enemy extends Creature //Make sure to make abstract later
 
     /**
      * Starts the damage on the enemy. Implements I-frames to ensure double counts are not done.
+     * Damage and knockback are applied immediately, then further damage is ignored for ENEMY_I_FRAMES ticks.
      * Also knocks back the Enemy. The Enemy may be knocked into another Enemy or Obstacle. This will freeze the enemy, this is intended behavior.
      * @param knockback The amount which the Enemy is to be knocked back.
      * @param damage The amount of damage which is dealt to the Enemy.
      */
     public void startDamage(int knockback, int damage) {
-        class IFramesRunnable implements Runnable {
-            public IFramesRunnable()
-            {
-                //Nothing here
-            }
-            public void run() {
-                if(healthLock.tryLock()) {
-                    try {
-                        switch (gameWorld.getPlayer().getDirection()) {
-                            case ("N") -> setPos(xPos, yPos - knockback);
-                            case ("S") -> setPos(xPos, yPos + knockback);
-                            case ("W") -> setPos(xPos - knockback, yPos);
-                            case ("E") -> setPos(xPos + knockback, yPos);
-                        }
-                        currentHp -= damage;
-                        //System.out.println("Enemy damage called");
-                        Thread.sleep(ENEMY_I_FRAMES);
-                    } catch (InterruptedException e) {
-                        System.out.println("ZZZZ");
-                    } finally {
-                        healthLock.unlock();
-                    }
-                }
-            }
+        if(iFrameCount > 0)
+            return;
+        switch (gameWorld.getPlayer().getDirection()) {
+            case ("N") -> setPos(xPos, yPos - knockback);
+            case ("S") -> setPos(xPos, yPos + knockback);
+            case ("W") -> setPos(xPos - knockback, yPos);
+            case ("E") -> setPos(xPos + knockback, yPos);
         }
-        IFramesRunnable r1 = new IFramesRunnable();
-        Thread t1 = new Thread(r1);
-        t1.start();
+        currentHp -= damage;
+        iFrameCount = ENEMY_I_FRAMES;
+    }
+
+    /**
+     * Counts down the I-frames of the Enemy, called once per tick by the Room it is in.
+     */
+    public void updateIFrames()
+    {
+        if(iFrameCount > 0)
+            iFrameCount--;
+    }
+
+    /**
+     * Returns whether the Enemy is currently immune to damage.
+     * @return True if the Enemy was damaged less than ENEMY_I_FRAMES ticks ago.
+     */
+    public boolean isInvulnerable()
+    {
+        return iFrameCount > 0;
+    }
+
+    /**
+     * Returns whether touching the Enemy currently hurts the player.
+     * @return True by default, enemies which only hurt while attacking should override this.
+     */
+    public boolean dealsContactDamage()
+    {
+        return true;
+    }
+
+    /**
+     * Returns whether the Enemy is too heavy to be knocked back by the pickaxe.
+     * @return False by default.
+     */
+    public boolean isKnockbackImmune()
+    {
+        return false;
+    }
+
+    /**
+     * Enemies deal their attack to the player on touch, while they deal contact damage.
+     * @return The attack of the Enemy, or 0 if dealsContactDamage() is false.
+     * @see #dealsContactDamage()
+     */
+    @Override
+    public int getContactDamage()
+    {
+        return dealsContactDamage() ? getAtk() : 0;
     }
     /**
      * Overridden so Enemy counts as obstacle, this is ignored by the player during a move operation, but not other entities.
@@ -157,6 +196,15 @@ public abstract class Enemy extends Creature //Make sure to make abstract later
         return true;
     }
 
+    /**
+     * Enemies have a solid body by default, so they stop each other.
+     * @return Returns CollisionLayers.ENEMY.
+     */
+    @Override
+    public int getCollisionLayer() {
+        return CollisionLayers.ENEMY;
+    }
+
     @Override
     public String toString()
     {
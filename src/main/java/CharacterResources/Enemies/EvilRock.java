@@ -1,6 +1,7 @@
 package CharacterResources.Enemies;
 
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
+import GUIDesign.SpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -10,15 +11,15 @@ import java.awt.*;
  */
 public class EvilRock extends Enemy {
 
-    private final ImageIcon SPRITE1 = new ImageIcon(getClass().getClassLoader().getResource("EvilRock.png"));
+    private static final ImageIcon SPRITE1 = SpriteCache.get("EvilRock.png");
 
     /**
      * Constructs an EvilRock object.
      * @param x The initial x position.
      * @param y The initial y position.
-     * @param inGameWorld The GamePlayComponent the EvilRock is being drawn to.
+     * @param inGameWorld The GameWorld the EvilRock belongs to.
      */
-    public EvilRock(int x, int y, GamePlayComponent inGameWorld)
+    public EvilRock(int x, int y, GameWorld inGameWorld)
     {
         super(x, y,50, 50, inGameWorld);
         maxHP = 2;
@@ -49,6 +50,6 @@ public class EvilRock extends Enemy {
      */
     @Override
     public void draw(Graphics window) {
-        SPRITE1.paintIcon(gameWorld,window,xPos,yPos);
+        SPRITE1.paintIcon(null,window,xPos,yPos);
     }
 }
@@ -3,8 +3,9 @@ package CharacterResources.Enemies;
 import CharacterResources.Player.Player;
 import Collision.Collideable;
 import Collision.Projectile;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
 import MapDesign.Rooms.Room;
+import GUIDesign.SpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -15,7 +16,7 @@ import java.awt.*;
 public class GolemBlast extends Projectile
 {
     private static final String BLAST1 = "GolemBlast1.png";
-    private final ImageIcon BLAST2 = new ImageIcon(getClass().getClassLoader().getResource("GolemBlast2.png"));
+    private static final ImageIcon BLAST2 = SpriteCache.get("GolemBlast2.png");
     private static final int PROJECTILE_WIDTH = 50;
     private static final int PROJECTILE_HEIGHT = 50;
 
@@ -28,17 +29,17 @@ public class GolemBlast extends Projectile
 
     /**
      * Constructor for GolemBlast object with specified parameters.
-     * @param parent The GamePlayComponent the GolemBlast is being drawn to.
+     * @param parent The GameWorld the GolemBlast belongs to.
      * @param boss The boss that owns the object.
      * @param playerCenterX The X-center of the player when the projectile is launched.
      * @param playerCenterY The Y-center of the player when the projectile is launched.
      */
-    public GolemBlast(GamePlayComponent parent, GolemBoss boss, int playerCenterX, int playerCenterY, Room parentRoom)
+    public GolemBlast(GameWorld parent, GolemBoss boss, int playerCenterX, int playerCenterY, Room parentRoom)
     {
         //super(parent, boss.getX() + boss.getWidth() / 2, boss.getY() + boss.getHeight() / 3);
         super(boss.getX(), boss.getY(), PROJECTILE_WIDTH, PROJECTILE_HEIGHT, DEFAULT_SPEED, boss.getAtk(),playerCenterX,playerCenterY,parent,parentRoom);
 
-        obstacle = new ImageIcon(getClass().getClassLoader().getResource(BLAST1));
+        obstacle = SpriteCache.get(BLAST1);
         PARENT_GOLEM_BOSS = boss;
         animationFlag = true;
         animationCD = 0;
@@ -64,7 +65,7 @@ public class GolemBlast extends Projectile
             super.drawObstacle(g);
         }
         else{
-            BLAST2.paintIcon(parent,g,xPos,yPos);
+            BLAST2.paintIcon(null,g,xPos,yPos);
         }
 
         animationCD--;
@@ -1,9 +1,11 @@
 package CharacterResources.Enemies;
 
-import GUIDesign.GamePlayComponent;
+import Collision.SpatialGrid;
+import MapDesign.FlowField;
+import Simulation.GameWorld;
+import GUIDesign.SpriteCache;
 import javax.swing.*;
 import java.awt.*;
-import java.util.HashSet;
 
 /**
  * A class which represents the golem boss that appears at the end of the adventure.
@@ -11,18 +13,18 @@ import java.util.HashSet;
 public class GolemBoss extends Enemy
 {
     //sprites
-    private final ImageIcon GOLEM_IDLE = new ImageIcon("GolemBossIdle.png");
-    private final ImageIcon GOLEM_WALK_1 = new ImageIcon(getClass().getClassLoader().getResource("GolemBossWalk1.png"));
-    private final ImageIcon GOLEM_WALK_2 = new ImageIcon(getClass().getClassLoader().getResource("GolemBossWalk2.png"));
-    private final ImageIcon GOLEM_DRILL_IDLE =  new ImageIcon(getClass().getClassLoader().getResource("GolemDrillIdle.png"));
+    private static final ImageIcon GOLEM_IDLE = SpriteCache.get("GolemBossIdle.png");
+    private static final ImageIcon GOLEM_WALK_1 = SpriteCache.get("GolemBossWalk1.png");
+    private static final ImageIcon GOLEM_WALK_2 = SpriteCache.get("GolemBossWalk2.png");
+    private static final ImageIcon GOLEM_DRILL_IDLE = SpriteCache.get("GolemDrillIdle.png");
     //Attack Sprites
-    private final ImageIcon GOLEM_SLASH1 =  new ImageIcon(getClass().getClassLoader().getResource("GolemSlash1.png"));
-    private final ImageIcon GOLEM_SLASH2 =  new ImageIcon(getClass().getClassLoader().getResource("GolemSlash2.png"));
-    private final ImageIcon GOLEM_SLASH3 =  new ImageIcon(getClass().getClassLoader().getResource("GolemSlash3.png"));
-    private final ImageIcon GOLEM_SLASH4 =  new ImageIcon(getClass().getClassLoader().getResource("GolemSlash4.png"));
-    private final ImageIcon GOLEM_SLASH5 =  new ImageIcon(getClass().getClassLoader().getResource("GolemSlash5.png"));
-    private final ImageIcon GOLEM_BLAST1 =  new ImageIcon(getClass().getClassLoader().getResource("GolemBlast1.png"));
-    private final ImageIcon GOLEM_BLAST2 =  new ImageIcon(getClass().getClassLoader().getResource("GolemBlast2.png"));
+    private static final ImageIcon GOLEM_SLASH1 = SpriteCache.get("GolemSlash1.png");
+    private static final ImageIcon GOLEM_SLASH2 = SpriteCache.get("GolemSlash2.png");
+    private static final ImageIcon GOLEM_SLASH3 = SpriteCache.get("GolemSlash3.png");
+    private static final ImageIcon GOLEM_SLASH4 = SpriteCache.get("GolemSlash4.png");
+    private static final ImageIcon GOLEM_SLASH5 = SpriteCache.get("GolemSlash5.png");
+    private static final ImageIcon GOLEM_BLAST1 = SpriteCache.get("GolemBlast1.png");
+    private static final ImageIcon GOLEM_BLAST2 = SpriteCache.get("GolemBlast2.png");
 
     //instance varis
     private static final int BLAST_CD = 300;
@@ -41,9 +43,9 @@ public class GolemBoss extends Enemy
      * Constructs a GolemBoss with the specified parameters.
      * @param x The initial X-position of the GolemBoss.
      * @param y The initial Y-position of the GolemBoss.
-     * @param inGameWorld The GamePlayComponent the GolemBoss is being drawn to.
+     * @param inGameWorld The GameWorld the GolemBoss belongs to.
      */
-    public GolemBoss(int x, int y, GamePlayComponent inGameWorld)
+    public GolemBoss(int x, int y, GameWorld inGameWorld)
     {
         super(15,2,1,x,y,100,100,inGameWorld);
         blastCD = BLAST_CD;
@@ -77,17 +79,23 @@ public class GolemBoss extends Enemy
 
     /**
      * Handles the logic for which way the enemy object should move.
+     * The GolemBoss covers two by two tiles, so it follows the flow field for its footprint.
      * @param playerCenterX the x position of the center of the player.
      * @param playerCenterY the y position of the center of the player.
+     * @param collideables The SpatialGrid of the Room used for checking collision on move call.
+     * @param flowField The FlowField of the Room, with the player as its goal.
      */
     @Override
-    public void pathFinding(int playerCenterX, int playerCenterY, HashSet<Collision.Collideable> collideables)
+    public void pathFinding(int playerCenterX, int playerCenterY, SpatialGrid collideables, FlowField flowField)
     {
         int enemyCenterX = getX() + getImageWidth()/2;
         int enemyCenterY = getY() + getImageHeight()/2;
         int xDistance = Math.abs(enemyCenterX - playerCenterX);
         int yDistance = Math.abs(enemyCenterY - playerCenterY);
-        super.pathFinding(playerCenterX, playerCenterY, collideables);
+        super.pathFinding(playerCenterX, playerCenterY, collideables, flowField);
+        //The drill decides whether touching the boss hurts, so it runs with the ticks rather than with the frames drawn.
+        if (drillAnimationCD > 0)
+            drillAnimationCD--;
         if ((xDistance < DRILL_ATTACK_RANGE && yDistance < DRILL_ATTACK_RANGE) && (drillCD < 0 && drillAnimationCD <= 0))
         {
             //Starts attack.
@@ -109,7 +117,7 @@ public class GolemBoss extends Enemy
 
     /**
      * Returns an integer representing the current animation count which the Golem drill is on.
-     * Counts down from a constant which defines the duration of the animation.
+     * Counts down once per tick from a constant which defines the duration of the animation.
      * @return An integer representing the current animation count which the Golem drill is on.
      */
     public int getDrillAnimationCD()
@@ -117,6 +125,26 @@ public class GolemBoss extends Enemy
         return drillAnimationCD;
     }
 
+    /**
+     * The GolemBoss only hurts the player on touch while it swings its drill.
+     * @return True while the drill animation runs.
+     */
+    @Override
+    public boolean dealsContactDamage()
+    {
+        return drillAnimationCD > 0;
+    }
+
+    /**
+     * The GolemBoss is too heavy to knock back.
+     * @return Always returns true.
+     */
+    @Override
+    public boolean isKnockbackImmune()
+    {
+        return true;
+    }
+
     /**
      * Shoots a blast at the player by adding it to the Golem.
      * @param playerCenterX X position at the center of the player.
@@ -142,15 +170,15 @@ public class GolemBoss extends Enemy
             walkCD = WALK_CD;
         }
         if(walkFlag)
-            GOLEM_WALK_1.paintIcon(gameWorld,window,xPos,yPos);
+            GOLEM_WALK_1.paintIcon(null,window,xPos,yPos);
         else{
-            GOLEM_WALK_2.paintIcon(gameWorld,window,xPos,yPos);
+            GOLEM_WALK_2.paintIcon(null,window,xPos,yPos);
         }
         walkCD--;
 
         if (drillAnimationCD <= 0)
         {
-            GOLEM_DRILL_IDLE.paintIcon(gameWorld,window,xPos,yPos);
+            GOLEM_DRILL_IDLE.paintIcon(null,window,xPos,yPos);
         }
         //Will be greater than zero when set to such in Pathfinding().
         else
@@ -161,27 +189,26 @@ public class GolemBoss extends Enemy
 
     private void drillSwing(Graphics window)
     {
-        drillAnimationCD--;
         //Do draw stuff.
         if (drillAnimationCD >= DRILL_ANIMATION_CD*5/6)
         {
-            GOLEM_SLASH1.paintIcon(gameWorld,window,xPos,yPos);
+            GOLEM_SLASH1.paintIcon(null,window,xPos,yPos);
         }
         else if (drillAnimationCD >= DRILL_ANIMATION_CD*4/6)
         {
-            GOLEM_SLASH2.paintIcon(gameWorld,window,xPos,yPos);
+            GOLEM_SLASH2.paintIcon(null,window,xPos,yPos);
         }
         else if (drillAnimationCD >= DRILL_ANIMATION_CD*3/6)
         {
-            GOLEM_SLASH3.paintIcon(gameWorld,window,xPos,yPos);
+            GOLEM_SLASH3.paintIcon(null,window,xPos,yPos);
         }
         else if (drillAnimationCD >= DRILL_ANIMATION_CD*2/6)
         {
-            GOLEM_SLASH4.paintIcon(gameWorld,window,xPos,yPos);
+            GOLEM_SLASH4.paintIcon(null,window,xPos,yPos);
         }
         else
         {
-            GOLEM_SLASH5.paintIcon(gameWorld,window,xPos,yPos);
+            GOLEM_SLASH5.paintIcon(null,window,xPos,yPos);
         }
     }
 
@@ -1,11 +1,13 @@
 package CharacterResources.Enemies;
 
-import GUIDesign.GamePlayComponent;
+import Collision.CollisionLayers;
+import Collision.SpatialGrid;
+import MapDesign.FlowField;
+import Simulation.GameWorld;
+import GUIDesign.SpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.HashSet;
-import java.util.Stack;
 import java.util.Random;
 
 /**
@@ -13,8 +15,13 @@ import java.util.Random;
  */
 public class SoundBat extends Enemy {
 
-    private final ImageIcon WINGS_DOWN_ICON = new ImageIcon(getClass().getClassLoader().getResource("SoundBat1.png"));
-    private final ImageIcon WINGS_UP_ICON = new ImageIcon(getClass().getClassLoader().getResource("SoundBat2.png"));
+    private static final ImageIcon WINGS_DOWN_ICON = SpriteCache.get("SoundBat1.png");
+    private static final ImageIcon WINGS_UP_ICON = SpriteCache.get("SoundBat2.png");
+
+    //Loads the wave sprites along with the first bat, instead of when the first wave spawns.
+    static {
+        SpriteCache.preload(BatWave.WAVE_SPRITES);
+    }
 
     private static final int WING_DELAY = 15;
     private static final int MOVE_CHANGE_DELAY = 50;
@@ -27,21 +34,21 @@ public class SoundBat extends Enemy {
     private int moveCycle;
     private int moveDir;
     private boolean isMulti;
-    private HashSet<BatWave> waves;
-    private final Stack<BatWave> removeWaveStack = new Stack<BatWave>();
+    private final Random rand;
 
     /**
      * Constructs a SoundBat with specified parameters.
      * @param x Initial x-position of the SoundBat
      * @param y Initial y-position of the SoundBat
-     * @param inGameWorld The GamePlayComponent to be passed into the super constructor.
+     * @param inGameWorld The GameWorld to be passed into the super constructor.
+     * @param roomRandom The seeded Random of the Room the SoundBat spawns in, which the flight path of the SoundBat is drawn from.
+     * @see GameWorld#createRoomRandom(int)
      */
-    public SoundBat(int x, int y, GamePlayComponent inGameWorld)
+    public SoundBat(int x, int y, GameWorld inGameWorld, Random roomRandom)
     {
         super(x,y,50,22,inGameWorld);
         speed = 2;
         wingsDown = true;
-        waves= new HashSet<BatWave>();
         wingCycle = WING_DELAY;
 
         moveCycle = MOVE_CHANGE_DELAY;
@@ -49,6 +56,9 @@ public class SoundBat extends Enemy {
         isMulti = false;
 
         waveCycle = WAVE_CREATION_DELAY;
+
+        //Seeded from the room, so flight paths are reproducible and differ between bats and rooms.
+        rand = new Random(roomRandom.nextLong());
     }
 
     /**
@@ -59,10 +69,10 @@ public class SoundBat extends Enemy {
     @Override
     public void draw(Graphics window) {
         if(wingsDown) {
-            WINGS_DOWN_ICON.paintIcon(gameWorld, window, xPos, yPos);
+            WINGS_DOWN_ICON.paintIcon(null, window, xPos, yPos);
         }
         else {
-            WINGS_UP_ICON.paintIcon(gameWorld, window, xPos, yPos);
+            WINGS_UP_ICON.paintIcon(null, window, xPos, yPos);
         }
         if(wingsDown && wingCycle < 0)
         {
@@ -74,10 +84,6 @@ public class SoundBat extends Enemy {
             wingCycle = WING_DELAY;
         }
         wingCycle--;
-
-        //Draws associated waves.
-        for(BatWave wave : waves)
-            wave.drawObstacle(window);
     }
 
     /**
@@ -103,16 +109,14 @@ public class SoundBat extends Enemy {
      * Also handles projectile spawning.
      * @param playerCenterX the x position of the center of the player.
      * @param playerCenterY the y position of the center of the player.
-     * @param collideables HashSet of type Collideable used for checking collision on move call.
-     * @see #move(String direction, HashSet collideables)
+     * @param collideables The SpatialGrid of the Room used for checking collision on move call.
+     * @param flowField Not used, bats flutter around at random instead of chasing the player.
+     * @see #move(String direction, SpatialGrid collideables)
      * @see Collision.Collideable
      */
     @Override
-    public void pathFinding(int playerCenterX, int playerCenterY, HashSet<Collision.Collideable> collideables)
+    public void pathFinding(int playerCenterX, int playerCenterY, SpatialGrid collideables, FlowField flowField)
     {
-        Random rand = new Random();
-
-
         if(moveCycle < 0)
         {
             moveDir = rand.nextInt(4);
@@ -184,4 +188,14 @@ public class SoundBat extends Enemy {
     {
         return false;
     }
+
+    /**
+     * Bats have no solid body, so they pass through each other, but not through obstacles or other enemies.
+     * @return Always returns CollisionLayers.FLYER.
+     */
+    @Override
+    public int getCollisionLayer()
+    {
+        return CollisionLayers.FLYER;
+    }
 }
@@ -2,96 +2,95 @@ package CharacterResources.Items;
 
 import CharacterResources.Creature;
 import CharacterResources.Player.Player;
-import GUIDesign.GamePlayComponent;
-
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
+import Simulation.GameWorld;
 
 /**
  * An abstract class which serves as the basis for an item which must be activated by Creature input.
  * (As opposed to passively affecting Creature stats.)
- * This class implements KeyListener and either listens to an assigned keyboard input or the default keyboard input included in this class (SHIFT).
- * Keyboard input is only listened to in the instance that the assigned Creature is of instance Player.
+ * This class listens to either an assigned input slot of the GameWorld or the default item slot (mapped to SHIFT by the game window).
+ * Input is only listened to in the instance that the assigned Creature is of instance Player.
+ * The GameWorld activates the item on the tick its input is pressed and deactivates it on the tick its input is released.
+ * @see GameWorld#KEY_ITEM
  */
-public abstract class ActiveItem extends Item implements KeyListener {
+public abstract class ActiveItem extends Item {
 
     private Creature owner;
-    private GamePlayComponent parentComponent;
+    private GameWorld parentWorld;
     private int itemKey;
 
-    private static final int  DEFAULT_ITEM_KEY = KeyEvent.VK_SHIFT;
+    private static final int  DEFAULT_ITEM_KEY = GameWorld.KEY_ITEM;
 
 
     /**
      * Constructs an ActiveItem with specified parameters.
-     * This constructor will assign the default key to listen for (SHIFT).
+     * This constructor will assign the default input slot to listen for (SHIFT).
      * @param inFileName A String representing the file name to which an image representing the item is depicted.
-     * @param parentComponent The GamePlayComponent that this item is linked to. This is necessary due to key-listener.
+     * @param parentWorld The GameWorld that this item is linked to. This is necessary to receive input.
      */
-    public ActiveItem(String inFileName, GamePlayComponent parentComponent) {
+    public ActiveItem(String inFileName, GameWorld parentWorld) {
         super(inFileName);
         owner = null;
         itemKey = DEFAULT_ITEM_KEY;
-        this.parentComponent = parentComponent;
+        this.parentWorld = parentWorld;
     }
 
     /**
      * Constructs an ActiveItem with specified parameters.
      * @param inFileName A String representing the file name to which an image representing the item is depicted.
-     * @param itemKey An integer representing a key input associated with activating the item. Should pass through KeyEvent integer constant.
-     * @param parentComponent The GamePlayComponent that this item is linked to. This is necessary due to key-listener.
+     * @param itemKey An integer representing the input slot associated with activating the item. Should pass through a GameWorld KEY_ constant.
+     * @param parentWorld The GameWorld that this item is linked to. This is necessary to receive input.
      */
-    public ActiveItem(String inFileName, int itemKey, GamePlayComponent parentComponent)
+    public ActiveItem(String inFileName, int itemKey, GameWorld parentWorld)
     {
         super(inFileName);
         owner = null;
         this.itemKey = itemKey;
-        this.parentComponent = parentComponent;
+        this.parentWorld = parentWorld;
     }
 
     /**
      * This method assigns an owner to the ActiveItem.
-     * This also sets up a key-listener if the Creature is an instance of Player.
+     * This also registers the item for input if the Creature is an instance of Player.
      * @param owner The Creature which will possess this ActiveItem object.
      */
     public void assignOwner(Creature owner)
     {
         this.owner = owner;
-        if(owner instanceof Player && !parentComponent.getKeyListenersHash().contains(this)) {
-            parentComponent.addKeyListener(this);
+        if(owner instanceof Player) {
+            parentWorld.registerActiveItem(this);
         }
     }
 
     /**
      * This method unassigns an owner to the active item.
-     * This will disable the key listener if the owner of this ActiveItem is of instance Player.
+     * This will stop listening for input if the owner of this ActiveItem is of instance Player.
      */
     public void unAssignOwner()
     {
-        if(this.owner instanceof Player && parentComponent.getKeyListenersHash().contains(this))
+        if(this.owner instanceof Player)
         {
-            parentComponent.removeKeyListener(this);
+            parentWorld.unregisterActiveItem(this);
         }
         owner = null;
     }
 
     /**
-     * Enables or disables the KeyListener of this ActiveItem object.
+     * Enables or disables listening for input on this ActiveItem object.
      */
-    public void toggleKeyListener()
+    public void toggleInput()
     {
-        if(parentComponent.getKeyListenersHash().contains(this))
-            parentComponent.removeKeyListener(this);
+        if(parentWorld.isActiveItemRegistered(this))
+            parentWorld.unregisterActiveItem(this);
         else
-            parentComponent.addKeyListener(this);
+            parentWorld.registerActiveItem(this);
     }
 
     /**
-     * Gets the GamePlayComponent associated with this object.
-     * @return The GamePlayComponent associated with this object.
+     * Gets the GameWorld associated with this object.
+     * @return The GameWorld associated with this object.
      */
-    public GamePlayComponent getParentComponent() {
-        return parentComponent;
+    public GameWorld getParentWorld() {
+        return parentWorld;
     }
 
     /**
@@ -103,34 +102,10 @@ public abstract class ActiveItem extends Item implements KeyListener {
     }
 
     /**
-     * Activates ActiveItem effect when key is pressed.
-     * @param e the event to be processed.
-     */
-    @Override
-    public void keyPressed(KeyEvent e)
-    {
-        if(e.getKeyCode() == itemKey)
-            activateEffect(owner);
-    }
-
-    /**
-     * Deactivates ActiveItem effect when key is released.
-     * @param e the event to be processed.
+     * Returns the input slot which activates this item.
+     * @return A GameWorld KEY_ constant.
      */
-    @Override
-    public void keyReleased(KeyEvent e)
-    {
-        if(e.getKeyCode() == itemKey)
-            deactivateEffect(owner);
-    }
-
-    /**
-     * Does nothing, needed to satisfy keyListener.
-     * @param e the event to be processed
-     */
-    @Override
-    public void keyTyped(KeyEvent e)
-    {
-        //Does nothing.
+    public int getItemKey() {
+        return itemKey;
     }
 }
@@ -2,12 +2,14 @@ package CharacterResources.Items;
 
 import CharacterResources.Enemies.Enemy;
 import Collision.*;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
+import Simulation.Log;
 import GUIDesign.Updateable;
+import GUIDesign.SpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.HashSet;
+import java.util.ArrayList;
 
 /**
  * A class which represents a Projectile subclass for a fireball.
@@ -29,12 +31,12 @@ public class Fireball extends Projectile implements Updateable {
     private boolean exploded;
     private FireballScroll ownerScroll;
 
-    private ImageIcon FRAME_1 = new ImageIcon(getClass().getClassLoader().getResource("Fireball1.png"));
-    private ImageIcon FRAME_2 = new ImageIcon(getClass().getClassLoader().getResource("Fireball2.png"));;
-    private ImageIcon FRAME_3 = new ImageIcon(getClass().getClassLoader().getResource("Fireball3.png"));;
+    private static final ImageIcon FRAME_1 = SpriteCache.get("Fireball1.png");
+    private static final ImageIcon FRAME_2 = SpriteCache.get("Fireball2.png");
+    private static final ImageIcon FRAME_3 = SpriteCache.get("Fireball3.png");
 
     //Image not added yet.
-    //private ImageIcon EXPLOSION_DRAWING = new ImageIcon(getClass().getClassLoader().getResource("Explosion.png"));
+    //private ImageIcon EXPLOSION_DRAWING = SpriteCache.get("Explosion.png");
 
     /**
      * Constructs fireball with associated parameters.
@@ -42,10 +44,10 @@ public class Fireball extends Projectile implements Updateable {
      * @param y The y coordinate of the fireball.
      * @param targetCenterX The X center of the target.
      * @param targetCenterY The Y center of the target.
-     * @param inGamePlayComponent The GamePlayComponent to be drawn to.
+     * @param inGameWorld The GameWorld it belongs to.
      */
-    public Fireball (int x, int y, int targetCenterX, int targetCenterY, GamePlayComponent inGamePlayComponent, FireballScroll ownerScroll) {
-        super(x,y,DEFAULT_WIDTH,DEFAULT_HEIGHT,DEFAULT_SPEED, DEFAULT_DAMAGE, targetCenterX,targetCenterY, inGamePlayComponent, inGamePlayComponent.getCurrentRoomRef());
+    public Fireball (int x, int y, int targetCenterX, int targetCenterY, GameWorld inGameWorld, FireballScroll ownerScroll) {
+        super(x,y,DEFAULT_WIDTH,DEFAULT_HEIGHT,DEFAULT_SPEED, DEFAULT_DAMAGE, targetCenterX,targetCenterY, inGameWorld, inGameWorld.getCurrentRoomRef());
         obstacle = FRAME_1;
         frameCD = FRAME_CONSTANT;
         exploded = false;
@@ -57,10 +59,10 @@ public class Fireball extends Projectile implements Updateable {
      * @param x The x coordinate of the fireball.
      * @param y The y coordinate of the fireball.
      * @param moveDirection An array of String directions. Options are N,S,W,E. Array is max size of 2.
-     * @param inGamePlayComponent The GamePlayComponent to be drawn to.
+     * @param inGameWorld The GameWorld it belongs to.
      */
-    public Fireball(int x, int y, String[] moveDirection, GamePlayComponent inGamePlayComponent, FireballScroll ownerScroll) {
-        super(x,y,DEFAULT_WIDTH,DEFAULT_HEIGHT,DEFAULT_SPEED,DEFAULT_DAMAGE,moveDirection,inGamePlayComponent,inGamePlayComponent.getCurrentRoomRef());
+    public Fireball(int x, int y, String[] moveDirection, GameWorld inGameWorld, FireballScroll ownerScroll) {
+        super(x,y,DEFAULT_WIDTH,DEFAULT_HEIGHT,DEFAULT_SPEED,DEFAULT_DAMAGE,moveDirection,inGameWorld,inGameWorld.getCurrentRoomRef());
         obstacle = FRAME_1;
         frameCD = FRAME_CONSTANT;
         exploded = false;
@@ -69,35 +71,42 @@ public class Fireball extends Projectile implements Updateable {
 
     /**
      * Overridden to ensure fireball doesn't move any further after exploding.
-     * @param collideables A HashSet full of objects to check collision against.
+     * @param collideables The SpatialGrid of the Room to check collision against.
      */
     @Override
-    public void move(HashSet<Collideable> collideables) {
+    public void move(SpatialGrid collideables) {
         if(!exploded)
             super.move(collideables);
     }
 
+    /**
+     * Fireballs are fired by the player, so they hit enemies and pass through the player.
+     * @return Always returns CollisionLayers.PLAYER_PROJECTILE.
+     */
+    @Override
+    public int getCollisionLayer() {
+        return CollisionLayers.PLAYER_PROJECTILE;
+    }
+
     @Override
     public void collisionEffect(Collideable collideable) {
 
         //System.out.println("Collision effect: " + this + " fired.");
         //Unfinished, relook.
         if(collideable != ownerScroll.getOwner()) {
-            System.out.println("From parent room: " + getParentRoom() + "\nCollideables: " + getParentRoom().getCollideables());
+            if(Log.isTraceEnabled())
+                Log.trace("From parent room: " + getParentRoom() + "\nCollideables: " + getParentRoom().getCollideables());
             frameCD = FRAME_CONSTANT;
             exploded = true;
             //obstacle = EXPLOSION_DRAWING;
 
-            CollisionEntity collisionEntity = new CollisionEntity(getImageCenterX() - EXPLOSION_RADIUS,
-                    getImageCenterY() - EXPLOSION_RADIUS, EXPLOSION_RADIUS * 2, EXPLOSION_RADIUS * 2, parent, this);
-
-            for (Collideable c : getParentRoom().getCollideables()) {
-                if (Collideable.circleSquareCollides(collisionEntity, c)) {
-                    System.out.println("Circle Square collided with " + collisionEntity + "against: " + c);
-                    System.out.println("\n");
-                    if (c instanceof Enemy)
-                        ((Enemy) c).startDamage(DEFAULT_KNOCKBACK,getAttack());
-                }
+            //Only what the fireball can hit is returned, which is always an Enemy.
+            ArrayList<Collideable> caught = getParentRoom().queryCircle(getImageCenterX(), getImageCenterY(),
+                    EXPLOSION_RADIUS, getContactMask());
+            for (int i = 0; i < caught.size(); i++) {
+                if(Log.isTraceEnabled())
+                    Log.trace("Fireball explosion caught: " + caught.get(i));
+                ((Enemy) caught.get(i)).startDamage(DEFAULT_KNOCKBACK,getAttack());
             }
             terminateProjectile();
         }
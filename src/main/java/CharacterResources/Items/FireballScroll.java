@@ -2,7 +2,7 @@ package CharacterResources.Items;
 
 import CharacterResources.Creature;
 import CharacterResources.Player.Player;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
 
 /**
  * ActiveItem which manages creating Fireballs!
@@ -13,10 +13,10 @@ public class FireballScroll extends ActiveItem{
 
     /**
      * Constructs FireBallScroll with relevant parameters.
-     * @param parentComponent The GamePlayComponent to be linked to.
+     * @param parentWorld The GameWorld to be linked to.
      */
-    public FireballScroll(GamePlayComponent parentComponent) {
-        super(FIREBALL_NAME,parentComponent);
+    public FireballScroll(GameWorld parentWorld) {
+        super(FIREBALL_NAME,parentWorld);
 
     }
 
@@ -29,18 +29,18 @@ public class FireballScroll extends ActiveItem{
     {
         if(creature instanceof Player) {
             switch (((Player) creature).getDirection()) {
-                case "N" -> getParentComponent().getCurrentRoomRef().addProjectile(
+                case "N" -> getParentWorld().getCurrentRoomRef().addProjectile(
                         new Fireball(getOwner().getX(), getOwner().getImageCenterY(),
-                                new String[]{"N"}, getParentComponent(), this));
-                case "S" -> getParentComponent().getCurrentRoomRef().addProjectile(
+                                new String[]{"N"}, getParentWorld(), this));
+                case "S" -> getParentWorld().getCurrentRoomRef().addProjectile(
                         new Fireball(getOwner().getX(), getOwner().getImageCenterY(),
-                                new String[]{"S"}, getParentComponent(), this));
-                case "W" -> getParentComponent().getCurrentRoomRef().addProjectile(
+                                new String[]{"S"}, getParentWorld(), this));
+                case "W" -> getParentWorld().getCurrentRoomRef().addProjectile(
                         new Fireball(getOwner().getImageCenterX(), getOwner().getY(),
-                                new String[]{"W"}, getParentComponent(), this));
-                case "E" -> getParentComponent().getCurrentRoomRef().addProjectile(
+                                new String[]{"W"}, getParentWorld(), this));
+                case "E" -> getParentWorld().getCurrentRoomRef().addProjectile(
                         new Fireball(getOwner().getImageCenterX(), getOwner().getY(),
-                                new String[]{"E"}, getParentComponent(), this));
+                                new String[]{"E"}, getParentWorld(), this));
             }
         }
     }
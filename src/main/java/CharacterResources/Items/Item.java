@@ -1,5 +1,7 @@
 package CharacterResources.Items;
 import CharacterResources.Creature;
+import GUIDesign.SpriteCache;
+import Simulation.Log;
 
 import javax.swing.*;
 import java.awt.*;
@@ -20,7 +22,7 @@ public abstract class Item
      */
     public Item(String inFileName)
     {
-        itemImage = new ImageIcon(getClass().getClassLoader().getResource(inFileName));
+        itemImage = SpriteCache.get(inFileName);
     }
 
     /**
@@ -32,7 +34,7 @@ public abstract class Item
      */
     public void drawItem(Component parent, Graphics g, int x, int y)
     {
-        System.out.println("Draw Item called");
+        Log.trace("Draw Item called");
         itemImage.paintIcon(parent, g,x,y);
     }
 
@@ -1,7 +1,8 @@
 package CharacterResources.Player.Classes;
 
 import CharacterResources.Player.Player;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
+import GUIDesign.SpriteCache;
 
 import javax.swing.*;
 
@@ -10,16 +11,16 @@ import javax.swing.*;
  */
 public class PlayerIceMage extends Player {
 
-    private final ImageIcon ICE_MAGE_SOUTH = new ImageIcon(getClass().getClassLoader().getResource("IceMageSouth.png"));
-    private final ImageIcon ICE_MAGE_NORTH = new ImageIcon(getClass().getClassLoader().getResource("IceMageNorth.png"));
-    private final ImageIcon ICE_MAGE_WEST = new ImageIcon(getClass().getClassLoader().getResource("IceMageWest.png"));
-    private final ImageIcon ICE_MAGE_EAST = new ImageIcon(getClass().getClassLoader().getResource("IceMageEast.png"));
+    private static final ImageIcon ICE_MAGE_SOUTH = SpriteCache.get("IceMageSouth.png");
+    private static final ImageIcon ICE_MAGE_NORTH = SpriteCache.get("IceMageNorth.png");
+    private static final ImageIcon ICE_MAGE_WEST = SpriteCache.get("IceMageWest.png");
+    private static final ImageIcon ICE_MAGE_EAST = SpriteCache.get("IceMageEast.png");
 
     /**
      * Constructs an object of type PlayerIceMage.
-     * @param inComponent The GamePlayComponent to pass into the super constructor.
+     * @param inComponent The GameWorld to pass into the super constructor.
      */
-    public PlayerIceMage(GamePlayComponent inComponent)
+    public PlayerIceMage(GameWorld inComponent)
     {
         super(inComponent, "IceMageSouth.png");
     }
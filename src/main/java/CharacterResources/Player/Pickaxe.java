@@ -2,17 +2,18 @@ package CharacterResources.Player;
 
 import CharacterResources.Items.ActiveItem;
 import Collision.CollisionEntity;
+import Collision.CollisionLayers;
 import CharacterResources.Creature;
 import CharacterResources.Enemies.*;
 import CharacterResources.Items.Item;
 import Collision.Collideable;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
 import MapDesign.Chest;
 import GUIDesign.Updateable;
+import GUIDesign.SpriteCache;
 
 import java.awt.*;
 import javax.swing.*;
-import java.util.HashSet;
 import java.util.concurrent.locks.*;
 
 /**
@@ -31,85 +32,112 @@ public class Pickaxe extends Creature implements Updateable
     public static final int KNOCKBACK_CONSTANT = 50;
 
     //Idle Pickaxe Sprites
-    private final ImageIcon IDLE_NORTH = new ImageIcon(getClass().getClassLoader().getResource("PickaxeNorth.png"));
-    private final ImageIcon IDLE_SOUTH = new ImageIcon(getClass().getClassLoader().getResource("PickaxeSouth.png"));
-    private final ImageIcon IDLE_WEST = new ImageIcon(getClass().getClassLoader().getResource("PickaxeWest.png"));
-    private final ImageIcon IDLE_EAST = new ImageIcon(getClass().getClassLoader().getResource("PickaxeEast.png"));
+    private static final ImageIcon IDLE_NORTH = SpriteCache.get("PickaxeNorth.png");
+    private static final ImageIcon IDLE_SOUTH = SpriteCache.get("PickaxeSouth.png");
+    private static final ImageIcon IDLE_WEST = SpriteCache.get("PickaxeWest.png");
+    private static final ImageIcon IDLE_EAST = SpriteCache.get("PickaxeEast.png");
 
     //Attack North
-    private final ImageIcon ATTACK_NORTH1 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashNorth1.png"));
-    private final ImageIcon ATTACK_NORTH2 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashNorth2.png"));
-    private final ImageIcon ATTACK_NORTH3 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashNorth3.png"));
+    private static final ImageIcon ATTACK_NORTH1 = SpriteCache.get("PlayerSlashNorth1.png");
+    private static final ImageIcon ATTACK_NORTH2 = SpriteCache.get("PlayerSlashNorth2.png");
+    private static final ImageIcon ATTACK_NORTH3 = SpriteCache.get("PlayerSlashNorth3.png");
     //Attack South
-    private final ImageIcon ATTACK_SOUTH1 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashSouth1.png"));
-    private final ImageIcon ATTACK_SOUTH2 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashSouth2.png"));
-    private final ImageIcon ATTACK_SOUTH3 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashSouth3.png"));
+    private static final ImageIcon ATTACK_SOUTH1 = SpriteCache.get("PlayerSlashSouth1.png");
+    private static final ImageIcon ATTACK_SOUTH2 = SpriteCache.get("PlayerSlashSouth2.png");
+    private static final ImageIcon ATTACK_SOUTH3 = SpriteCache.get("PlayerSlashSouth3.png");
     //Attack West
-    private final ImageIcon ATTACK_WEST1 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashWest1.png"));
-    private final ImageIcon ATTACK_WEST2 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashWest2.png"));
-    private final ImageIcon ATTACK_WEST3 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashWest3.png"));
+    private static final ImageIcon ATTACK_WEST1 = SpriteCache.get("PlayerSlashWest1.png");
+    private static final ImageIcon ATTACK_WEST2 = SpriteCache.get("PlayerSlashWest2.png");
+    private static final ImageIcon ATTACK_WEST3 = SpriteCache.get("PlayerSlashWest3.png");
     //Attack East
-    private final ImageIcon ATTACK_EAST1 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashEast1.png"));
-    private final ImageIcon ATTACK_EAST2 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashEast2.png"));
-    private final ImageIcon ATTACK_EAST3 = new ImageIcon(getClass().getClassLoader().getResource("PlayerSlashEast3.png"));
+    private static final ImageIcon ATTACK_EAST1 = SpriteCache.get("PlayerSlashEast1.png");
+    private static final ImageIcon ATTACK_EAST2 = SpriteCache.get("PlayerSlashEast2.png");
+    private static final ImageIcon ATTACK_EAST3 = SpriteCache.get("PlayerSlashEast3.png");
 
-    /*
     //Animation cycles
     private static final ImageIcon[] ANIMATION_CYCLE_NORTH = new ImageIcon[] {ATTACK_NORTH1,ATTACK_NORTH2,ATTACK_NORTH3};
     private static final ImageIcon[] ANIMATION_CYCLE_SOUTH = new ImageIcon[] {ATTACK_SOUTH1,ATTACK_SOUTH2,ATTACK_SOUTH3};
     private static final ImageIcon[] ANIMATION_CYCLE_WEST = new ImageIcon[] {ATTACK_WEST1,ATTACK_WEST2,ATTACK_WEST3};
     private static final ImageIcon[] ANIMATION_CYCLE_EAST = new ImageIcon[] {ATTACK_EAST1,ATTACK_EAST2,ATTACK_EAST3};
-     */
 
 
-    private GamePlayComponent parentComponent;
+    private GameWorld parentWorld;
     private Player owner;
     private ReentrantLock attackLock = new ReentrantLock();
     private int attackCount;
+    //The hitbox of a swing, moved to the pickaxe on every attacking tick.
+    private final CollisionEntity tester;
+    private boolean swinging;
 
     /**
      * Constructs a Pickaxe with the specified parameters.
-     * @param parentComponent The GamePlayComponent which the Pickaxe is to be drawn to.
+     * @param parentWorld The GameWorld which the Pickaxe belongs to.
      * @param owner The Player object which owns this Pickaxe.
      */
-    public Pickaxe(GamePlayComponent parentComponent, Player owner)
+    public Pickaxe(GameWorld parentWorld, Player owner)
     {
-        super(parentComponent);
+        super(parentWorld);
         this.owner = owner;
-        this.parentComponent = parentComponent;
+        this.parentWorld = parentWorld;
         attackCount = 0;
+        tester = new CollisionEntity(xPos, yPos, width, height, parentWorld, owner);
+        tester.setCollisionLayer(CollisionLayers.MELEE);
     }
 
 
     /**
-     * Handles drawing the pickaxe. Also handles collision checking with enemies and chests.
+     * Handles drawing the pickaxe at the position computed by the last tick.
      * @param g The Graphics which the Pickaxe is being drawn to.
      */
     public void drawPickaxe(Graphics g)
     {
-        //UNFINISHED
+        //Checks to see if attack is in progress, if not, draw idle sprite.
+        if(attackCount <= 0) {
+            switch (owner.getDirection()) {
+                case ("S"): IDLE_SOUTH.paintIcon(null, g, xPos, yPos); break;
+                case ("N"): IDLE_NORTH.paintIcon(null, g, xPos, yPos); break;
+                case ("E"): IDLE_EAST.paintIcon(null, g, xPos, yPos); break;
+                case ("W"): IDLE_WEST.paintIcon(null, g, xPos, yPos); break;
+            }
+        }
+        else
+        {
+            int frame = attackCount >= ATTACKDURATION*2/3 ? 0 : attackCount >= ATTACKDURATION/3 ? 1 : 2;
+            ImageIcon[] cycle = switch (owner.getDirection()) {
+                case ("N") -> ANIMATION_CYCLE_NORTH;
+                case ("E") -> ANIMATION_CYCLE_EAST;
+                case ("W") -> ANIMATION_CYCLE_WEST;
+                default -> ANIMATION_CYCLE_SOUTH;
+            };
+            cycle[frame].paintIcon(null, g, xPos, yPos);
+        }
+    }
+
+    //Positions the pickaxe relative to its owner, this is also the hitbox of an attack.
+    //Done in the tick rather than when drawing so attacks land without anything being painted.
+    private void positionPickaxe()
+    {
         final int SPACE_CONSTANT = -2;
         final int ATTACK_SPACE_CONSTANT = 10;
         //Pickaxe is to the right of player when facing south
 
-        //Checks to see if attack is in progress, if not, draw idle sprite.
         if(attackCount <= 0) {
             switch (owner.getDirection()) {
                 case ("S"):
-                    IDLE_SOUTH.paintIcon(parentComponent, g, xPos = owner.getX() + owner.getWidth() + SPACE_CONSTANT,
-                            yPos = owner.getY() + owner.getHeight() / 3);
+                    xPos = owner.getX() + owner.getWidth() + SPACE_CONSTANT;
+                    yPos = owner.getY() + owner.getHeight() / 3;
                     break;
                 case ("N"):
-                    IDLE_NORTH.paintIcon(parentComponent, g, xPos = owner.getX() + owner.getWidth() + SPACE_CONSTANT,
-                            yPos = owner.getY() - owner.getHeight() / 24);
+                    xPos = owner.getX() + owner.getWidth() + SPACE_CONSTANT;
+                    yPos = owner.getY() - owner.getHeight() / 24;
                     break;
                 case ("E"):
-                    IDLE_EAST.paintIcon(parentComponent, g, xPos = owner.getX() + owner.getWidth() / 6,
-                            yPos = owner.getY() + owner.getHeight() / 3 + SPACE_CONSTANT);
+                    xPos = owner.getX() + owner.getWidth() / 6;
+                    yPos = owner.getY() + owner.getHeight() / 3 + SPACE_CONSTANT;
                     break;
                 case ("W"):
-                    IDLE_WEST.paintIcon(parentComponent, g, xPos = owner.getX() - owner.getWidth() / 6,
-                            yPos = owner.getY() + owner.getHeight() / 3 + SPACE_CONSTANT);
+                    xPos = owner.getX() - owner.getWidth() / 6;
+                    yPos = owner.getY() + owner.getHeight() / 3 + SPACE_CONSTANT;
                     break;
             }
         }
@@ -122,68 +150,28 @@ public class Pickaxe extends Creature implements Updateable
                 case("N"):
                     width = 50;
                     height = 37;
-                    //System.out.println("North Called");
-                    if(attackCount >= ATTACKDURATION*2/3)
-                        ATTACK_NORTH1.paintIcon(parentComponent,g,xPos = owner.getX(),
-                                yPos = owner.getY()-SPACE_CONSTANT-height);
-                    else if(attackCount >= ATTACKDURATION/3)
-                        ATTACK_NORTH2.paintIcon(parentComponent,g,xPos = owner.getX(),
-                                yPos = owner.getY()-SPACE_CONSTANT-height);
-                    else
-                    {
-                        ATTACK_NORTH3.paintIcon(parentComponent,g,xPos = owner.getX(),
-                                yPos = owner.getY()-SPACE_CONSTANT-height);
-                    }
-                    //Handle collision here.
+                    xPos = owner.getX();
+                    yPos = owner.getY()-SPACE_CONSTANT-height;
                     break;
                 case("E"):
                     width = 37;
                     height = 50;
-                    if(attackCount >= ATTACKDURATION*2/3)
-                        ATTACK_EAST1.paintIcon(parentComponent,g,xPos = owner.getX()+ Collideable.PIXEL_CONSTANT ,
-                                yPos = owner.getY());
-                    else if(attackCount >= ATTACKDURATION/3)
-                        ATTACK_EAST2.paintIcon(parentComponent,g,xPos = owner.getX()+ Collideable.PIXEL_CONSTANT ,
-                                yPos = owner.getY());
-                    else
-                    {
-                        ATTACK_EAST3.paintIcon(parentComponent,g,xPos = owner.getX()+ Collideable.PIXEL_CONSTANT ,
-                               yPos = owner.getY());
-                    }
+                    xPos = owner.getX()+ Collideable.PIXEL_CONSTANT;
+                    yPos = owner.getY();
                     break;
                 case("S"):
                     width = 50;
                     height = 37;
-                    if(attackCount >= ATTACKDURATION*2/3)
-                        ATTACK_SOUTH1.paintIcon(parentComponent,g,xPos = owner.getX(),
-                                yPos = owner.getY()+SPACE_CONSTANT+height);
-                    else if(attackCount >= ATTACKDURATION/3)
-                        ATTACK_SOUTH2.paintIcon(parentComponent,g,xPos = owner.getX(),
-                                yPos = owner.getY()+SPACE_CONSTANT+height);
-                    else
-                    {
-                        ATTACK_SOUTH3.paintIcon(parentComponent,g,xPos = owner.getX(),
-                                yPos = owner.getY()+SPACE_CONSTANT+height);
-                    }
-
+                    xPos = owner.getX();
+                    yPos = owner.getY()+SPACE_CONSTANT+height;
                     break;
                 case("W"):
                     width = 37;
                     height = 50;
-                    if(attackCount >= ATTACKDURATION*2/3)
-                        ATTACK_WEST1.paintIcon(parentComponent,g,xPos = owner.getX()-width - ATTACK_SPACE_CONSTANT,
-                                yPos = owner.getY());
-                    else if(attackCount >= ATTACKDURATION/3)
-                        ATTACK_WEST2.paintIcon(parentComponent,g,xPos = owner.getX()-width - ATTACK_SPACE_CONSTANT,
-                                yPos = owner.getY());
-                    else
-                    {
-                        ATTACK_WEST3.paintIcon(parentComponent,g,xPos = owner.getX()-width - ATTACK_SPACE_CONSTANT,
-                                yPos = owner.getY());
-                    }
+                    xPos = owner.getX()-width - ATTACK_SPACE_CONSTANT;
+                    yPos = owner.getY();
                     break;
             }
-
         }
     }
 
@@ -225,49 +213,71 @@ public class Pickaxe extends Creature implements Updateable
     }
 
     /**
-     * Checks through collision with Enemies for damage purposes, and also checks for collision with other relevant objects for interaction.
-     * Does so on every tick of swing Timer in GamePlayComponent.
+     * Positions the pickaxe and, while it swings, its hitbox, then advances the swing.
+     * What the swing overlaps is found afterwards by the ContactPhase of the tick and handed to strike().
+     * Does so on every tick of the GameWorld.
      * @param nullPoint Should be null, not required.
-     * @see GamePlayComponent
-     * @see javax.swing.Timer
+     * @see GameWorld
+     * @see Simulation.SimulationLoop
      */
     @Override
     public void update(Object nullPoint)
     {
-        if(attackCount > 0) {
-            CollisionEntity tester = new CollisionEntity(xPos, yPos, width, height, parentComponent, owner);
-            HashSet<Collideable> collideables = parentComponent.getCurrentRoomRef().getCollideables();
-            for (Collideable c : collideables) {
-                if (tester.collides(c) != null) {
-                    //Start damage
-                    if (c instanceof GolemBoss) {
-                        ((Enemy) c).startDamage(0,owner.getAtk());
-                    } else if (c instanceof Enemy)
-                        ((Enemy) c).startDamage(KNOCKBACK_CONSTANT,owner.getAtk());
-                    else if(c instanceof Chest && ((Chest)c).peekChest() instanceof ActiveItem)
-                    {
-                        Item temp = ((Chest)c).openChest();
-                        addItemToWorld(temp);
-                        ((ActiveItem)temp).assignOwner(owner);
-                    }
-                    else if (c instanceof Chest && ((Chest) c).peekChest() != null) {
-                        //Do chest stuff.
-                        Item temp = ((Chest) c).openChest();
-                        addItemToWorld(temp);
+        positionPickaxe();
+        swinging = attackCount > 0;
+        if(swinging) {
+            tester.setBox(xPos, yPos, width, height);
+            attackCount--;
+        }
+    }
+
+    /**
+     * Returns the hitbox of the swing made on the current tick.
+     * @return The hitbox, which ignores the player swinging it, or null if the pickaxe did not swing this tick.
+     * @see Collision.ContactPhase
+     */
+    public Collideable getSwingBox()
+    {
+        return swinging ? tester : null;
+    }
 
-                    }
-                }
-            }
+    /**
+     * Strikes a Collideable touched by the swing: damages and knocks back enemies, and opens chests.
+     * What the swing can touch is the contact mask of CollisionLayers.MELEE, anything else is left alone.
+     * @param c The Collideable overlapping the swing hitbox.
+     * @see #getSwingBox()
+     */
+    public void strike(Collideable c)
+    {
+        int layer = c.getCollisionLayer();
+        //Start damage, enemies which are too heavy are not knocked back.
+        if ((layer & (CollisionLayers.ENEMY | CollisionLayers.FLYER)) != 0)
+        {
+            Enemy enemy = (Enemy) c;
+            enemy.startDamage(enemy.isKnockbackImmune() ? 0 : KNOCKBACK_CONSTANT, owner.getAtk());
+        }
+        else if(layer != CollisionLayers.INTERACTABLE)
+            return;
+        else if(((Chest)c).peekChest() instanceof ActiveItem)
+        {
+            Item temp = ((Chest)c).openChest();
+            parentWorld.getCurrentRoomRef().invalidateBackground();
+            addItemToWorld(temp);
+            ((ActiveItem)temp).assignOwner(owner);
+        }
+        else if (((Chest) c).peekChest() != null) {
+            //Do chest stuff.
+            Item temp = ((Chest) c).openChest();
+            parentWorld.getCurrentRoomRef().invalidateBackground();
+            addItemToWorld(temp);
 
-            attackCount--;
         }
     }
 
     private void addItemToWorld(Item item)
     {
-        parentComponent.getPlayer().addItem(item);
-        //Add logic here later to handle UI spot for active item.
-        parentComponent.getMainFrame().getTopUI().addItem(item);
-        parentComponent.getMainFrame().getTopUI().repaint();//Call to repaint in order to update Indicator Component
+        parentWorld.getPlayer().addItem(item);
+        //Lets the frontend show the new item.
+        parentWorld.getRenderSink().itemAcquired(item);
     }
 }
@@ -1,12 +1,14 @@
 package CharacterResources.Player;
 
 import CharacterResources.Creature;
-import GUIDesign.GamePlayComponent;
+import Collision.CollisionLayers;
+import Collision.SpatialGrid;
+import Simulation.GameWorld;
 import GUIDesign.Updateable;
+import GUIDesign.SpriteCache;
 
 import java.awt.*;
 import javax.swing.ImageIcon;
-import java.util.HashSet;
 
 /**
  * Abstract class which represents the player character. Defines all basic functions.
@@ -14,10 +16,10 @@ import java.util.HashSet;
 public abstract class Player extends Creature implements Updateable
 {
     /**
-     * The amount of I-Frames in ms which the player should be invulnerable for after being hit.
-     * This system is set to be changed to work with ticks instead of multithreading.
+     * The amount of I-Frames in ticks which the player should be invulnerable for after being hit.
      */
-    public static final int PLAYER_I_FRAMES = 2000; //In ms
+    public static final int PLAYER_I_FRAMES = 2000 / GameWorld.TICK_INTERVAL; //In ticks, 2000ms
+    private int iFrameCount;
     private Pickaxe pickaxe;
     private String direction;
     /**
@@ -28,10 +30,10 @@ public abstract class Player extends Creature implements Updateable
 
     /**
      * Constructs player object with default stats.
-     * @param inGameWorld GamePlayComponent to be drawn to.
+     * @param inGameWorld GameWorld it belongs to.
      * @param spriteFileName The name of file for default sprite of the player when the game starts.
      */
-    protected Player(GamePlayComponent inGameWorld, String spriteFileName)
+    protected Player(GameWorld inGameWorld, String spriteFileName)
     {
         super(inGameWorld);
         maxHP = 7;
@@ -43,9 +45,10 @@ public abstract class Player extends Creature implements Updateable
         super.width = 24;
         super.height = 45;
         if(spriteFileName != null)
-            currentPlayerImage = new ImageIcon(getClass().getClassLoader().getResource(spriteFileName));
+            currentPlayerImage = SpriteCache.get(spriteFileName);
         pickaxe = new Pickaxe(inGameWorld, this);
         direction = "S";
+        savePreviousPosition();
 
     }
     /**
@@ -57,9 +60,9 @@ public abstract class Player extends Creature implements Updateable
      * @param y the y position of the top left corner of the Player.
      * @param width The width of the Player.
      * @param height The height of the Player.
-     * @param inGameWorld The GamePlayComponent to be drawn to.
+     * @param inGameWorld The GameWorld it belongs to.
      */
-    public Player(int health, int attack, int speed, int x, int y, int width, int height, GamePlayComponent inGameWorld)
+    public Player(int health, int attack, int speed, int x, int y, int width, int height, GameWorld inGameWorld)
     {
         super(health, attack, speed, x, y, width, height, inGameWorld);
     }
@@ -111,6 +114,32 @@ public abstract class Player extends Creature implements Updateable
         return currentHp <= 0;
     }
 
+    /**
+     * Makes the player invulnerable for PLAYER_I_FRAMES ticks.
+     */
+    public void startIFrames()
+    {
+        iFrameCount = PLAYER_I_FRAMES;
+    }
+
+    /**
+     * Counts down the I-frames of the player, called once per tick by the GameWorld while the current room is active.
+     */
+    public void updateIFrames()
+    {
+        if(iFrameCount > 0)
+            iFrameCount--;
+    }
+
+    /**
+     * Returns whether the player is currently immune to damage.
+     * @return True if the player is within its I-frames.
+     */
+    public boolean isInvulnerable()
+    {
+        return iFrameCount > 0;
+    }
+
 
     /**
      * Draws the Player in the specified Graphics window.
@@ -124,7 +153,7 @@ public abstract class Player extends Creature implements Updateable
             window.fillRect(getX(), getY(), getWidth(), getHeight());
         }
         else {
-            currentPlayerImage.paintIcon(gameWorld,window,xPos,yPos);
+            currentPlayerImage.paintIcon(null,window,xPos,yPos);
             pickaxe.drawPickaxe(window);
         }
 
@@ -142,16 +171,26 @@ public abstract class Player extends Creature implements Updateable
     /**
      * An overridden variant of Creature's move method. This calls super and also calls updatePlayerImage().
      * @param direction The direction in which to move.
-     * @param collideables A HashSet of type Collision.Collideable, used to check for collision in super call.
+     * @param collideables The SpatialGrid of the Room, used to check for collision in super call.
      */
     @Override
-    public void move(String direction, HashSet<Collision.Collideable> collideables)
+    public void move(String direction, SpatialGrid collideables)
     {
         super.move(direction, collideables);
         this.direction = direction;
         updatePlayerImage(direction);
     }
 
+    /**
+     * Returns the layer of the player, which walks through enemies but not through obstacles or projectiles.
+     * @return Always returns CollisionLayers.PLAYER.
+     */
+    @Override
+    public int getCollisionLayer()
+    {
+        return CollisionLayers.PLAYER;
+    }
+
     /**
      * Updates associated objects with Player.
      * @param collideables To be passed to relevant ActiveItems.
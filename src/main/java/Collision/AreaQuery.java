@@ -0,0 +1,281 @@
+package Collision;
+
+import java.util.ArrayList;
+
+/**
+ * Finds the Collideables of a Room caught in an area of effect: a circle, a cone or a capsule.
+ * Candidates come from the SpatialGrid of the Room, limited to the bounding box of the area and to some collision layers,
+ * so the cost of a query depends on what is near the area and not on how many Collideables the Room holds.
+ * Each candidate is then tested exactly: its collision box, the same one Collideable.collides uses, must touch the area.
+ * Areas are closed, a box just touching the edge of an area is caught.
+ * Every query returns the same list, so a query does not allocate. It is cleared by the next query.
+ * This class is not thread safe, it should only be used by the simulation thread.
+ * @see MapDesign.Rooms.Room#queryCircle(int, int, int, int)
+ */
+public class AreaQuery {
+
+    //Sized up front so the first queries do not allocate.
+    private static final int CAPACITY = 16;
+    //A box clipped by the two sides of a wedge has at most this many corners.
+    private static final int MAX_CORNERS = 8;
+
+    private final SpatialGrid grid;
+    private final ArrayList<Collideable> candidates = new ArrayList<Collideable>(CAPACITY);
+    private final ArrayList<Collideable> hits = new ArrayList<Collideable>(CAPACITY);
+    //Corners of a box while it is clipped by a wedge, relative to the apex of the cone.
+    private final double[] cornersX = new double[MAX_CORNERS], cornersY = new double[MAX_CORNERS];
+    private final double[] clippedX = new double[MAX_CORNERS], clippedY = new double[MAX_CORNERS];
+    //Total amount of Collideables caught, for profiling.
+    private long hitCount;
+
+    /**
+     * Constructs an AreaQuery over the Collideables of a SpatialGrid.
+     * @param grid The SpatialGrid of the Room.
+     */
+    public AreaQuery(SpatialGrid grid)
+    {
+        if(grid == null)
+            throw new IllegalArgumentException("An AreaQuery needs a SpatialGrid");
+        this.grid = grid;
+    }
+
+    /**
+     * Finds the Collideables on some layers whose collision box touches a circle.
+     * @param centerX The x-center of the circle.
+     * @param centerY The y-center of the circle.
+     * @param radius The radius of the circle, not negative.
+     * @param layerMask The layers to return, usually the contact mask of the caster.
+     * @return The Collideables caught, in the order the grid returns them. The list is reused by the next query.
+     */
+    public ArrayList<Collideable> circle(int centerX, int centerY, int radius, int layerMask)
+    {
+        checkRadius(radius);
+        hits.clear();
+        grid.query(centerX - radius, centerY - radius, centerX + radius, centerY + radius, layerMask, candidates);
+        for(int i = 0; i < candidates.size(); i++)
+        {
+            Collideable c = candidates.get(i);
+            if(boxTouchesCircle(c, centerX, centerY, radius))
+                hits.add(c);
+        }
+        hitCount += hits.size();
+        return hits;
+    }
+
+    /**
+     * Finds the Collideables on some layers whose collision box touches a cone, a slice of a circle around a direction.
+     * @param apexX The x-coordinate of the tip of the cone, the center of its circle.
+     * @param apexY The y-coordinate of the tip of the cone.
+     * @param directionX The x-component of the direction the cone points in, any length.
+     * @param directionY The y-component of the direction the cone points in, any length. Both may not be 0.
+     * @param halfAngle The angle in radians between the direction and either side of the cone, above 0.
+     *                  A half angle of Math.PI or more makes the cone a full circle.
+     * @param range The radius of the circle of the cone, not negative.
+     * @param layerMask The layers to return.
+     * @return The Collideables caught, in the order the grid returns them. The list is reused by the next query.
+     */
+    public ArrayList<Collideable> cone(int apexX, int apexY, double directionX, double directionY, double halfAngle, int range, int layerMask)
+    {
+        double length = Math.hypot(directionX, directionY);
+        if(length == 0 || Double.isNaN(length) || Double.isInfinite(length))
+            throw new IllegalArgumentException("A cone needs a direction, not (" + directionX + ", " + directionY + ")");
+        if(!(halfAngle > 0))
+            throw new IllegalArgumentException("The half angle of a cone must be positive, not " + halfAngle);
+        if(halfAngle >= Math.PI)
+            return circle(apexX, apexY, range, layerMask);
+        checkRadius(range);
+        double dirX = directionX / length, dirY = directionY / length;
+        double sin = Math.sin(halfAngle), cos = Math.cos(halfAngle);
+        //The sides of the cone, the direction turned each way by the half angle.
+        double startX = dirX * cos + dirY * sin, startY = dirY * cos - dirX * sin;
+        double endX = dirX * cos - dirY * sin, endY = dirY * cos + dirX * sin;
+
+        hits.clear();
+        grid.query(apexX - range, apexY - range, apexX + range, apexY + range, layerMask, candidates);
+        for(int i = 0; i < candidates.size(); i++)
+        {
+            Collideable c = candidates.get(i);
+            if(!boxTouchesCircle(c, apexX, apexY, range))
+                continue;
+            //A cone wider than a half circle is not convex, so it is tested as the two halves either side of the direction.
+            if(boxTouchesWedge(c, apexX, apexY, startX, startY, dirX, dirY, range)
+                    || boxTouchesWedge(c, apexX, apexY, dirX, dirY, endX, endY, range))
+                hits.add(c);
+        }
+        hitCount += hits.size();
+        return hits;
+    }
+
+    /**
+     * Finds the Collideables on some layers whose collision box touches a capsule, every point within a radius of a line segment.
+     * Suits beams and anything swept along a line.
+     * @param startX The x-coordinate of the start of the segment.
+     * @param startY The y-coordinate of the start of the segment.
+     * @param endX The x-coordinate of the end of the segment.
+     * @param endY The y-coordinate of the end of the segment.
+     * @param radius The radius of the capsule, not negative. A radius of 0 finds what the segment crosses.
+     * @param layerMask The layers to return.
+     * @return The Collideables caught, in the order the grid returns them. The list is reused by the next query.
+     */
+    public ArrayList<Collideable> capsule(int startX, int startY, int endX, int endY, int radius, int layerMask)
+    {
+        checkRadius(radius);
+        hits.clear();
+        grid.query(Math.min(startX, endX) - radius, Math.min(startY, endY) - radius,
+                Math.max(startX, endX) + radius, Math.max(startY, endY) + radius, layerMask, candidates);
+        for(int i = 0; i < candidates.size(); i++)
+        {
+            Collideable c = candidates.get(i);
+            if(boxTouchesCapsule(c, startX, startY, endX, endY, radius))
+                hits.add(c);
+        }
+        hitCount += hits.size();
+        return hits;
+    }
+
+    /**
+     * Returns how many Collideables all queries have caught since the AreaQuery was created.
+     * @return The total amount of Collideables caught.
+     */
+    public long getHitCount()
+    {
+        return hitCount;
+    }
+
+    //The distance from the circle center to the nearest point of the box is at most the radius.
+    private static boolean boxTouchesCircle(Collideable c, int centerX, int centerY, int radius)
+    {
+        double gapX = Math.max(0, Math.abs(c.getImageCenterX() - centerX) - Math.abs(c.getWidth() / 2.0));
+        double gapY = Math.max(0, Math.abs(c.getImageCenterY() - centerY) - Math.abs(c.getHeight() / 2.0));
+        return gapX * gapX + gapY * gapY <= (double)radius * radius;
+    }
+
+    //A box holding the apex is caught. Otherwise the box is clipped to the wedge turning from the start side to the
+    //end side, less than half a circle, and what is left must come within range of the apex.
+    private boolean boxTouchesWedge(Collideable c, int apexX, int apexY,
+                                    double startX, double startY, double endX, double endY, int range)
+    {
+        double halfWidth = Math.abs(c.getWidth() / 2.0), halfHeight = Math.abs(c.getHeight() / 2.0);
+        double centerX = c.getImageCenterX() - apexX, centerY = c.getImageCenterY() - apexY;
+        if(Math.abs(centerX) <= halfWidth && Math.abs(centerY) <= halfHeight)
+            return true;
+        cornersX[0] = centerX - halfWidth; cornersY[0] = centerY - halfHeight;
+        cornersX[1] = centerX + halfWidth; cornersY[1] = centerY - halfHeight;
+        cornersX[2] = centerX + halfWidth; cornersY[2] = centerY + halfHeight;
+        cornersX[3] = centerX - halfWidth; cornersY[3] = centerY + halfHeight;
+        //Keeps the side of each edge of the wedge facing into it.
+        int count = clip(cornersX, cornersY, 4, -startY, startX, clippedX, clippedY);
+        count = clip(clippedX, clippedY, count, endY, -endX, cornersX, cornersY);
+        if(count == 0)
+            return false;
+        //The apex is outside the clipped box, so its nearest point is on one of the edges.
+        double rangeSquared = (double)range * range;
+        for(int i = 0; i < count; i++)
+        {
+            int next = (i + 1) % count;
+            if(segmentDistanceSquared(0, 0, cornersX[i], cornersY[i], cornersX[next], cornersY[next]) <= rangeSquared)
+                return true;
+        }
+        return false;
+    }
+
+    //One step of Sutherland-Hodgman: keeps the part of a convex polygon where normalX * x + normalY * y >= 0.
+    private static int clip(double[] inX, double[] inY, int count, double normalX, double normalY, double[] outX, double[] outY)
+    {
+        int out = 0;
+        for(int i = 0; i < count; i++)
+        {
+            int next = (i + 1) % count;
+            double side = normalX * inX[i] + normalY * inY[i];
+            double nextSide = normalX * inX[next] + normalY * inY[next];
+            if(side >= 0)
+            {
+                outX[out] = inX[i];
+                outY[out] = inY[i];
+                out++;
+            }
+            if((side >= 0) != (nextSide >= 0))
+            {
+                double t = side / (side - nextSide);
+                outX[out] = inX[i] + (inX[next] - inX[i]) * t;
+                outY[out] = inY[i] + (inY[next] - inY[i]) * t;
+                out++;
+            }
+        }
+        return out;
+    }
+
+    //The segment crosses the box, or comes within the radius of it. When they do not cross, the nearest points
+    //are an end of the segment against the box or a corner of the box against the segment.
+    private static boolean boxTouchesCapsule(Collideable c, int startX, int startY, int endX, int endY, int radius)
+    {
+        double halfWidth = Math.abs(c.getWidth() / 2.0), halfHeight = Math.abs(c.getHeight() / 2.0);
+        double centerX = c.getImageCenterX(), centerY = c.getImageCenterY();
+        double minX = centerX - halfWidth, maxX = centerX + halfWidth;
+        double minY = centerY - halfHeight, maxY = centerY + halfHeight;
+        if(segmentCrossesBox(startX, startY, endX, endY, minX, minY, maxX, maxY))
+            return true;
+        double radiusSquared = (double)radius * radius;
+        return pointBoxDistanceSquared(startX, startY, minX, minY, maxX, maxY) <= radiusSquared
+                || pointBoxDistanceSquared(endX, endY, minX, minY, maxX, maxY) <= radiusSquared
+                || segmentDistanceSquared(minX, minY, startX, startY, endX, endY) <= radiusSquared
+                || segmentDistanceSquared(maxX, minY, startX, startY, endX, endY) <= radiusSquared
+                || segmentDistanceSquared(maxX, maxY, startX, startY, endX, endY) <= radiusSquared
+                || segmentDistanceSquared(minX, maxY, startX, startY, endX, endY) <= radiusSquared;
+    }
+
+    //Clips the segment to the slab of the box on each axis, it crosses the box if anything is left.
+    private static boolean segmentCrossesBox(double startX, double startY, double endX, double endY,
+                                             double minX, double minY, double maxX, double maxY)
+    {
+        double enter = 0, exit = 1;
+        double moveX = endX - startX, moveY = endY - startY;
+        if(moveX == 0)
+        {
+            if(startX < minX || startX > maxX)
+                return false;
+        }
+        else
+        {
+            double t1 = (minX - startX) / moveX, t2 = (maxX - startX) / moveX;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        if(moveY == 0)
+        {
+            if(startY < minY || startY > maxY)
+                return false;
+        }
+        else
+        {
+            double t1 = (minY - startY) / moveY, t2 = (maxY - startY) / moveY;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        return enter <= exit;
+    }
+
+    private static double pointBoxDistanceSquared(double x, double y, double minX, double minY, double maxX, double maxY)
+    {
+        double gapX = Math.max(0, Math.max(minX - x, x - maxX));
+        double gapY = Math.max(0, Math.max(minY - y, y - maxY));
+        return gapX * gapX + gapY * gapY;
+    }
+
+    //The squared distance from a point to the nearest point of a segment, which may be a single point.
+    private static double segmentDistanceSquared(double x, double y, double startX, double startY, double endX, double endY)
+    {
+        double moveX = endX - startX, moveY = endY - startY;
+        double lengthSquared = moveX * moveX + moveY * moveY;
+        double t = lengthSquared == 0 ? 0 : ((x - startX) * moveX + (y - startY) * moveY) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double gapX = startX + moveX * t - x, gapY = startY + moveY * t - y;
+        return gapX * gapX + gapY * gapY;
+    }
+
+    private static void checkRadius(int radius)
+    {
+        if(radius < 0)
+            throw new IllegalArgumentException("The radius of an area must not be negative, not " + radius);
+    }
+}
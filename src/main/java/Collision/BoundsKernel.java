@@ -0,0 +1,96 @@
+package Collision;
+
+import Simulation.Log;
+
+/**
+ * The batch narrow phase: tests one box against many boxes held in primitive arrays, instead of calling
+ * Collideable.collides with its virtual getters once per pair.
+ * When the JVM runs with {@code --add-modules jdk.incubator.vector} the boxes are tested with the Vector API,
+ * several at once, otherwise with a plain loop the JIT can inline. Both give exactly the result of Collideable.collides.
+ * Setting the system property {@value #SCALAR_PROPERTY} keeps the plain loop even when the module is present.
+ * The plain loop never allocates, the Vector API one can box its vectors while the JIT deoptimizes it.
+ * @see SpatialGrid#queryOverlapping(int, int, int, int, int, Collideable, java.util.ArrayList)
+ */
+public final class BoundsKernel {
+
+    /**
+     * The system property which, when true, disables the Vector API kernel.
+     */
+    public static final String SCALAR_PROPERTY = "sns.scalarKernel";
+    /**
+     * The most boxes a single call tests, one per bit of the returned mask.
+     */
+    public static final int MAX_BATCH = 64;
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final OverlapKernel KERNEL = loadKernel();
+
+    private BoundsKernel()
+    {
+    }
+
+    /**
+     * Finds which boxes of a run overlap a box, with the square to square test of Collideable.collides.
+     * @param centerX The x-center of the box.
+     * @param centerY The y-center of the box.
+     * @param halfWidth Half the width of the box.
+     * @param halfHeight Half the height of the box.
+     * @param centerXs The x-centers of the boxes.
+     * @param centerYs The y-centers of the boxes.
+     * @param halfWidths Half the widths of the boxes, not negative.
+     * @param halfHeights Half the heights of the boxes, not negative.
+     * @param from The index of the first box of the run.
+     * @param count The amount of boxes in the run, at most {@value #MAX_BATCH}.
+     * @return A mask with bit i set if box from + i overlaps.
+     */
+    public static long overlapMask(int centerX, int centerY, int halfWidth, int halfHeight,
+                                   int[] centerXs, int[] centerYs, int[] halfWidths, int[] halfHeights, int from, int count)
+    {
+        if(count > MAX_BATCH)
+            throw new IllegalArgumentException("At most " + MAX_BATCH + " boxes can be tested at once, not " + count);
+        return KERNEL.overlapMask(centerX, centerY, Math.abs(halfWidth), Math.abs(halfHeight),
+                centerXs, centerYs, halfWidths, halfHeights, from, count);
+    }
+
+    /**
+     * Returns whether the boxes are tested with the Vector API.
+     * @return True if the jdk.incubator.vector module was found and not disabled.
+     */
+    public static boolean isVectorized()
+    {
+        return !(KERNEL instanceof ScalarOverlapKernel);
+    }
+
+    //The vector kernel is only loaded by name, so this class still loads without the module.
+    private static OverlapKernel loadKernel()
+    {
+        if(Boolean.getBoolean(SCALAR_PROPERTY) || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty())
+            return new ScalarOverlapKernel();
+        try {
+            OverlapKernel kernel = (OverlapKernel) Class.forName("Collision.VectorOverlapKernel").getDeclaredConstructor().newInstance();
+            Log.debug("Using the Vector API for batch overlap tests");
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            Log.warn("Could not load the Vector API overlap kernel, using the scalar one: {}", e);
+            return new ScalarOverlapKernel();
+        }
+    }
+
+    //One box at a time, used when the Vector API is not available.
+    private static final class ScalarOverlapKernel implements OverlapKernel {
+
+        @Override
+        public long overlapMask(int centerX, int centerY, int halfWidth, int halfHeight,
+                                int[] centerXs, int[] centerYs, int[] halfWidths, int[] halfHeights, int from, int count)
+        {
+            long mask = 0;
+            for(int i = 0; i < count; i++)
+            {
+                int j = from + i;
+                if(Math.abs(centerXs[j] - centerX) < halfWidth + halfWidths[j] && Math.abs(centerYs[j] - centerY) < halfHeight + halfHeights[j])
+                    mask |= 1L << i;
+            }
+            return mask;
+        }
+    }
+}
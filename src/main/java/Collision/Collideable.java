@@ -1,7 +1,5 @@
 package Collision;
 
-import javax.vecmath.Vector2d;
-
 /**
  * Incredibly important interface which tests for collision between two objects that have image representations.
  * This utilizes image width and height to calculate the center of images.
@@ -77,72 +75,6 @@ public interface Collideable {
         return null;
     }
 
-    /**
-     * Checks if circle and square collides.
-     * Still based on rectangular images for collision detection.
-     * @param circle The circle being checked.
-     * @param rectangle The square being checked
-     */
-    public static boolean circleSquareCollides(Collideable circle, Collideable rectangle)
-    {
-        /*
-        //Unfinished.
-        double XCoord1 = circle.getImageCenterX()-rectangle.getImageCenterX();
-        double YCoord1 = circle.getImageCenterY()-rectangle.getImageCenterY();
-        Vector2d relativeCenter = new Vector2d(XCoord1, YCoord1);
-        Vector2d offsetFromCorner = new Vector2d(relativeCenter.x-circle.getWidth()/2,relativeCenter.y-circle.getHeight()/2 );
-
-        double result = Math.min(Math.max(offsetFromCorner.x,offsetFromCorner.y),0)
-                +Math.max(offsetFromCorner.length(),0)
-                - circle.getWidth()/2.0;
-
-        return result < 0;
-
-         */
-
-        //Still UNFINISHED!
-        //int rectX = rectangle.getX()- rectangle.getWidth()/2;
-        //int rectY = rectangle.getY()- rectangle.getHeight()/2;
-        int rectX = rectangle.getImageCenterX();
-        int rectY = rectangle.getImageCenterY();
-
-        System.out.println("Center for Fireball Explosion: " + circle.getImageCenterX() + ", " + circle.getImageCenterY() +
-                "\nCenter for " + rectangle.getClass() + rectangle.getImageCenterX() + ", " + rectangle.getImageCenterY());
-
-        int circleRadius = circle.getWidth()/2;
-        Vector2d circleDistance = new Vector2d(Math.abs(circle.getImageCenterX() - rectX),
-                Math.abs(circle.getImageCenterY()-rectY));
-
-        //System.out.println(circleDistance);
-
-        if(circleDistance.x > (rectangle.getWidth()/2.0 + circleRadius)) {
-            System.out.println("Circle-Square False at one with :" + rectangle
-            + "\nCircle dist:" + circleDistance.x +" > " + (rectangle.getWidth()/2 + circleRadius));
-            return false;
-        }
-        if(circleDistance.y > (rectangle.getHeight()/2.0 + circleRadius)) {
-            System.out.println("Circle-Square False at two with: " + rectangle);
-            return false;
-        }
-        if(circleDistance.x <= rectangle.getWidth()/2.0) {
-            System.out.println("Circle-Square True at one with: " + rectangle);
-            return true;
-        }
-        if(circleDistance.y <= rectangle.getHeight()/2.0) {
-            System.out.println("Circle-Square True at two with: " + rectangle);
-            return true;
-        }
-
-        double cornerDistance_sq = Math.pow((circleDistance.x - rectangle.getWidth()/2.0),2)
-                + Math.pow((circleDistance.y - rectangle.getHeight()/2.0),2);
-
-        System.out.println("Circle square result at end: \ncornerDistance_sq = " + cornerDistance_sq +
-                "\n radius squared is:" + (circleRadius*circleRadius) +
-                "\nfor result of " + (cornerDistance_sq <= circleRadius*circleRadius));
-
-        return cornerDistance_sq <= circleRadius * circleRadius;
-    }
-
     /**
      * Gets the X-center of the image representing the Collideable
      * @return An integer representing the X-center of the image representing the Collideable
@@ -169,6 +101,44 @@ public interface Collideable {
      */
     public boolean isObstacle();
 
+    /**
+     * Returns the collision layer the implementing object belongs to, which decides what it blocks and touches.
+     * Should not change while the object is in a SpatialGrid.
+     * @return A single layer bit from CollisionLayers, NONE by default.
+     * @see CollisionLayers
+     */
+    public default int getCollisionLayer()
+    {
+        return CollisionLayers.NONE;
+    }
+
+    /**
+     * Returns the layers which stop the implementing object from moving, from the matrix in CollisionLayers.
+     * @return The blocking mask of the layer of the object.
+     */
+    public default int getBlockingMask()
+    {
+        return CollisionLayers.blockingMask(getCollisionLayer());
+    }
+
+    /**
+     * Returns the layers the implementing object reports contacts with, from the matrix in CollisionLayers.
+     * @return The contact mask of the layer of the object.
+     */
+    public default int getContactMask()
+    {
+        return CollisionLayers.contactMask(getCollisionLayer());
+    }
+
+    /**
+     * Returns the damage the implementing object deals to the player on a body contact with it.
+     * @return The damage dealt on touching the object, 0 by default for objects which are harmless to touch.
+     */
+    public default int getContactDamage()
+    {
+        return 0;
+    }
+
     /**
      * Returns the x-position of the implementing object.
      * @return An integer representing the implementing object's x-position.
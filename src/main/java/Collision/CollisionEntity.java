@@ -1,7 +1,7 @@
 package Collision;
 
 import CharacterResources.Creature;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
 
 /**
  * A class to represent an entity to Collision.test collision with.
@@ -9,6 +9,7 @@ import GUIDesign.GamePlayComponent;
 public class CollisionEntity extends Creature {
 
     Collision.Collideable parent;
+    private int collisionLayer = CollisionLayers.NONE;
 
     /**
      * Constructs collision entity with specified parameters.
@@ -19,12 +20,47 @@ public class CollisionEntity extends Creature {
      * @param inGameWorld GameplayComponent to be checked on.
      * @param parent The parent object initiating the collision.
      */
-    public CollisionEntity(int inX, int inY, int inWidth, int inHeight, GamePlayComponent inGameWorld, Collideable parent)
+    public CollisionEntity(int inX, int inY, int inWidth, int inHeight, GameWorld inGameWorld, Collideable parent)
     {
         super(inX, inY, inWidth, inHeight, inGameWorld);
         this.parent = parent;
     }
 
+    /**
+     * Moves and resizes the entity, so a single CollisionEntity can be reused for every check instead of constructing a new one.
+     * Unlike setPos, the position is not checked against the bounds of the world.
+     * @param inX New X location.
+     * @param inY New Y location.
+     * @param inWidth New width of entity.
+     * @param inHeight New height of entity.
+     */
+    public void setBox(int inX, int inY, int inWidth, int inHeight)
+    {
+        xPos = inX;
+        yPos = inY;
+        width = inWidth;
+        height = inHeight;
+    }
+
+    /**
+     * Puts the entity on a collision layer, so it reports the contacts of that layer.
+     * @param layer A layer from CollisionLayers, NONE by default.
+     */
+    public void setCollisionLayer(int layer)
+    {
+        collisionLayer = layer;
+    }
+
+    /**
+     * Returns the layer set by setCollisionLayer.
+     * @return The collision layer of the entity.
+     */
+    @Override
+    public int getCollisionLayer()
+    {
+        return collisionLayer;
+    }
+
     /**
      * Checks to see if parent is instance that is being compared to.
      * @param other Collision.Collideable which it is being compared to
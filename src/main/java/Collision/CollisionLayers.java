@@ -0,0 +1,133 @@
+package Collision;
+
+/**
+ * The collision layers every Collideable belongs to, and the matrix of which layers interact.
+ * A layer is a single bit, so a set of layers is a mask and checking whether two Collideables interact is one AND.
+ * Two kinds of interaction are kept apart:
+ * <ul>
+ *     <li>Blocking: a Creature on one layer cannot move into a Collideable on a layer in its blocking mask.
+ *     Static tiles count as OBSTACLE.</li>
+ *     <li>Contact: a Collideable on one layer reports a contact with a Collideable on a layer in its contact mask,
+ *     see ContactPhase. Each pair is reported by one side only, the side that acts on the other.</li>
+ * </ul>
+ * A new kind of entity only needs a layer and a row in each table here, the collision code does not change.
+ * @see Collideable#getCollisionLayer()
+ * @see ContactPhase
+ */
+public final class CollisionLayers {
+
+    /**
+     * Belongs to no layer, nothing interacts with it.
+     */
+    public static final int NONE = 0;
+    /**
+     * The player.
+     */
+    public static final int PLAYER = 1;
+    /**
+     * Enemies with a solid body, which stop each other.
+     */
+    public static final int ENEMY = 1 << 1;
+    /**
+     * Enemies without a solid body, like the SoundBat. They pass through each other, but not through anything solid.
+     */
+    public static final int FLYER = 1 << 2;
+    /**
+     * Projectiles fired by enemies.
+     */
+    public static final int ENEMY_PROJECTILE = 1 << 3;
+    /**
+     * Projectiles fired by the player.
+     */
+    public static final int PLAYER_PROJECTILE = 1 << 4;
+    /**
+     * Static obstacles, including the tiles of a TileMap.
+     */
+    public static final int OBSTACLE = 1 << 5;
+    /**
+     * Obstacles the player can interact with, like chests.
+     */
+    public static final int INTERACTABLE = 1 << 6;
+    /**
+     * The hitbox of a melee attack.
+     */
+    public static final int MELEE = 1 << 7;
+    /**
+     * Every layer.
+     */
+    public static final int ALL = ~0;
+
+    private static final int LAYER_COUNT = 8;
+
+    //Indexed by the bit of the layer. What stops a Creature of the layer from moving.
+    private static final int[] BLOCKED_BY = new int[LAYER_COUNT];
+    //Indexed by the bit of the layer. What a Collideable of the layer reports contacts with.
+    private static final int[] CONTACTS = new int[LAYER_COUNT];
+
+    static {
+        //The player walks through enemies, which hurt it through contacts instead, but not through projectiles.
+        BLOCKED_BY[indexOf(PLAYER)] = ENEMY_PROJECTILE | PLAYER_PROJECTILE | OBSTACLE | INTERACTABLE;
+        //Enemies walk through the player and projectiles. Solid enemies are stopped by bats, as bats are by them.
+        BLOCKED_BY[indexOf(ENEMY)] = ENEMY | FLYER | OBSTACLE | INTERACTABLE;
+        BLOCKED_BY[indexOf(FLYER)] = ENEMY | OBSTACLE | INTERACTABLE;
+        //Everything else does not move by itself.
+
+        CONTACTS[indexOf(PLAYER)] = ENEMY | FLYER;
+        CONTACTS[indexOf(ENEMY_PROJECTILE)] = PLAYER;
+        CONTACTS[indexOf(PLAYER_PROJECTILE)] = ENEMY | FLYER;
+        CONTACTS[indexOf(MELEE)] = ENEMY | FLYER | INTERACTABLE;
+    }
+
+    private CollisionLayers()
+    {
+    }
+
+    /**
+     * Returns the layers which stop a Creature of a layer from moving.
+     * @param layer The layer of the moving Creature.
+     * @return The blocking mask, NONE for layers which nothing stops.
+     */
+    public static int blockingMask(int layer)
+    {
+        return layer == NONE ? NONE : BLOCKED_BY[indexOf(layer)];
+    }
+
+    /**
+     * Returns the layers a Collideable of a layer reports contacts with.
+     * @param layer The layer of the Collideable.
+     * @return The contact mask, NONE for layers which report no contacts.
+     */
+    public static int contactMask(int layer)
+    {
+        return layer == NONE ? NONE : CONTACTS[indexOf(layer)];
+    }
+
+    /**
+     * Returns whether a Creature of one layer is stopped by a Collideable of another.
+     * @param moverLayer The layer of the moving Creature.
+     * @param otherLayer The layer of the Collideable in the way.
+     * @return True if the mover cannot move into the other Collideable.
+     */
+    public static boolean blocks(int moverLayer, int otherLayer)
+    {
+        return (blockingMask(moverLayer) & otherLayer) != 0;
+    }
+
+    /**
+     * Returns whether a Collideable of one layer reports contacts with a Collideable of another.
+     * @param layer The layer of the Collideable reporting the contact.
+     * @param otherLayer The layer of the Collideable touched.
+     * @return True if a contact is reported.
+     */
+    public static boolean contacts(int layer, int otherLayer)
+    {
+        return (contactMask(layer) & otherLayer) != 0;
+    }
+
+    private static int indexOf(int layer)
+    {
+        if(Integer.bitCount(layer) != 1 || Integer.numberOfTrailingZeros(layer) >= LAYER_COUNT)
+            throw new IllegalArgumentException("Not a single collision layer: " + layer);
+        return Integer.numberOfTrailingZeros(layer);
+    }
+}
@@ -0,0 +1,294 @@
+package Collision;
+
+import CharacterResources.Player.Player;
+import MapDesign.Rooms.Room;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Finds every contact of a tick in one pass, once everything has moved, so no system scans for overlaps on its own.
+ * Each contact is a pair of collideables and a ContactType, and the systems owning the contacts consume the list afterwards:
+ * projectiles apply their effects, the pickaxe strikes what its swing overlaps and the player takes contact damage.
+ * Every kind of contact is found with one SpatialGrid query per moving object. Swings and bodies are tested by the grid
+ * as a batch, see SpatialGrid#queryOverlapping, while projectiles are swept over their move here.
+ * Queries only return the layers in the contact mask of the object, so pairs which cannot interact are never tested.
+ * Contacts are listed projectiles first, in the order of the projectile store and earliest hit first for each projectile,
+ * then the contacts of the pickaxe swing, then the enemies touching the player, each in the order the grid returns them.
+ * The list is stored in parallel arrays which only grow, so a tick does not allocate.
+ * This class is not thread safe, it should only be used by the simulation thread.
+ * @see ContactType
+ */
+public class ContactPhase {
+
+    private ContactType[] types;
+    private Collideable[] firsts;
+    private Collideable[] seconds;
+    private double[] times;
+    private int size;
+
+    //Sized up front so the first query does not allocate.
+    private final ArrayList<Collideable> nearby = new ArrayList<Collideable>(16);
+    //Total amount of contacts found, for profiling.
+    private long contactCount;
+
+    /**
+     * Constructs an empty ContactPhase.
+     * @param initialCapacity The amount of contacts a tick holds before the list has to grow.
+     */
+    public ContactPhase(int initialCapacity)
+    {
+        int capacity = Math.max(1, initialCapacity);
+        types = new ContactType[capacity];
+        firsts = new Collideable[capacity];
+        seconds = new Collideable[capacity];
+        times = new double[capacity];
+    }
+
+    /**
+     * Replaces the contacts of the last tick with the contacts of a Room as it is now.
+     * Should be called once per tick, after the player, the enemies and the projectiles have moved.
+     * Projectiles only have contacts on the tick they moved, and only the player's pickaxe while it swings.
+     * @param room The Room to find the contacts in, usually the current Room.
+     * @param player The player in the Room.
+     */
+    public void generate(Room room, Player player)
+    {
+        clear();
+        SpatialGrid grid = room.getSpatialGrid();
+        EntityStore<Projectile> projectiles = room.getProjectiles();
+        for(int i = 0; i < projectiles.size(); i++)
+            addProjectileContacts(projectiles.get(i), grid);
+        Collideable swing = player.getPickaxe().getSwingBox();
+        if(swing != null)
+            addMeleeContacts(swing, player, grid);
+        addBodyContacts(player, grid);
+        contactCount += size;
+    }
+
+    /**
+     * Removes every contact, also letting go of the collideables in them.
+     */
+    public void clear()
+    {
+        for(int i = 0; i < size; i++)
+        {
+            firsts[i] = null;
+            seconds[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the amount of contacts found by the last generate() call.
+     * @return The amount of contacts.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the kind of a contact.
+     * @param index The position of the contact, from 0 to size() - 1.
+     * @return The ContactType of the contact.
+     */
+    public ContactType getType(int index)
+    {
+        checkIndex(index);
+        return types[index];
+    }
+
+    /**
+     * Returns the collideable which found a contact: the player, the swing hitbox or the projectile.
+     * @param index The position of the contact, from 0 to size() - 1.
+     * @return The first collideable of the contact.
+     */
+    public Collideable getFirst(int index)
+    {
+        checkIndex(index);
+        return firsts[index];
+    }
+
+    /**
+     * Returns the projectile of a PROJECTILE contact.
+     * @param index The position of the contact, from 0 to size() - 1.
+     * @return The projectile which found the contact.
+     * @throws IllegalArgumentException If the contact is not a PROJECTILE contact.
+     */
+    public Projectile getProjectile(int index)
+    {
+        checkIndex(index);
+        if(types[index] != ContactType.PROJECTILE)
+            throw new IllegalArgumentException("Contact " + index + " is a " + types[index] + " contact, not a projectile contact");
+        return (Projectile) firsts[index];
+    }
+
+    /**
+     * Returns the collideable which was touched.
+     * @param index The position of the contact, from 0 to size() - 1.
+     * @return The second collideable of the contact.
+     */
+    public Collideable getSecond(int index)
+    {
+        checkIndex(index);
+        return seconds[index];
+    }
+
+    /**
+     * Returns when during the move of the tick a contact began.
+     * @param index The position of the contact, from 0 to size() - 1.
+     * @return From 0, at the start of the move, to 1, at its end. Always 0 for contacts of objects which did not move.
+     */
+    public double getTime(int index)
+    {
+        checkIndex(index);
+        return times[index];
+    }
+
+    /**
+     * Returns how many contacts were found since the ContactPhase was created.
+     * @return The total amount of contacts.
+     */
+    public long getContactCount()
+    {
+        return contactCount;
+    }
+
+    //Sweeps the move a projectile made this tick against the Creatures around it.
+    //The time of impact of each is where the intervals in which the boxes overlap on each axis meet, using the same
+    //strict square to square test as Collideable.collides.
+    private void addProjectileContacts(Projectile projectile, SpatialGrid grid)
+    {
+        if(!projectile.isMovePending())
+            return;
+        projectile.clearMovePending();
+        int moveX = projectile.getMoveX(), moveY = projectile.getMoveY();
+        int centerX = projectile.getImageCenterX() - moveX, centerY = projectile.getImageCenterY() - moveY;
+        int halfWidth = Math.abs(projectile.getWidth() / 2), halfHeight = Math.abs(projectile.getHeight() / 2);
+        grid.query(centerX - halfWidth + Math.min(0, moveX), centerY - halfHeight + Math.min(0, moveY),
+                centerX + halfWidth + Math.max(0, moveX), centerY + halfHeight + Math.max(0, moveY),
+                projectile.getContactMask(), nearby);
+
+        int first = size;
+        for(int i = 0; i < nearby.size(); i++)
+        {
+            Collideable other = nearby.get(i);
+            int radiiX = halfWidth + Math.abs(other.getWidth() / 2);
+            int radiiY = halfHeight + Math.abs(other.getHeight() / 2);
+            int gapX = other.getImageCenterX() - centerX, gapY = other.getImageCenterY() - centerY;
+            double enter = Math.max(enterTime(gapX, moveX, radiiX), enterTime(gapY, moveY, radiiY));
+            double exit = Math.min(exitTime(gapX, moveX, radiiX), exitTime(gapY, moveY, radiiY));
+            //The boxes overlap for the times between enter and exit, which must meet the move.
+            if(enter < exit && enter < 1 && exit > 0)
+                add(ContactType.PROJECTILE, projectile, other, Math.max(0, enter));
+        }
+        sortByTime(first);
+    }
+
+    //Everything the swing can strike which it overlaps.
+    private void addMeleeContacts(Collideable swing, Player player, SpatialGrid grid)
+    {
+        //The swing counts as the player which swung it, see CollisionEntity.equals.
+        grid.queryOverlapping(swing.getImageCenterX(), swing.getImageCenterY(), swing.getWidth() / 2, swing.getHeight() / 2,
+                swing.getContactMask(), player, nearby);
+        addAll(ContactType.MELEE, swing, nearby);
+    }
+
+    //The enemies overlapping the player, on the layers in its contact mask.
+    private void addBodyContacts(Player player, SpatialGrid grid)
+    {
+        grid.queryOverlapping(player.getImageCenterX(), player.getImageCenterY(), player.getWidth() / 2, player.getHeight() / 2,
+                player.getContactMask(), player, nearby);
+        addAll(ContactType.PLAYER_BODY, player, nearby);
+    }
+
+    //When the gap between two centers, closing by move over the tick, first drops below the sum of their radii.
+    private static double enterTime(int gap, int move, int radii)
+    {
+        if(move == 0)
+            return Math.abs(gap) < radii ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        return move > 0 ? (double)(gap - radii) / move : (double)(gap + radii) / move;
+    }
+
+    //When the gap between two centers, closing by move over the tick, grows back to the sum of their radii.
+    private static double exitTime(int gap, int move, int radii)
+    {
+        if(move == 0)
+            return Math.abs(gap) < radii ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        return move > 0 ? (double)(gap + radii) / move : (double)(gap - radii) / move;
+    }
+
+    private void add(ContactType type, Collideable first, Collideable second, double time)
+    {
+        if(size == types.length)
+        {
+            types = Arrays.copyOf(types, size * 2);
+            firsts = Arrays.copyOf(firsts, size * 2);
+            seconds = Arrays.copyOf(seconds, size * 2);
+            times = Arrays.copyOf(times, size * 2);
+        }
+        types[size] = type;
+        firsts[size] = first;
+        seconds[size] = second;
+        times[size] = time;
+        size++;
+    }
+
+    //Adds a contact at time 0 between one collideable and each of others, room is made once for all of them.
+    private void addAll(ContactType type, Collideable first, ArrayList<Collideable> others)
+    {
+        int count = others.size();
+        if(size + count > types.length)
+        {
+            int length = Math.max(size * 2, size + count);
+            types = Arrays.copyOf(types, length);
+            firsts = Arrays.copyOf(firsts, length);
+            seconds = Arrays.copyOf(seconds, length);
+            times = Arrays.copyOf(times, length);
+        }
+        //Held in locals, so the bounds checks of the loop are known to pass before it starts.
+        ContactType[] types = this.types;
+        Collideable[] firsts = this.firsts, seconds = this.seconds;
+        double[] times = this.times;
+        int start = size;
+        for(int i = 0; i < count; i++)
+        {
+            types[start + i] = type;
+            firsts[start + i] = first;
+            seconds[start + i] = others.get(i);
+            times[start + i] = 0;
+        }
+        size = start + count;
+    }
+
+    //Insertion sort of the contacts from an index on by time, keeping contacts at the same time in the order they were found.
+    private void sortByTime(int from)
+    {
+        for(int i = from + 1; i < size; i++)
+        {
+            ContactType type = types[i];
+            Collideable first = firsts[i], second = seconds[i];
+            double time = times[i];
+            int index = i;
+            while(index > from && times[index - 1] > time)
+            {
+                types[index] = types[index - 1];
+                firsts[index] = firsts[index - 1];
+                seconds[index] = seconds[index - 1];
+                times[index] = times[index - 1];
+                index--;
+            }
+            types[index] = type;
+            firsts[index] = first;
+            seconds[index] = second;
+            times[index] = time;
+        }
+    }
+
+    private void checkIndex(int index)
+    {
+        if(index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " contacts");
+    }
+}
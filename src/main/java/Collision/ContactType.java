@@ -0,0 +1,21 @@
+package Collision;
+
+/**
+ * The kinds of contact found by a ContactPhase, each consumed by the system responsible for it.
+ * @see ContactPhase
+ */
+public enum ContactType {
+
+    /**
+     * The player overlapping the body of an enemy, consumed by contact damage. The first collideable is the player.
+     */
+    PLAYER_BODY,
+    /**
+     * A pickaxe swing overlapping a collideable, consumed by the pickaxe. The first collideable is the swing hitbox.
+     */
+    MELEE,
+    /**
+     * A projectile reaching a Creature during its move, consumed by the projectile. The first collideable is the projectile.
+     */
+    PROJECTILE
+}
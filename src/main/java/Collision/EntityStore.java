@@ -0,0 +1,327 @@
+package Collision;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A dense, deterministic container for the entities of a Room.
+ * Entities are kept packed in an array, so the simulation walks them by index without allocating iterators or
+ * depending on identity hash codes. The order only depends on the order of additions and removals, so identical input
+ * always gives identical iteration order, and with it identical collision outcomes.
+ * Removing an entity moves the last entity into its place, so removals are cheap but do not keep insertion order.
+ * Every added entity gets an integer handle which stays valid until it is removed, whatever moves around in the array.
+ * Handles carry a generation, so the handle of a removed entity does not find whatever later reuses its slot.
+ * Removals during a walk over the store should be deferred with removeLater() and applied afterwards with removePending().
+ * Entities are compared by identity. This class is not thread safe, it should only be used by the simulation thread.
+ * @param <T> The type of entity stored.
+ */
+public class EntityStore<T> implements Iterable<T> {
+
+    /**
+     * The handle which never refers to an entity.
+     */
+    public static final int NO_HANDLE = -1;
+
+    //A handle is the generation of its slot above the slot index.
+    private static final int SLOT_BITS = 16;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = 0x7FFF;
+
+    //Dense part, the entities in iteration order and the handle of each.
+    private Object[] entities;
+    private int[] denseHandles;
+    private int size;
+
+    //Sparse part indexed by slot, where the entity of the slot is in the dense part and the current generation of the slot.
+    private int[] denseIndices;
+    private int[] generations;
+    private int slotCount;
+    //Slots freed by removals, reused last in first out.
+    private int[] freeSlots;
+    private int freeCount;
+
+    //Entities waiting for removePending(), each at most once.
+    private Object[] pending;
+    private int pendingCount;
+
+    /**
+     * Constructs an empty EntityStore.
+     * @param initialCapacity The amount of entities the store holds before it has to grow.
+     */
+    public EntityStore(int initialCapacity)
+    {
+        int capacity = Math.max(1, initialCapacity);
+        entities = new Object[capacity];
+        denseHandles = new int[capacity];
+        denseIndices = new int[capacity];
+        generations = new int[capacity];
+        freeSlots = new int[capacity];
+        pending = new Object[capacity];
+    }
+
+    /**
+     * Adds an entity at the end of the store.
+     * @param entity The entity to add, should not already be in the store.
+     * @return The handle of the entity, valid until it is removed.
+     */
+    public int add(T entity)
+    {
+        if(size == entities.length)
+        {
+            entities = Arrays.copyOf(entities, size * 2);
+            denseHandles = Arrays.copyOf(denseHandles, size * 2);
+        }
+        int slot;
+        if(freeCount > 0)
+            slot = freeSlots[--freeCount];
+        else
+        {
+            if(slotCount == denseIndices.length)
+            {
+                if(slotCount > SLOT_MASK)
+                    throw new IllegalStateException("An EntityStore holds at most " + (SLOT_MASK + 1) + " entities");
+                denseIndices = Arrays.copyOf(denseIndices, slotCount * 2);
+                generations = Arrays.copyOf(generations, slotCount * 2);
+                freeSlots = Arrays.copyOf(freeSlots, slotCount * 2);
+            }
+            slot = slotCount++;
+        }
+        int handle = (generations[slot] << SLOT_BITS) | slot;
+        denseIndices[slot] = size;
+        entities[size] = entity;
+        denseHandles[size] = handle;
+        size++;
+        return handle;
+    }
+
+    /**
+     * Returns the amount of entities in the store.
+     * @return The amount of entities.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns whether the store holds no entities.
+     * @return True if the store is empty.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the entity at a position in iteration order.
+     * @param index The position, from 0 to size() - 1.
+     * @return The entity at the position.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index)
+    {
+        if(index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        return (T) entities[index];
+    }
+
+    /**
+     * Returns the handle of the entity at a position in iteration order.
+     * @param index The position, from 0 to size() - 1.
+     * @return The handle of the entity at the position.
+     */
+    public int getHandle(int index)
+    {
+        if(index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        return denseHandles[index];
+    }
+
+    /**
+     * Returns whether a handle still refers to an entity in the store.
+     * @param handle A handle returned by add().
+     * @return True if the entity of the handle was not removed since.
+     */
+    public boolean contains(int handle)
+    {
+        return indexOfHandle(handle) >= 0;
+    }
+
+    /**
+     * Returns the entity a handle refers to.
+     * @param handle A handle returned by add().
+     * @return The entity, or null if it was removed.
+     */
+    @SuppressWarnings("unchecked")
+    public T getByHandle(int handle)
+    {
+        int index = indexOfHandle(handle);
+        return index >= 0 ? (T) entities[index] : null;
+    }
+
+    /**
+     * Finds the handle of an entity by walking the store from its end, where the newest entities are.
+     * @param entity The entity to look for.
+     * @return The handle of the entity, or NO_HANDLE if it is not in the store.
+     */
+    public int handleOf(Object entity)
+    {
+        for(int i = size - 1; i >= 0; i--)
+        {
+            if(entities[i] == entity)
+                return denseHandles[i];
+        }
+        return NO_HANDLE;
+    }
+
+    /**
+     * Returns whether an entity is in the store.
+     * @param entity The entity to look for.
+     * @return True if the entity was added and not removed since.
+     */
+    public boolean contains(Object entity)
+    {
+        return handleOf(entity) != NO_HANDLE;
+    }
+
+    /**
+     * Removes the entity a handle refers to right away, moving the last entity into its place.
+     * Should not be called while the store is being walked, see removeLater().
+     * @param handle The handle of the entity.
+     * @return True if the entity was removed, false if it was already gone.
+     */
+    public boolean remove(int handle)
+    {
+        int index = indexOfHandle(handle);
+        if(index < 0)
+            return false;
+        int slot = handle & SLOT_MASK;
+        int last = --size;
+        entities[index] = entities[last];
+        denseHandles[index] = denseHandles[last];
+        denseIndices[denseHandles[index] & SLOT_MASK] = index;
+        entities[last] = null;
+
+        generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    /**
+     * Removes an entity right away, moving the last entity into its place.
+     * @param entity The entity to remove.
+     * @return True if the entity was removed, false if it was not in the store.
+     */
+    public boolean remove(Object entity)
+    {
+        int handle = handleOf(entity);
+        return handle != NO_HANDLE && remove(handle);
+    }
+
+    /**
+     * Marks an entity to be removed by the next removePending() call. Marking it more than once has no further effect.
+     * @param entity The entity to remove.
+     */
+    public void removeLater(T entity)
+    {
+        for(int i = 0; i < pendingCount; i++)
+        {
+            if(pending[i] == entity)
+                return;
+        }
+        if(pendingCount == pending.length)
+            pending = Arrays.copyOf(pending, pendingCount * 2);
+        pending[pendingCount++] = entity;
+    }
+
+    /**
+     * Returns how many entities are marked for removal.
+     * @return The amount of entities removePending() will remove.
+     */
+    public int getPendingCount()
+    {
+        return pendingCount;
+    }
+
+    /**
+     * Returns an entity marked for removal, so it can also be removed from anything else holding it.
+     * @param index The position in the order the entities were marked, from 0 to getPendingCount() - 1.
+     * @return The marked entity.
+     */
+    @SuppressWarnings("unchecked")
+    public T getPending(int index)
+    {
+        if(index >= pendingCount)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + pendingCount + " pending removals");
+        return (T) pending[index];
+    }
+
+    /**
+     * Removes every entity marked with removeLater(), in the order they were marked.
+     */
+    public void removePending()
+    {
+        for(int i = 0; i < pendingCount; i++)
+        {
+            remove(pending[i]);
+            pending[i] = null;
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * Returns an iterator over the entities in iteration order.
+     * Code which runs every tick should walk the store with size() and get() instead, which does not allocate.
+     * @return An iterator over the entities.
+     */
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new Iterator<T>() {
+            private int next;
+
+            @Override
+            public boolean hasNext()
+            {
+                return next < size;
+            }
+
+            @Override
+            public T next()
+            {
+                if(next >= size)
+                    throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+
+    /**
+     * Lists the entities in iteration order.
+     * @return The entities as a string.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder result = new StringBuilder("[");
+        for(int i = 0; i < size; i++)
+        {
+            if(i > 0)
+                result.append(", ");
+            result.append(entities[i]);
+        }
+        return result.append(']').toString();
+    }
+
+    //Returns where the entity of a handle is in the dense part, or -1 if the handle is stale or invalid.
+    private int indexOfHandle(int handle)
+    {
+        if(handle < 0)
+            return -1;
+        int slot = handle & SLOT_MASK;
+        if(slot >= slotCount || generations[slot] != (handle >>> SLOT_BITS))
+            return -1;
+        return denseIndices[slot];
+    }
+}
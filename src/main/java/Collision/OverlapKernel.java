@@ -0,0 +1,26 @@
+package Collision;
+
+/**
+ * Tests one box against a run of boxes stored as parallel arrays of centers and half sizes.
+ * Implementations must give exactly the result of the square to square test of Collideable.collides.
+ * @see BoundsKernel
+ */
+interface OverlapKernel {
+
+    /**
+     * Finds which boxes of a run overlap a box.
+     * @param centerX The x-center of the box.
+     * @param centerY The y-center of the box.
+     * @param halfWidth Half the width of the box, not negative.
+     * @param halfHeight Half the height of the box, not negative.
+     * @param centerXs The x-centers of the boxes.
+     * @param centerYs The y-centers of the boxes.
+     * @param halfWidths Half the widths of the boxes, not negative.
+     * @param halfHeights Half the heights of the boxes, not negative.
+     * @param from The index of the first box of the run.
+     * @param count The amount of boxes in the run, at most 64.
+     * @return A mask with bit i set if box from + i overlaps.
+     */
+    long overlapMask(int centerX, int centerY, int halfWidth, int halfHeight,
+                     int[] centerXs, int[] centerYs, int[] halfWidths, int[] halfHeights, int from, int count);
+}
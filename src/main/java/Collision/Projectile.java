@@ -1,11 +1,13 @@
 package Collision;
 
-import CharacterResources.Creature;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
+import Simulation.Log;
+import Simulation.Events.GameEvents;
+import Simulation.Events.ProjectileTerminateEvent;
 import MapDesign.Obstacle;
 import MapDesign.Rooms.Room;
 
-import java.util.HashSet;
+import java.awt.*;
 
 /**
  * A superclass for projectiles which handles basic projectile movement and collision behavior.
@@ -21,6 +23,15 @@ public abstract class Projectile extends Obstacle {
     private String[] moveDir;
 
     private Room parentRoom;
+    private int prevXPos;
+    private int prevYPos;
+    //The offset of the last move, and whether the ContactPhase has yet to sweep it.
+    private int moveX;
+    private int moveY;
+    private boolean movePending;
+    private boolean terminated;
+    //Whether the last move reached the edge of the world, the projectile leaves once the contacts of the move are applied.
+    private boolean leavingWorld;
 
     /**
      * Constructs a projectile with the specified parameters.
@@ -31,18 +42,19 @@ public abstract class Projectile extends Obstacle {
      * @param speed The speed of the projectile.
      * @param damage The damage dealt by the projectile on impact.
      * @param moveDir The direction of projectile movement.
-     * @param inGamePlayComponent The GamePlayComponent that the projectile is to be drawn to.
+     * @param inGameWorld The GameWorld that the projectile belongs to.
      * @param inParentRoom The Room which the Projectile exists within.
      */
-    public Projectile(int x, int y, int width, int height, int speed, int damage, String[] moveDir, GamePlayComponent inGamePlayComponent, Room inParentRoom)
+    public Projectile(int x, int y, int width, int height, int speed, int damage, String[] moveDir, GameWorld inGameWorld, Room inParentRoom)
     {
-        super(inGamePlayComponent, x,y);
+        super(inGameWorld, x,y);
         this.width = width;
         this.height = height;
         this.speed = speed;
         this.damage = damage;
         this.moveDir = moveDir;
         this.parentRoom = inParentRoom;
+        savePreviousPosition();
     }
 
     /**
@@ -55,10 +67,10 @@ public abstract class Projectile extends Obstacle {
      * @param damage The damage dealt by the projectile on impact.
      * @param targetCenterX The center x-pos of the target.
      * @param targetCenterY The center y-pos of the target.
-     * @param inGamePlayComponent The GamePlayComponent which the projectile is drawn to.
+     * @param inGameWorld The GameWorld which the projectile belongs to.
      */
-    public Projectile(int x, int y, int width, int height, int speed, int damage, int targetCenterX, int targetCenterY, GamePlayComponent inGamePlayComponent, Room parentRoom) {
-        super(inGamePlayComponent, x, y);
+    public Projectile(int x, int y, int width, int height, int speed, int damage, int targetCenterX, int targetCenterY, GameWorld inGameWorld, Room parentRoom) {
+        super(inGameWorld, x, y);
         this.width = width;
         this.height = height;
         this.speed = speed;
@@ -86,7 +98,7 @@ public abstract class Projectile extends Obstacle {
 
         //Single-Direction
         else {
-            System.out.println("Else called");
+            Log.trace("Else called");
             if (distX > distY) {
                 if (targetCenterX > thisCenterX) {
                     moveDir = new String[]{"E"};
@@ -101,6 +113,7 @@ public abstract class Projectile extends Obstacle {
                 }
             }
         }
+        savePreviousPosition();
     }
 
     /**
@@ -114,10 +127,10 @@ public abstract class Projectile extends Obstacle {
      * @param targetCenterX The x-pos center of the target.
      * @param targetCenterY The y-pos center of the target.
      * @param imageFileName The filename of the image which represents the object.
-     * @param inGamePlayComponent The GamePlayComponent the projectile is drawn to.
+     * @param inGameWorld The GameWorld the projectile belongs to.
      */
-    public Projectile(int x, int y, int width, int height, int speed, int damage, int targetCenterX, int targetCenterY, String imageFileName, GamePlayComponent inGamePlayComponent, Room parentRoom) {
-        super(inGamePlayComponent, imageFileName, x, y);
+    public Projectile(int x, int y, int width, int height, int speed, int damage, int targetCenterX, int targetCenterY, String imageFileName, GameWorld inGameWorld, Room parentRoom) {
+        super(inGameWorld, imageFileName, x, y);
         this.width = width;
         this.height = height;
         this.speed = speed;
@@ -132,7 +145,7 @@ public abstract class Projectile extends Obstacle {
 
         //Multi-Direction
         if (Math.abs(distX - distY) < DIAGONALCONST) {
-            System.out.println("Diagonal called");
+            Log.trace("Diagonal called");
             if (targetCenterX > thisCenterX && targetCenterY < thisCenterY) {
                 moveDir = new String[]{"N", "E"};
             } else if (targetCenterX > thisCenterX && targetCenterY > thisCenterY) {
@@ -146,7 +159,7 @@ public abstract class Projectile extends Obstacle {
 
         //Single-Direction
         else {
-            System.out.println("Else called");
+            Log.trace("Else called");
             if (distX > distY) {
                 if (targetCenterX > thisCenterX) {
                     moveDir = new String[]{"E"};
@@ -161,6 +174,7 @@ public abstract class Projectile extends Obstacle {
                 }
             }
         }
+        savePreviousPosition();
     }
 
     /**
@@ -196,69 +210,169 @@ public abstract class Projectile extends Obstacle {
     public Room getParentRoom() {return parentRoom;}
 
     /**
-     * Moves the projectile and also checks for collision.
-     * @param collideables A HashSet full of objects to check collision against.
+     * Stores the current position as the previous position. Should be called once at the start of every tick.
      */
-    public void move(HashSet<Collideable> collideables)
+    public void savePreviousPosition()
     {
-        for(String moveDirection: moveDir)
-            move(moveDirection,collideables);
+        prevXPos = xPos;
+        prevYPos = yPos;
     }
 
-    private void move(String direction, HashSet<Collideable> collideables) {
-
-        switch (direction.toUpperCase()) {
-            case "N":
-                if(yPos - speed >= 0)
-                    yPos-=speed;
-                else
-                    terminateProjectile();
-                break;
-            case "E":
-                if(xPos + speed + getWidth() <= parent.getWidth())
-                    xPos += speed;
-                else
-                    terminateProjectile();
-                break;
-            case "S":
-                if(yPos + speed + getHeight() <= parent.getHeight())
-                    yPos += speed;
-                else
-                    terminateProjectile();
-                break;
-            case "W":
-                if(xPos - speed >= 0)
-                    xPos -= speed;
-                else
-                    terminateProjectile();
-                break;
+    /**
+     * Draws the projectile at its position interpolated between the previous and current tick.
+     * @param g The Graphics component to be drawn to.
+     * @param alpha How far between the previous (0) and current (1) tick to interpolate.
+     */
+    public void drawInterpolated(Graphics g, double alpha)
+    {
+        int offsetX = (int)Math.round((prevXPos - xPos) * (1 - alpha));
+        int offsetY = (int)Math.round((prevYPos - yPos) * (1 - alpha));
+        g.translate(offsetX, offsetY);
+        drawObstacle(g);
+        g.translate(-offsetX, -offsetY);
+    }
+
+    /**
+     * Moves the projectile by its whole move of the tick.
+     * A move which would leave the world stops at its edge, and the projectile is terminated by finishMove() once
+     * the contacts of that last move are applied.
+     * What the projectile hits along the way is found afterwards by the ContactPhase of the tick, which sweeps the move,
+     * and applied through applyContact(), so however fast the projectile is it cannot pass through a Creature.
+     * @param collideables The SpatialGrid of the Room, the projectile is moved to its new cells in it.
+     * @see ContactPhase
+     */
+    public void move(SpatialGrid collideables)
+    {
+        int moveX = 0, moveY = 0;
+        for(String direction : moveDir)
+        {
+            switch (direction) {
+                case "N":
+                    moveY -= clampMove(yPos + moveY);
+                    break;
+                case "E":
+                    moveX += clampMove(parent.getBounds().getWidth() - getWidth() - xPos - moveX);
+                    break;
+                case "S":
+                    moveY += clampMove(parent.getBounds().getHeight() - getHeight() - yPos - moveY);
+                    break;
+                case "W":
+                    moveX -= clampMove(xPos + moveX);
+                    break;
+            }
         }
-        collisionCheck(collideables);
+        xPos += moveX;
+        yPos += moveY;
+        this.moveX = moveX;
+        this.moveY = moveY;
+        movePending = !terminated;
+        collideables.update(this);
+    }
+
+    //Returns how far the projectile moves towards an edge of the world, given the space left before it.
+    private int clampMove(int space)
+    {
+        if(space >= speed)
+            return speed;
+        leavingWorld = true;
+        return Math.max(space, 0);
     }
 
     /**
-     * How the collision is checked for the respective object.
-     * @param collideables Hashset of Collideable objects to check for collision against.
+     * Terminates the projectile if its last move reached the edge of the world.
+     * Called once the contacts of the tick are applied, so the projectile still hits what it met on that last move.
      */
-    protected void collisionCheck(HashSet<Collideable> collideables)
+    public void finishMove()
     {
-        for(Collideable other : collideables)
+        if(leavingWorld)
+            terminateProjectile();
+    }
+
+    /**
+     * Applies a contact found by the ContactPhase for the last move, unless the projectile was terminated by an earlier one.
+     * The projectile is placed where it reached the Creature while its effect is applied, so effects such as
+     * explosions happen at the point of impact, and is put back at the end of its move if the effect did not terminate it.
+     * @param other The Creature which was reached.
+     * @param time When during the move it was reached, from 0 at the start to 1 at the end.
+     * @see ContactPhase#getTime(int)
+     */
+    public void applyContact(Collideable other, double time)
+    {
+        if(terminated)
+            return;
+        int endX = xPos, endY = yPos;
+        xPos = endX - moveX + (int)Math.round(moveX * time);
+        yPos = endY - moveY + (int)Math.round(moveY * time);
+        collisionEffect(other);
+        if(!terminated)
         {
-            if(other instanceof Creature && collides(other) != null)
-                collisionEffect(other);
+            xPos = endX;
+            yPos = endY;
         }
     }
 
+    //The last move, swept by the ContactPhase once per move.
+    boolean isMovePending()
+    {
+        return movePending;
+    }
+
+    void clearMovePending()
+    {
+        movePending = false;
+    }
+
+    int getMoveX()
+    {
+        return moveX;
+    }
+
+    int getMoveY()
+    {
+        return moveY;
+    }
+
     /**
-     * Removes the projectile from the Room which is referencing it.
+     * Returns whether the projectile was terminated, it is removed from its Room at the end of the tick.
+     * @return True once terminateProjectile() was called.
+     */
+    public boolean isTerminated()
+    {
+        return terminated;
+    }
+
+    /**
+     * Removes the projectile from the Room which is referencing it. Does nothing if it was already terminated.
      */
     public void terminateProjectile()
     {
+        if(terminated)
+            return;
+        if(GameEvents.ENABLED)
+        {
+            ProjectileTerminateEvent event = new ProjectileTerminateEvent();
+            event.projectileType = getClass();
+            event.x = getX();
+            event.y = getY();
+            event.commit();
+        }
+        terminated = true;
         parentRoom.removeProjectile(this);
     }
 
+    /**
+     * Returns the layer of the projectile, which decides what it hits.
+     * @return CollisionLayers.ENEMY_PROJECTILE, projectiles fired by the player should override this.
+     */
+    @Override
+    public int getCollisionLayer()
+    {
+        return CollisionLayers.ENEMY_PROJECTILE;
+    }
+
     /**
      * This should be implemented to determine the effect this projectile would have on a creature on collision.
+     * Only Collideables on a layer in the contact mask of the projectile are passed.
      * @param collideable The Creature object to apply the effect to.
      */
     public abstract void collisionEffect(Collideable collideable);
@@ -0,0 +1,446 @@
+package Collision;
+
+import MapDesign.TileMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * A uniform grid over a Room which buckets Collideables by the cells their collision box covers.
+ * Used to find the Collideables near a position without checking every Collideable in the Room.
+ * The collision box is the same one Collideable.collides uses, centered on the image center with the width and height of the object.
+ * Objects are registered with some padding, so they only have to be moved to other cells once they leave their registered cells.
+ * Anything that moves should call update(Collideable) afterwards, queries may miss objects which have moved out of their cells since.
+ * Static walls are not held as Collideables, they are looked up in the TileMap attached to the grid instead.
+ * Queries can be limited to some collision layers, which skips pairs that cannot interact before any geometry is tested.
+ * The collision box of every object is also kept in primitive arrays, refreshed by insert and update, so
+ * queryOverlapping can run the exact test over many candidates at once with BoundsKernel.
+ * This class is not thread safe, it should only be used by the simulation thread.
+ * @see Collideable#collides(Collideable)
+ * @see #getTileMap()
+ */
+public class SpatialGrid {
+
+    //Extra space in pixels added around objects when registering them, so small moves and sprite changes stay within their cells.
+    private static final int PADDING = 8;
+    //Cells are sized up front, so objects moving into an empty cell do not allocate.
+    private static final int CELL_CAPACITY = 8;
+    //Starting length of the bounds arrays, they double when full.
+    private static final int BOUNDS_CAPACITY = 32;
+
+    private final int columns;
+    private final int rows;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final ArrayList<Entry>[] cells;
+    private final IdentityHashMap<Collideable, Entry> entries = new IdentityHashMap<Collideable, Entry>();
+    private int queryStamp;
+    //The collision box of each entry, indexed by Entry.index. Struct of arrays so the kernel reads them in order.
+    private Entry[] dense = new Entry[BOUNDS_CAPACITY];
+    private int[] centerXs = new int[BOUNDS_CAPACITY];
+    private int[] centerYs = new int[BOUNDS_CAPACITY];
+    private int[] halfWidths = new int[BOUNDS_CAPACITY];
+    private int[] halfHeights = new int[BOUNDS_CAPACITY];
+    //The candidates of queryOverlapping, gathered next to each other for the kernel.
+    //Held as slots of the bounds arrays rather than entries, so nothing stays reachable after the query.
+    private int[] candidates = new int[BOUNDS_CAPACITY];
+    private int[] candidateXs = new int[BOUNDS_CAPACITY];
+    private int[] candidateYs = new int[BOUNDS_CAPACITY];
+    private int[] candidateHalfWidths = new int[BOUNDS_CAPACITY];
+    private int[] candidateHalfHeights = new int[BOUNDS_CAPACITY];
+    private TileMap tileMap;
+    //Running totals for profiling, see getQueryCount() and getCandidateCount().
+    private long queryCount;
+    private long candidateCount;
+
+    /**
+     * Constructs an empty SpatialGrid.
+     * @param width The width in pixels of the area covered. Objects outside the area are kept in the border cells.
+     * @param height The height in pixels of the area covered.
+     * @param columns The amount of cells across.
+     * @param rows The amount of cells down.
+     */
+    @SuppressWarnings("unchecked")
+    public SpatialGrid(int width, int height, int columns, int rows)
+    {
+        if(width <= 0 || height <= 0 || columns <= 0 || rows <= 0)
+            throw new IllegalArgumentException("Grid dimensions must be positive");
+        this.columns = columns;
+        this.rows = rows;
+        cellWidth = Math.max(1, width / columns);
+        cellHeight = Math.max(1, height / rows);
+        cells = (ArrayList<Entry>[]) new ArrayList<?>[columns * rows];
+        for(int i = 0; i < cells.length; i++)
+            cells[i] = new ArrayList<Entry>(CELL_CAPACITY);
+    }
+
+    /**
+     * Adds a Collideable to the grid. Does nothing if it was already added.
+     * @param collideable The Collideable to add.
+     */
+    public void insert(Collideable collideable)
+    {
+        if(entries.containsKey(collideable))
+            return;
+        Entry entry = new Entry(collideable);
+        entries.put(collideable, entry);
+        addBounds(entry);
+        register(entry);
+    }
+
+    /**
+     * Removes a Collideable from the grid. Does nothing if it was not in the grid.
+     * @param collideable The Collideable to remove.
+     */
+    public void remove(Collideable collideable)
+    {
+        Entry entry = entries.remove(collideable);
+        if(entry != null)
+        {
+            unregister(entry);
+            removeBounds(entry);
+        }
+    }
+
+    /**
+     * Moves a Collideable to the cells it now covers, should be called whenever it has moved.
+     * This is cheap when the Collideable is still within the cells it was registered in.
+     * Its collision box as seen by queryOverlapping is refreshed either way.
+     * @param collideable The Collideable which moved.
+     */
+    public void update(Collideable collideable)
+    {
+        Entry entry = entries.get(collideable);
+        if(entry == null)
+            return;
+        int centerX = collideable.getImageCenterX();
+        int centerY = collideable.getImageCenterY();
+        int halfWidth = Math.abs(collideable.getWidth() / 2);
+        int halfHeight = Math.abs(collideable.getHeight() / 2);
+        int index = entry.index;
+        centerXs[index] = centerX;
+        centerYs[index] = centerY;
+        halfWidths[index] = halfWidth;
+        halfHeights[index] = halfHeight;
+        int minColumn = columnOf(centerX - halfWidth);
+        int maxColumn = columnOf(centerX + halfWidth);
+        int minRow = rowOf(centerY - halfHeight);
+        int maxRow = rowOf(centerY + halfHeight);
+        if(minColumn < entry.minColumn || maxColumn > entry.maxColumn || minRow < entry.minRow || maxRow > entry.maxRow)
+        {
+            unregister(entry);
+            register(entry);
+        }
+    }
+
+    /**
+     * Returns whether a Collideable is in the grid.
+     * @param collideable The Collideable to look for.
+     * @return True if the Collideable was added and not removed since.
+     */
+    public boolean contains(Collideable collideable)
+    {
+        return entries.containsKey(collideable);
+    }
+
+    /**
+     * Attaches the static geometry of the area covered, which movement checks test along with the Collideables.
+     * @param tileMap The TileMap of the area.
+     */
+    public void setTileMap(TileMap tileMap)
+    {
+        this.tileMap = tileMap;
+    }
+
+    /**
+     * Returns the static geometry of the area covered.
+     * @return The attached TileMap, or null if there is none.
+     */
+    public TileMap getTileMap()
+    {
+        return tileMap;
+    }
+
+    /**
+     * Returns the amount of Collideables in the grid.
+     * @return The amount of Collideables in the grid.
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Returns how many queries were made on this grid since it was created.
+     * @return The total amount of queries.
+     */
+    public long getQueryCount()
+    {
+        return queryCount;
+    }
+
+    /**
+     * Returns how many Collideables all queries on this grid have returned since it was created, after filtering by layer.
+     * @return The total amount of candidates returned.
+     */
+    public long getCandidateCount()
+    {
+        return candidateCount;
+    }
+
+    /**
+     * Finds every Collideable which could overlap a rectangle. The result may include Collideables that do not actually overlap it.
+     * @param minX The left edge of the rectangle.
+     * @param minY The top edge of the rectangle.
+     * @param maxX The right edge of the rectangle.
+     * @param maxY The bottom edge of the rectangle.
+     * @param result The list to fill, it is cleared first. Each Collideable appears once.
+     * @return The result list, for convenience.
+     */
+    public ArrayList<Collideable> query(int minX, int minY, int maxX, int maxY, ArrayList<Collideable> result)
+    {
+        return query(minX, minY, maxX, maxY, CollisionLayers.ALL, result);
+    }
+
+    /**
+     * Finds every Collideable on some layers which could overlap a rectangle.
+     * Collideables on other layers are skipped before they are returned, so callers only test pairs which can interact.
+     * @param minX The left edge of the rectangle.
+     * @param minY The top edge of the rectangle.
+     * @param maxX The right edge of the rectangle.
+     * @param maxY The bottom edge of the rectangle.
+     * @param layerMask The layers to return, usually the blocking or contact mask of the caller.
+     * @param result The list to fill, it is cleared first. Each Collideable appears once.
+     * @return The result list, for convenience.
+     * @see CollisionLayers
+     */
+    public ArrayList<Collideable> query(int minX, int minY, int maxX, int maxY, int layerMask, ArrayList<Collideable> result)
+    {
+        result.clear();
+        queryStamp++;
+        int minColumn = columnOf(minX), maxColumn = columnOf(maxX);
+        int minRow = rowOf(minY), maxRow = rowOf(maxY);
+        for(int row = minRow; row <= maxRow; row++)
+        {
+            for(int column = minColumn; column <= maxColumn; column++)
+            {
+                ArrayList<Entry> cell = cells[row * columns + column];
+                for(int i = 0; i < cell.size(); i++)
+                {
+                    Entry entry = cell.get(i);
+                    if(entry.stamp != queryStamp)
+                    {
+                        entry.stamp = queryStamp;
+                        if(layerMask == CollisionLayers.ALL || (entry.layer & layerMask) != 0)
+                            result.add(entry.collideable);
+                    }
+                }
+            }
+        }
+        queryCount++;
+        candidateCount += result.size();
+        return result;
+    }
+
+    /**
+     * Finds every Collideable which could overlap a box centered on a point, like the collision box of a Collideable.
+     * @param centerX The x-center of the box.
+     * @param centerY The y-center of the box.
+     * @param halfWidth Half the width of the box.
+     * @param halfHeight Half the height of the box.
+     * @param result The list to fill, it is cleared first.
+     * @return The result list, for convenience.
+     */
+    public ArrayList<Collideable> queryCentered(int centerX, int centerY, int halfWidth, int halfHeight, ArrayList<Collideable> result)
+    {
+        return queryCentered(centerX, centerY, halfWidth, halfHeight, CollisionLayers.ALL, result);
+    }
+
+    /**
+     * Finds every Collideable on some layers which could overlap a box centered on a point.
+     * @param centerX The x-center of the box.
+     * @param centerY The y-center of the box.
+     * @param halfWidth Half the width of the box.
+     * @param halfHeight Half the height of the box.
+     * @param layerMask The layers to return.
+     * @param result The list to fill, it is cleared first.
+     * @return The result list, for convenience.
+     */
+    public ArrayList<Collideable> queryCentered(int centerX, int centerY, int halfWidth, int halfHeight, int layerMask, ArrayList<Collideable> result)
+    {
+        halfWidth = Math.abs(halfWidth);
+        halfHeight = Math.abs(halfHeight);
+        return query(centerX - halfWidth, centerY - halfHeight, centerX + halfWidth, centerY + halfHeight, layerMask, result);
+    }
+
+    /**
+     * Finds every Collideable on some layers which overlaps a box centered on a point, with the exact test of Collideable.collides.
+     * Unlike the other queries the result holds no false positives, the boxes are tested here as a batch by BoundsKernel
+     * against the bounds stored when each Collideable was last inserted or updated.
+     * @param centerX The x-center of the box.
+     * @param centerY The y-center of the box.
+     * @param halfWidth Half the width of the box.
+     * @param halfHeight Half the height of the box.
+     * @param layerMask The layers to return.
+     * @param ignore A Collideable to leave out, usually the one the box belongs to. May be null.
+     * @param result The list to fill, it is cleared first. Collideables are in the same order query would return them.
+     * @return The result list, for convenience.
+     * @see BoundsKernel
+     */
+    public ArrayList<Collideable> queryOverlapping(int centerX, int centerY, int halfWidth, int halfHeight, int layerMask,
+                                                   Collideable ignore, ArrayList<Collideable> result)
+    {
+        result.clear();
+        queryStamp++;
+        halfWidth = Math.abs(halfWidth);
+        halfHeight = Math.abs(halfHeight);
+        int minColumn = columnOf(centerX - halfWidth), maxColumn = columnOf(centerX + halfWidth);
+        int minRow = rowOf(centerY - halfHeight), maxRow = rowOf(centerY + halfHeight);
+        int count = 0;
+        for(int row = minRow; row <= maxRow; row++)
+        {
+            for(int column = minColumn; column <= maxColumn; column++)
+            {
+                ArrayList<Entry> cell = cells[row * columns + column];
+                for(int i = 0; i < cell.size(); i++)
+                {
+                    Entry entry = cell.get(i);
+                    if(entry.stamp != queryStamp)
+                    {
+                        entry.stamp = queryStamp;
+                        if((layerMask == CollisionLayers.ALL || (entry.layer & layerMask) != 0) && entry.collideable != ignore)
+                            gather(count++, entry);
+                    }
+                }
+            }
+        }
+        for(int from = 0; from < count; from += BoundsKernel.MAX_BATCH)
+        {
+            long hits = BoundsKernel.overlapMask(centerX, centerY, halfWidth, halfHeight,
+                    candidateXs, candidateYs, candidateHalfWidths, candidateHalfHeights, from, Math.min(BoundsKernel.MAX_BATCH, count - from));
+            while(hits != 0)
+            {
+                result.add(dense[candidates[from + Long.numberOfTrailingZeros(hits)]].collideable);
+                hits &= hits - 1;
+            }
+        }
+        queryCount++;
+        candidateCount += count;
+        return result;
+    }
+
+    //Copies the bounds of an entry next to the other candidates of the current query.
+    private void gather(int slot, Entry entry)
+    {
+        if(slot == candidates.length)
+        {
+            int length = slot * 2;
+            candidates = Arrays.copyOf(candidates, length);
+            candidateXs = Arrays.copyOf(candidateXs, length);
+            candidateYs = Arrays.copyOf(candidateYs, length);
+            candidateHalfWidths = Arrays.copyOf(candidateHalfWidths, length);
+            candidateHalfHeights = Arrays.copyOf(candidateHalfHeights, length);
+        }
+        int index = entry.index;
+        candidates[slot] = index;
+        candidateXs[slot] = centerXs[index];
+        candidateYs[slot] = centerYs[index];
+        candidateHalfWidths[slot] = halfWidths[index];
+        candidateHalfHeights[slot] = halfHeights[index];
+    }
+
+    //Gives the entry the next slot of the bounds arrays and stores its collision box there.
+    private void addBounds(Entry entry)
+    {
+        int index = entries.size() - 1;
+        if(index == dense.length)
+        {
+            int length = index * 2;
+            dense = Arrays.copyOf(dense, length);
+            centerXs = Arrays.copyOf(centerXs, length);
+            centerYs = Arrays.copyOf(centerYs, length);
+            halfWidths = Arrays.copyOf(halfWidths, length);
+            halfHeights = Arrays.copyOf(halfHeights, length);
+        }
+        Collideable c = entry.collideable;
+        entry.index = index;
+        dense[index] = entry;
+        centerXs[index] = c.getImageCenterX();
+        centerYs[index] = c.getImageCenterY();
+        halfWidths[index] = Math.abs(c.getWidth() / 2);
+        halfHeights[index] = Math.abs(c.getHeight() / 2);
+    }
+
+    //Like the cells, the bounds arrays fill the gap left by an entry with the last one.
+    private void removeBounds(Entry entry)
+    {
+        int last = entries.size();
+        Entry moved = dense[last];
+        int index = entry.index;
+        dense[index] = moved;
+        centerXs[index] = centerXs[last];
+        centerYs[index] = centerYs[last];
+        halfWidths[index] = halfWidths[last];
+        halfHeights[index] = halfHeights[last];
+        moved.index = index;
+        dense[last] = null;
+    }
+
+    //Adds the entry to every cell its padded collision box covers.
+    private void register(Entry entry)
+    {
+        Collideable c = entry.collideable;
+        int halfWidth = Math.abs(c.getWidth() / 2) + PADDING;
+        int halfHeight = Math.abs(c.getHeight() / 2) + PADDING;
+        entry.minColumn = columnOf(c.getImageCenterX() - halfWidth);
+        entry.maxColumn = columnOf(c.getImageCenterX() + halfWidth);
+        entry.minRow = rowOf(c.getImageCenterY() - halfHeight);
+        entry.maxRow = rowOf(c.getImageCenterY() + halfHeight);
+        for(int row = entry.minRow; row <= entry.maxRow; row++)
+            for(int column = entry.minColumn; column <= entry.maxColumn; column++)
+                cells[row * columns + column].add(entry);
+    }
+
+    private void unregister(Entry entry)
+    {
+        for(int row = entry.minRow; row <= entry.maxRow; row++)
+        {
+            for(int column = entry.minColumn; column <= entry.maxColumn; column++)
+            {
+                //Order within a cell does not matter, so the last entry is swapped into the gap.
+                ArrayList<Entry> cell = cells[row * columns + column];
+                int index = cell.indexOf(entry);
+                int last = cell.size() - 1;
+                cell.set(index, cell.get(last));
+                cell.remove(last);
+            }
+        }
+    }
+
+    private int columnOf(int x)
+    {
+        return Math.max(0, Math.min(columns - 1, Math.floorDiv(x, cellWidth)));
+    }
+
+    private int rowOf(int y)
+    {
+        return Math.max(0, Math.min(rows - 1, Math.floorDiv(y, cellHeight)));
+    }
+
+    //A Collideable, its layer, its slot in the bounds arrays and the range of cells it is registered in.
+    private static class Entry {
+        final Collideable collideable;
+        //Cached, so filtering by layer does not call into the Collideable.
+        final int layer;
+        int index;
+        int minColumn, maxColumn, minRow, maxRow;
+        int stamp;
+
+        Entry(Collideable collideable)
+        {
+            this.collideable = collideable;
+            layer = collideable.getCollisionLayer();
+        }
+    }
+}
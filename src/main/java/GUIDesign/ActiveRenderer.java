@@ -0,0 +1,247 @@
+package GUIDesign;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Draws the game on its own thread into a Canvas with a BufferStrategy, instead of waiting for Swing to schedule paintComponent.
+ * Every frame is drawn into the back buffer and then flipped with show(), so frames are produced at a steady pace
+ * and the time spent drawing and presenting each frame can be measured.
+ * The frame rate can be capped, and vsync pacing caps it at the refresh rate of the screen and flushes the display after every frame with Toolkit.sync().
+ * Settings are read from system properties when started from MainFrame, see fromSystemProperties().
+ * @see #fromSystemProperties(GamePlayComponent)
+ * @see GamePlayComponent#renderFrame(Graphics)
+ */
+public class ActiveRenderer implements Runnable {
+
+    /**
+     * The system property which selects the rendering mode, "active" uses an ActiveRenderer and anything else passive Swing painting.
+     */
+    public static final String MODE_PROPERTY = "sns.render";
+    /**
+     * The system property holding the maximum frames per second, 0 or less means no limit.
+     */
+    public static final String FPS_PROPERTY = "sns.fps";
+    /**
+     * The system property which turns on vsync pacing when set to true.
+     */
+    public static final String VSYNC_PROPERTY = "sns.vsync";
+    /**
+     * The system property holding the amount of buffers, 2 for double buffering and 3 for triple buffering.
+     */
+    public static final String BUFFERS_PROPERTY = "sns.buffers";
+
+    /**
+     * The refresh rate assumed for vsync pacing when the screen does not report one.
+     */
+    public static final int DEFAULT_REFRESH_RATE = 60;
+
+    //How long to wait before checking again while the canvas is hidden or not displayable yet.
+    private static final long IDLE_NANOS = 10_000_000L;
+
+    private final GamePlayComponent parent;
+    private final Canvas canvas;
+    private final int buffers;
+    private final boolean vsync;
+    private final long frameNanos;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    private volatile long lastFrameNanos;
+    private volatile long lastRenderNanos;
+    private volatile long framesRendered;
+
+    /**
+     * Constructs an ActiveRenderer with the specified parameters.
+     * @param parent The GamePlayComponent whose frames are drawn. The canvas is sized to its preferred size.
+     * @param buffers The amount of buffers, 2 for double buffering and 3 for triple buffering.
+     * @param maxFps The maximum frames per second, 0 or less means no limit.
+     * @param vsync Whether frames are paced to the refresh rate of the screen and flushed with Toolkit.sync().
+     */
+    public ActiveRenderer(GamePlayComponent parent, int buffers, int maxFps, boolean vsync)
+    {
+        if(buffers < 1)
+            throw new IllegalArgumentException("At least one buffer is needed");
+        this.parent = parent;
+        this.buffers = buffers;
+        this.vsync = vsync;
+
+        int fps = maxFps;
+        if(vsync)
+        {
+            int refreshRate = refreshRate();
+            fps = fps > 0 ? Math.min(fps, refreshRate) : refreshRate;
+        }
+        frameNanos = fps > 0 ? 1_000_000_000L / fps : 0;
+
+        canvas = new Canvas();
+        Dimension size = parent.getPreferredSize();
+        canvas.setBounds(0, 0, size.width, size.height);
+        canvas.setIgnoreRepaint(true);
+        //Input keeps going to the GamePlayComponent.
+        canvas.setFocusable(false);
+    }
+
+    /**
+     * Creates an ActiveRenderer from the system properties, or returns null if passive rendering is selected.
+     * Defaults to double buffering, no frame limit and no vsync pacing.
+     * @param parent The GamePlayComponent whose frames are drawn.
+     * @return The configured ActiveRenderer, or null if sns.render is not set to active.
+     */
+    public static ActiveRenderer fromSystemProperties(GamePlayComponent parent)
+    {
+        if(!"active".equalsIgnoreCase(System.getProperty(MODE_PROPERTY)))
+            return null;
+        return new ActiveRenderer(parent, Integer.getInteger(BUFFERS_PROPERTY, 2),
+                Integer.getInteger(FPS_PROPERTY, 0), Boolean.getBoolean(VSYNC_PROPERTY));
+    }
+
+    /**
+     * Returns the Canvas which is drawn to. It must be added to the component hierarchy before anything is shown.
+     * @return The Canvas frames are drawn to.
+     */
+    public Canvas getCanvas()
+    {
+        return canvas;
+    }
+
+    /**
+     * Starts the render thread. Does nothing if it is already running.
+     */
+    public synchronized void start()
+    {
+        if(running)
+            return;
+        running = true;
+        thread = new Thread(this, "Renderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the render thread after the frame in progress has been shown.
+     */
+    public synchronized void stop()
+    {
+        running = false;
+        if(thread != null)
+            LockSupport.unpark(thread);
+    }
+
+    /**
+     * Returns the time between the last two frames being shown.
+     * @return The frame time in nanoseconds, 0 before two frames were shown.
+     */
+    public long getLastFrameNanos()
+    {
+        return lastFrameNanos;
+    }
+
+    /**
+     * Returns how long drawing and showing the last frame took, from taking the back buffer to show() returning.
+     * @return The render latency in nanoseconds.
+     */
+    public long getLastRenderNanos()
+    {
+        return lastRenderNanos;
+    }
+
+    /**
+     * Returns the amount of frames shown since the renderer was started.
+     * @return The amount of frames shown.
+     */
+    public long getFramesRendered()
+    {
+        return framesRendered;
+    }
+
+    /**
+     * Returns the target time between frames.
+     * @return The frame interval in nanoseconds, 0 if the frame rate is not limited.
+     */
+    public long getFrameNanos()
+    {
+        return frameNanos;
+    }
+
+    /**
+     * The render loop. Should not be called directly, use start() instead.
+     * @see #start()
+     */
+    @Override
+    public void run()
+    {
+        BufferStrategy strategy = null;
+        long nextFrame = System.nanoTime();
+        long lastShown = 0;
+
+        while(running)
+        {
+            //Swing paints the component instead while the canvas is hidden, like when the pause menu is open.
+            if(!canvas.isShowing())
+            {
+                strategy = null;
+                LockSupport.parkNanos(IDLE_NANOS);
+                nextFrame = System.nanoTime();
+                continue;
+            }
+            if(strategy == null)
+            {
+                canvas.createBufferStrategy(buffers);
+                strategy = canvas.getBufferStrategy();
+            }
+
+            long start = System.nanoTime();
+            renderFrame(strategy);
+            long shown = System.nanoTime();
+            lastRenderNanos = shown - start;
+            if(lastShown != 0)
+                lastFrameNanos = shown - lastShown;
+            lastShown = shown;
+            framesRendered++;
+
+            if(frameNanos > 0)
+            {
+                nextFrame += frameNanos;
+                long wait = nextFrame - System.nanoTime();
+                //A frame which ran late starts a new schedule instead of being followed by a burst of catch up frames.
+                if(wait <= 0)
+                    nextFrame = System.nanoTime();
+                else
+                    LockSupport.parkNanos(wait);
+            }
+            else
+                Thread.yield();
+        }
+    }
+
+    //Draws and shows one frame, redrawing it if the buffers were lost in the meantime.
+    private void renderFrame(BufferStrategy strategy)
+    {
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    parent.renderFrame(g);
+                }
+                finally {
+                    g.dispose();
+                }
+            } while(strategy.contentsRestored());
+            strategy.show();
+            if(vsync)
+                Toolkit.getDefaultToolkit().sync();
+        } while(strategy.contentsLost());
+    }
+
+    private static int refreshRate()
+    {
+        if(GraphicsEnvironment.isHeadless())
+            return DEFAULT_REFRESH_RATE;
+        int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDisplayMode().getRefreshRate();
+        return refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : refreshRate;
+    }
+}
@@ -3,116 +3,53 @@ package GUIDesign;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.concurrent.locks.*;
-import java.awt.event.ActionListener;
 import java.util.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
-import CharacterResources.Enemies.Enemy;
-import CharacterResources.Enemies.GolemBoss;
 import CharacterResources.Items.*;
-import CharacterResources.Player.Classes.PlayerIceMage;
 import CharacterResources.Player.Player;
-import Collision.Collideable;
 import MapDesign.Rooms.*;
-import MapDesign.Stairs;
+import Simulation.GameWorld;
+import Simulation.InputRecording;
+import Simulation.Log;
+import Simulation.RenderSink;
+import Simulation.SimulationLoop;
+import Simulation.WorldBounds;
+import Simulation.Events.GameEvents;
+import Simulation.Events.PhaseEvent;
 
 /**
  * This class is the component that actually "runs" the main game. This is where the player moves around and interacts primarily.
+ * The game itself is simulated by a GameWorld, this component is the Swing frontend which feeds it input and draws it.
+ * Drawing is either passive, through repaint() and paintComponent, or active through an ActiveRenderer when sns.render is set to active.
+ * F3 toggles a PerformanceOverlay. When sns.record names a directory, the input of every run is recorded into it for ReplayRunner.
+ * @see GameWorld
+ * @see ActiveRenderer
+ * @see PerformanceOverlay
  */
-public class GamePlayComponent extends JComponent implements KeyListener {
+public class GamePlayComponent extends JComponent implements KeyListener, RenderSink {
 
     //Menu stuff
     private final PauseMenu PAUSE_MENU;
 
     //In house objects
-    private static final int CHEST_CONSTANT = 3;
     private MainFrame parent;
-    private Player player;
-    private final Queue<Item> ITEM_QUEUE = new LinkedList<Item>();
-    //private ArrayList<Enemy> enemies;
-
-    //Room gaming
-    private int currentRoom;
-    private final HashMap<Integer, Room> roomRef = new HashMap<Integer,Room>();
-    private static final int DEFAULT_ROOM = 24;
-
+    private final GameWorld world;
 
     //Out of house variables
-    private javax.swing.Timer timer;    //For Thread Management
+    private final SimulationLoop simulation;    //For Thread Management
+    private final ActiveRenderer renderer;      //Null when painting passively
+    private final PerformanceOverlay overlay;
     /**
      * The interval in ms for updates to occur.
      */
-    public static int UPDATE_INTERVAL = 12; //in ms
-
-    private static final int NUM_INPUT_KEYS = 6;
-    private boolean[] keys;
-
-    private ImageIcon floor;
-    private ReentrantLock hpLock;
-
-    //Helper methods for constructor.
-
-        //Handles any behavior for initializing the player.
-        private void initPlayer()
-        {
-            player = new PlayerIceMage(this);
-        }
-
-        //Initializes rooms by populating Rooms map.
-        private void initRooms()
-        {
-            Random rand = new Random();
-            //Construct Room stuff:
-            currentRoom = DEFAULT_ROOM;
-            roomRef.put(DEFAULT_ROOM,new Room(this,DEFAULT_ROOM));
-
-            HashSet<Integer> chestRooms = new HashSet<Integer>();
-
-            //Modify this to add new items!
-            for(int i = 0; i < CHEST_CONSTANT; i++)
-            {
-                switch(rand.nextInt(4))
-                {
-                    case(0) -> ITEM_QUEUE.add(new WhetstoneItem());
-                    case(1) -> ITEM_QUEUE.add(new StoneHeartItem());
-                    case(2) -> ITEM_QUEUE.add(new WingBootsItem());
-                    case(3) -> ITEM_QUEUE.add(new FireballScroll(this));
-                }
-            }
-
-            int chestCount = 0;
-            while(chestCount < CHEST_CONSTANT)
-            {
-                int newChestRoom = rand.nextInt(24,35);
-                if(chestRooms.add(newChestRoom))
-                    chestCount++;
-            }
-
-            //This is for testing, in final roomNum should start at 25
-            for(int roomNum = 25; roomNum < 36; roomNum++)
-            {
-                Item item = null;
-                if(!chestRooms.isEmpty() && chestRooms.contains(roomNum))
-                    item = ITEM_QUEUE.remove();
-                int roomType = rand.nextInt(3);
-                switch(roomType) {
-                    case(0) -> roomRef.put(roomNum, new CombatRoom1(this, roomNum,item));
-                    case(1) -> roomRef.put(roomNum, new CombatRoom2(this, roomNum,item));
-                    case(2) -> roomRef.put(roomNum, new CombatRoom3(this, roomNum,item));
-                }
-            }
-
-            //Adds boss room
-            roomRef.put(36,new BossRoom(this,36));
-
-
-            roomRef.get(DEFAULT_ROOM).activateRoom();
-            roomRef.get(DEFAULT_ROOM).activateStairs();
-
-        }
+    public static final int UPDATE_INTERVAL = GameWorld.TICK_INTERVAL; //in ms
 
     /**
-     * The constructor for the component, initializes all rooms and the key listener stuff.
+     * The constructor for the component, initializes the world and the key listener stuff.
      * @param inWidth The preferred width the component will be constructed with.
      * @param inHeight The preferred height the component will be constructed with.
      * @param parent This is the parent in the hierarchy for swing. Is type MainFrame due to unique properties of MainFrame class.
@@ -121,43 +58,40 @@ public class GamePlayComponent extends JComponent implements KeyListener {
     {
         super();
         this.parent = parent;
-        hpLock = new ReentrantLock();
         setPreferredSize(new Dimension(inWidth,inHeight));
         setMinimumSize(new Dimension(inWidth,inHeight));
 
         //Key listener stuff
-        keys = new boolean[NUM_INPUT_KEYS];
         this.addKeyListener(this);
 
 
         //Begin component menu stuff
-        try{
-            floor = new ImageIcon(getClass().getClassLoader().getResource("floor.png"));
-        }
-        catch(Exception e)
-        {
-            System.out.println("Likely file not found while initializing floor.png");
-            System.out.println(getClass().getClassLoader());
-        }
+        //End component menu stuff.
+        //This is a placeholder will eventually take input for class if we get there
+        world = new GameWorld(new WorldBounds(inWidth, inHeight), this);
 
         PAUSE_MENU = new PauseMenu(this);
 
-        //End component menu stuff.
-        //This is a placeholder will eventually take input for class if we get there
-        initPlayer();
+        String recordDirectory = System.getProperty(InputRecording.RECORD_PROPERTY);
+        if(recordDirectory != null) {
+            Path directory = Paths.get(recordDirectory);
+            world.startRecording(recording -> saveRecording(directory, recording));
+            //The run in progress when the window is closed is saved as well.
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> saveRecording(directory, world.stopRecording()), "Recording"));
+        }
 
-        initRooms();
+        renderer = ActiveRenderer.fromSystemProperties(this);
+        overlay = new PerformanceOverlay(world, renderer);
 
-        timer = new javax.swing.Timer(UPDATE_INTERVAL, new ActionListener(){
-            public void actionPerformed(ActionEvent e)
-            {
-                PAUSE_MENU.update(null);
-                gameLoop();
-            }
-        });
-        timer.start();
+        //Simulation runs on its own thread, the EDT only paints.
+        simulation = new SimulationLoop(UPDATE_INTERVAL, world::awaitRoomBuilds, overlay::tick, this::frameReady, world.getLock());
+        simulation.start();
+
+        if(renderer != null) {
+            add(renderer.getCanvas());
+            renderer.start();
+        }
 
-        System.out.println(timer.getActionListeners());
         setFocusable(true);
         requestFocus();
     }
@@ -168,19 +102,25 @@ public class GamePlayComponent extends JComponent implements KeyListener {
      */
     public void resetGame()
     {
-        //Player must be initialized before Rooms.
-        initPlayer();
-        initRooms();
+        world.resetGame();
+    }
+
+    /**
+     * Returns the GameWorld which this component is a frontend for.
+     * @return The GameWorld being drawn.
+     */
+    public GameWorld getWorld()
+    {
+        return world;
     }
 
     /**
-     * This method gets the current Room that is active from the map.
-     * @return Returns a Room from the roomRef map based on currently active room location.
+     * This method gets the current Room that is active in the world.
+     * @return The currently active Room.
+     * @see GameWorld#getCurrentRoomRef()
      */
     public Room getCurrentRoomRef() {
-        if(!roomRef.isEmpty())
-            return roomRef.get(currentRoom);
-        return null;
+        return world.getCurrentRoomRef();
     }
 
     /**
@@ -188,158 +128,198 @@ public class GamePlayComponent extends JComponent implements KeyListener {
      * @return Currently active Room location.
      */
     public int getCurrentRoom() {
-        return currentRoom;
+        return world.getCurrentRoom();
     }
 
-
     /**
-     * Changes the currently active room when a player collides with an active Stairs object.
-     * Also swaps the side of the screen the player is on to give illusion of traversing stairs.
-     * This doubles to ensure if the swapped room always has active stairs, the player does not instantly traverse to another room.
-     * @param stairs The stairs object being checked.
+     * Returns the ActiveRenderer drawing this component.
+     * @return The ActiveRenderer, or null when rendering passively.
      */
-    public void traverseStairs(Stairs stairs)
+    public ActiveRenderer getActiveRenderer()
     {
-        if(player.collides(stairs) != null)
-        {
-            //Don't forget to mirror player placement.
-            switch(stairs.getDirection())
-            {
-                case NORTH:
-                    player.setPos(player.getX(),getPreferredSize().height - stairs.getHeight()- Collision.Collideable.PIXEL_CONSTANT-5);
-                    break;
-                case SOUTH:
-                    player.setPos(player.getX(),stairs.getHeight()+5);
-                    break;
-                case WEST:
-                    player.setPos(getPreferredSize().width - stairs.getWidth()- Collideable.PIXEL_CONSTANT-5,player.getY());
-                    break;
-                case EAST:
-                    player.setPos(stairs.getWidth() +5,player.getY());
-                    break;
-            }
-            //Handles room activation stuff, important for thread management with enemies
-            getCurrentRoomRef().deactivateRoom();
-            currentRoom = stairs.getNextRoom();
-            getCurrentRoomRef().activateRoom();
+        return renderer;
+    }
 
-            System.out.println("Room changed, new Room: " + currentRoom);
-        }
+    /**
+     * Hides the canvas of the ActiveRenderer while the pause menu is open, so Swing paints the menu and its buttons instead.
+     * Should be called on the EDT whenever the pause menu is toggled.
+     */
+    public void updateRenderMode()
+    {
+        if(renderer != null)
+            renderer.getCanvas().setVisible(!PAUSE_MENU.isActive());
+        repaint();
     }
 
     /**
-     * Calls super variant of method and also paints floor, the active room, then the player in that order.
+     * Calls super variant of method and also draws the frame, unless the ActiveRenderer is drawing it.
      * @param g The graphics object to which it will be drawn.
+     * @see #renderFrame(Graphics)
      */
     @Override
     public void paintComponent(Graphics g)
     {
-        //Each tile is 50px/50px
         super.paintComponent(g);
-        floor.paintIcon(this,g,0,0);
-        getCurrentRoomRef().drawRoom(g);
-        player.draw(g);
+        if(renderer == null || !renderer.getCanvas().isVisible())
+            renderFrame(g);
+    }
 
-        if(PAUSE_MENU.isActive())
-        {
-            PAUSE_MENU.drawPauseMenu(g);
+    //Saves the recording of a run as run-<seed>.snsr.
+    private static void saveRecording(Path directory, InputRecording recording)
+    {
+        if(recording == null)
+            return;
+        Path file = directory.resolve("run-" + recording.getSeed() + InputRecording.FILE_EXTENSION);
+        try {
+            Files.createDirectories(directory);
+            recording.save(file);
+            Log.info("Recorded the run to {}", file);
+        }
+        catch(IOException e) {
+            Log.warn("Could not save the recording: {}", e.getMessage());
         }
+    }
 
+    /**
+     * Returns the overlay showing the performance of the game.
+     * @return The PerformanceOverlay of this component.
+     */
+    public PerformanceOverlay getPerformanceOverlay()
+    {
+        return overlay;
+    }
+
+    /**
+     * Draws the active room (including its floor), then the player, then the performance overlay, then the pause menu if it is open, in that order.
+     * Moving entities are drawn interpolated between their last two simulated positions.
+     * Called by paintComponent and by the ActiveRenderer thread.
+     * @param g The graphics object to which it will be drawn.
+     */
+    public void renderFrame(Graphics g)
+    {
+        //Each tile is 50px/50px
+        synchronized (world.getLock()) {
+            PhaseEvent phase = GameEvents.ENABLED ? GameEvents.beginPhase(PhaseEvent.RENDER) : null;
+            double alpha = simulation.getInterpolationAlpha();
+            getCurrentRoomRef().drawRoom(g, alpha);
+            world.getPlayer().drawInterpolated(g, alpha);
+            overlay.draw(g);
+
+            if (PAUSE_MENU.isActive()) {
+                PAUSE_MENU.drawPauseMenu(g);
+            }
+            if(phase != null)
+                phase.commit();
+        }
     }
 
     //Now to satisfy interfaces:
     /**
-     * Sets an array of booleans at a specific index to true when a key is pressed.
+     * Sets the matching input slot of the GameWorld to true when a key is pressed.
      * @param e The event to be processed.
      */
     @Override
     public void keyPressed(KeyEvent e) {
+        if(e.getKeyCode() == KeyEvent.VK_F3) {
+            overlay.toggle();
+            return;
+        }
         //Directional inputs.
-        if(getCurrentRoomRef().isRoomActive()) {
-            switch (e.getKeyCode()) {
-                case (KeyEvent.VK_LEFT):
-                case (KeyEvent.VK_A):
-                    keys[0] = true;
-                    break;
-                case (KeyEvent.VK_RIGHT):
-                case (KeyEvent.VK_D):
-                    keys[1] = true;
-                    break;
-                case (KeyEvent.VK_UP):
-                case (KeyEvent.VK_W):
-                    keys[2] = true;
-                    break;
-                case (KeyEvent.VK_DOWN):
-                case (KeyEvent.VK_S):
-                    keys[3] = true;
-                    break;
-                case (KeyEvent.VK_SPACE):
-                    keys[4] = true;
-                    break;
-                case (KeyEvent.VK_BACK_QUOTE):
-                    keys[5] = true;
-                    break;
-            }
+        if(!PAUSE_MENU.isActive()) {
+            int key = toInputKey(e.getKeyCode());
+            if(key >= 0)
+                world.setKey(key, true);
         }
     }
 
     /**
-     * Sets an array of booleans at a specific index to false when a key is pressed.
+     * Sets the matching input slot of the GameWorld to false when a key is released.
      * @param e The event to be processed.
      */
     @Override
     public void keyReleased(KeyEvent e) {
-        switch(e.getKeyCode())
+        int key = toInputKey(e.getKeyCode());
+        if(key >= 0)
+            world.setKey(key, false);
+    }
+
+    //Maps a keyboard key to a GameWorld input slot, returns -1 if the key is unused.
+    private static int toInputKey(int keyCode)
+    {
+        switch(keyCode)
         {
             case(KeyEvent.VK_LEFT):
             case(KeyEvent.VK_A):
-                keys[0] = false;
-                break;
+                return GameWorld.KEY_LEFT;
             case (KeyEvent.VK_RIGHT):
             case(KeyEvent.VK_D):
-                keys[1] = false;
-                break;
+                return GameWorld.KEY_RIGHT;
             case (KeyEvent.VK_UP):
             case(KeyEvent.VK_W):
-                keys[2] = false;
-                break;
+                return GameWorld.KEY_UP;
             case (KeyEvent.VK_DOWN):
             case(KeyEvent.VK_S):
-                keys[3] = false;
-                break;
-            case(KeyEvent.VK_SPACE):  keys[4] = false; break;
-            case(KeyEvent.VK_BACK_QUOTE): keys[5] = false; break;
+                return GameWorld.KEY_DOWN;
+            case(KeyEvent.VK_SPACE): return GameWorld.KEY_ATTACK;
+            case(KeyEvent.VK_BACK_QUOTE): return GameWorld.KEY_RESET;
+            case(KeyEvent.VK_SHIFT): return GameWorld.KEY_ITEM;
+            default: return -1;
         }
     }
 
+    /**
+     * Releases the PerformanceOverlay when the component is disposed of, so the JVM no longer notifies it of garbage collections.
+     */
+    @Override
+    public void removeNotify()
+    {
+        overlay.close();
+        super.removeNotify();
+    }
 
-    //Executes code every tick
-    private void gameLoop(){
-        if(player!= null && !player.isDead() && getCurrentRoomRef() != null && getCurrentRoomRef().isRoomActive()) {
-            if (keys[0])
-                player.move("W", getCurrentRoomRef().getCollideables());
-            if (keys[1])
-                player.move("E", getCurrentRoomRef().getCollideables());
-            if (keys[2])
-                player.move("N", getCurrentRoomRef().getCollideables());
-            if (keys[3])
-                player.move("S", getCurrentRoomRef().getCollideables());
-
-            //Add something here with regards to player attack procedure.
-            if (keys[4]) {
-                if (player.getPickaxe().getAttackCount() <= 0)
-                    player.getPickaxe().initAttack();
-            }
-        }
-        if(keys[5]){
-            keys[5] = false;
-            parent.resetFrame();
-        }
+    /**
+     * Requests a repaint, called by the simulation thread after every batch of ticks.
+     * Does nothing while the ActiveRenderer is drawing frames on its own.
+     */
+    @Override
+    public void frameReady()
+    {
+        if(renderer == null || PAUSE_MENU.isActive())
+            repaint();
+    }
 
-        getCurrentRoomRef().update(null);
-        player.update(null);
-        checkPlayerDamageCollision();
-        repaint();
+    /**
+     * Repaints the IndicatorComponent so changes to player health are shown.
+     */
+    @Override
+    public void hudChanged()
+    {
+        //The IndicatorComponent is constructed after this component.
+        if(parent.getTopUI() != null)
+            parent.getTopUI().repaint();
+    }
+
+    /**
+     * Adds the acquired Item to the IndicatorComponent on the EDT.
+     * @param item The Item which was acquired.
+     */
+    @Override
+    public void itemAcquired(Item item)
+    {
+        //Add logic here later to handle UI spot for active item.
+        SwingUtilities.invokeLater(() -> {
+            parent.getTopUI().addItem(item);
+            parent.getTopUI().repaint();//Call to repaint in order to update Indicator Component
+        });
+    }
+
+    /**
+     * Resets the whole frame on the EDT, since resetting touches Swing components.
+     */
+    @Override
+    public void resetRequested()
+    {
+        SwingUtilities.invokeLater(parent::resetFrame);
     }
 
     /**
@@ -357,7 +337,7 @@ public class GamePlayComponent extends JComponent implements KeyListener {
      */
     public Player getPlayer()
     {
-        return player;
+        return world.getPlayer();
     }
 
     /**
@@ -369,41 +349,6 @@ public class GamePlayComponent extends JComponent implements KeyListener {
         // no code needed here
     }
 
-
-
-    /**
-     * Starts the damage thread on a player, typically called whenever an enemy collides with the player.
-     * Can be called by other classes to start the damage in other ways.
-     * @param damage The amount of damage to be done to the player.
-     */
-    public void startPlayerDamage(int damage) {
-
-        class IFramesRunnable implements Runnable {
-            public IFramesRunnable()
-            {
-                //Nothing here
-            }
-            public void run() {
-                if(hpLock.tryLock()) {
-                    try {
-                        player.damagePlayer(damage);
-                        //System.out.println("Player damage called");
-                        parent.getTopUI().repaint();
-                        Thread.sleep(Player.PLAYER_I_FRAMES);
-                    } catch (InterruptedException e) {
-                        System.out.println("ZZZZ");
-                    } finally {
-                        hpLock.unlock();
-                    }
-                }
-            }
-        }
-            IFramesRunnable r1 = new IFramesRunnable();
-            Thread t1 = new Thread(r1);
-            t1.start();
-
-    }
-
     /**
      * Returns a HashSet of all KeyListener references in the GamePlayComponent.
      * @return HashSet of all KeyListeners.
@@ -414,20 +359,4 @@ public class GamePlayComponent extends JComponent implements KeyListener {
         Collections.addAll(temp, getKeyListeners());
         return temp;
     }
-
-    //Cool helper method to check for all body collisions. Not to be used for player attacks and enemies
-    private void checkPlayerDamageCollision()
-    {
-        for(Enemy enemy : getCurrentRoomRef().getEnemies())
-        {
-            //Stops contact damage from boss, turns on contact damage during boss swing attack.
-            if((!(enemy instanceof GolemBoss) && player.collides(enemy) != null) || (enemy instanceof GolemBoss && ((GolemBoss) enemy).getDrillAnimationCD() > 0 && player.collides(enemy) != null))
-            {
-                startPlayerDamage(enemy.getAtk());
-            }
-        }
-    }
-
-
-
 }
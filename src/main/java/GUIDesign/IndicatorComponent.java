@@ -4,6 +4,7 @@ import java.awt.*;
 import java.util.ArrayList;
 
 import CharacterResources.Items.Item;
+import Simulation.Log;
 
 /**
  * A class which represents the upper UI of the game which displays basic info such as acquired items and current health.
@@ -26,9 +27,9 @@ public class IndicatorComponent extends JComponent {
 
         gameWorld = inGameplayComponent;
 
-        System.out.println("Indicator Component constructed");
-        System.out.println("Current Height: " + getHeight());
-        System.out.println("Current Width: " + getWidth());
+        Log.debug("Indicator Component constructed");
+        Log.debug("Current Height: {}", getHeight());
+        Log.debug("Current Width: {}", getWidth());
     }
 
     /**
@@ -100,7 +101,7 @@ public class IndicatorComponent extends JComponent {
         int y = 10;
         for(Item i : ITEMS)
         {
-            System.out.println("Item drawn");
+            Log.trace("Item drawn");
             i.drawItem(this,g,x,y);
             x += 55;
             if(x + 50 >= super.getWidth()*3/5)
@@ -3,6 +3,8 @@ package GUIDesign;
 import javax.swing.*;
 import java.awt.*;
 
+import Simulation.Log;
+
 /**
  *  Represents the environment for running a Stones n Spells game
  */
@@ -44,18 +46,18 @@ public class MainFrame extends JFrame
         GridBagConstraints gameConstraints = new GridBagConstraints();
 
         addToPanel(gameWorld,panel, compOrg, gameConstraints, 0,1,1,1);
-        System.out.println("Preferred Size of Component gameWorld" + gameWorld.getPreferredSize());
+        Log.debug("Preferred Size of Component gameWorld{}", gameWorld.getPreferredSize());
 
         GridBagConstraints UIConstraints = new GridBagConstraints();
         topUI = new IndicatorComponent(800, 200, gameWorld);
 
         addToPanel(topUI, panel, compOrg, UIConstraints,0,0,1,1);
 
-        System.out.println("Preferred Size of Component topUI: " + topUI.getPreferredSize());
+        Log.debug("Preferred Size of Component topUI: {}", topUI.getPreferredSize());
 
         //topUI.setBounds(0,0,WIDTH, HEIGHT/6);
 
-        System.out.println("Panel Width: " + panel.getWidth());
+        Log.debug("Panel Width: {}", panel.getWidth());
 
 
 
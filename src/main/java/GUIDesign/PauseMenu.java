@@ -8,6 +8,9 @@ import java.awt.event.KeyListener;
 import javax.swing.*;
 import java.util.*;
 
+import Simulation.GameWorld;
+import Simulation.Log;
+
 /**
  * Class which represents pause menu for the game.
  * When pause menu is active, it will freeze the game.
@@ -71,7 +74,7 @@ public class PauseMenu implements KeyListener, ActionListener, Updateable {
         saveButton = new JButton("Save");
         saveButton.addActionListener(this);
 
-        ImageIcon exitIcon = new ImageIcon((new ImageIcon(getClass().getClassLoader().getResource("Exit.png"))).getImage().getScaledInstance(buttonWidth,buttonHeight,0));
+        ImageIcon exitIcon = new ImageIcon(SpriteCache.get("Exit.png").getImage().getScaledInstance(buttonWidth,buttonHeight,0));
         exitButton = new JButton(exitIcon);
         exitButton.addActionListener(this);
     }
@@ -101,19 +104,23 @@ public class PauseMenu implements KeyListener, ActionListener, Updateable {
 
     /**
      * Toggles the pause menu on and off.
+     * The room itself is paused and resumed by the next tick of the GameWorld, through its pause input slot.
+     * @see GameWorld#KEY_PAUSE
      */
     public void togglePauseMenu()
     {
         if(!isActive)
         {
             isActive = true;
-            parent.getCurrentRoomRef().deactivateRoom();
         }
         else{
             isActive = false;
-            parent.getCurrentRoomRef().activateRoom();
             parent.requestFocus();
         }
+        parent.getWorld().setKey(GameWorld.KEY_PAUSE, isActive);
+        //Buttons are Swing components, so they are added and removed here on the EDT instead of every tick.
+        update(null);
+        parent.updateRenderMode();
     }
 
     /**
@@ -159,7 +166,7 @@ public class PauseMenu implements KeyListener, ActionListener, Updateable {
         if(e.getSource() == resumeButton)
         {
             togglePauseMenu();
-            System.out.println("Resume called");
+            Log.debug("Resume called");
         }
 
         if(e.getSource() == inventoryButton)
@@ -197,7 +204,7 @@ public class PauseMenu implements KeyListener, ActionListener, Updateable {
         if(isActive) {
             /*
             if (exitButton != null && ACTIVE_BUTTON_SET.add(exitButton)) {
-                System.out.println("Button added");
+                Log.debug("Button added");
                 exitButton.setBorder(BorderFactory.createEmptyBorder());
                 exitButton.setContentAreaFilled(false);
                 exitButton.setBounds(xPos+ BORDER_SIZE,yPos+height-BORDER_SIZE-buttonHeight,buttonWidth,buttonHeight);
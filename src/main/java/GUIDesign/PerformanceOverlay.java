@@ -0,0 +1,274 @@
+package GUIDesign;
+
+import MapDesign.Rooms.Room;
+import Simulation.GameWorld;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * A toggleable overlay showing how the game performs while it is being played, drawn over the top left of the GamePlayComponent.
+ * Shows the frames per second, the median and 99th percentile tick time, the entities in the current room,
+ * the bytes allocated per tick and the most recent garbage collection pauses.
+ * Ticks are only measured while the overlay is shown. The text is only rebuilt a few times per second and is drawn
+ * from cached images in between, so the overlay itself barely changes what it measures.
+ * Tick samples are written by the simulation thread while it holds the world lock, and read while drawing, which also holds it.
+ * @see GamePlayComponent#renderFrame(Graphics)
+ */
+public class PerformanceOverlay {
+
+    //Amount of recent ticks the percentiles are taken over, about 6 seconds of play.
+    private static final int TICK_SAMPLES = 512;
+    //Amount of recent GC pauses which are shown.
+    private static final int GC_SAMPLES = 4;
+    //How often the text is rebuilt.
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    private static final int MARGIN = 6;
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+    private static final int LINES = 6;
+
+    private final GameWorld world;
+    private final ActiveRenderer renderer;
+    private final com.sun.management.ThreadMXBean threads;
+    private final NotificationListener gcListener = this::garbageCollected;
+    private volatile boolean visible;
+
+    //Written by the simulation thread, and read while drawing, both under the world lock.
+    private final long[] tickNanos = new long[TICK_SAMPLES];
+    private final long[] tickBytes = new long[TICK_SAMPLES];
+    private int tickIndex;
+    private int tickCount;
+    private final long[] sortedNanos = new long[TICK_SAMPLES];
+
+    //Written by the GC notification thread.
+    private final long[] gcPauseMillis = new long[GC_SAMPLES];
+    private int gcIndex;
+    private long gcTotal;
+
+    //Only touched while drawing.
+    private long fpsWindowStart;
+    private int fpsFrames;
+    private double fps;
+    private long lastRefresh;
+    private final String[] lines = new String[LINES];
+    private final BufferedImage[] lineImages = new BufferedImage[LINES];
+
+    /**
+     * Constructs a hidden PerformanceOverlay and starts listening for garbage collections.
+     * @param world The GameWorld which is measured.
+     * @param renderer The ActiveRenderer drawing the game, whose render times are also shown. Null when painting passively.
+     */
+    public PerformanceOverlay(GameWorld world, ActiveRenderer renderer)
+    {
+        this.world = world;
+        this.renderer = renderer;
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+        {
+            threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        else
+            threads = null;
+
+        for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            if(gc instanceof NotificationEmitter)
+                ((NotificationEmitter) gc).addNotificationListener(gcListener, null, null);
+        }
+    }
+
+    /**
+     * Stops listening for garbage collections, the overlay no longer shows new pauses afterwards.
+     * Does nothing if it was already closed.
+     */
+    public void close()
+    {
+        for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            if(!(gc instanceof NotificationEmitter))
+                continue;
+            try {
+                ((NotificationEmitter) gc).removeNotificationListener(gcListener);
+            }
+            catch(ListenerNotFoundException e) {
+                //Already removed by an earlier close().
+            }
+        }
+    }
+
+    /**
+     * Shows the overlay if it is hidden and hides it if it is shown.
+     * Showing it starts the measurements over.
+     */
+    public void toggle()
+    {
+        synchronized (world.getLock()) {
+            visible = !visible;
+            if(visible)
+            {
+                tickIndex = 0;
+                tickCount = 0;
+                fpsFrames = 0;
+                fpsWindowStart = System.nanoTime();
+                lastRefresh = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the overlay is shown.
+     * @return True if the overlay is drawn and ticks are measured.
+     */
+    public boolean isVisible()
+    {
+        return visible;
+    }
+
+    /**
+     * Runs a tick of the world, measuring its time and allocation while the overlay is shown.
+     * Must be called while holding the world lock, as the SimulationLoop does, since the samples are read and reset under it.
+     */
+    public void tick()
+    {
+        if(!visible)
+        {
+            world.tick();
+            return;
+        }
+        long bytesBefore = threads != null ? threads.getCurrentThreadAllocatedBytes() : 0;
+        long start = System.nanoTime();
+        world.tick();
+        tickNanos[tickIndex] = System.nanoTime() - start;
+        tickBytes[tickIndex] = threads != null ? threads.getCurrentThreadAllocatedBytes() - bytesBefore : 0;
+        tickIndex = (tickIndex + 1) % TICK_SAMPLES;
+        tickCount = Math.min(tickCount + 1, TICK_SAMPLES);
+    }
+
+    /**
+     * Draws the overlay if it is shown, and counts the frame towards the frames per second.
+     * Must be called once per frame while holding the world lock, after everything else in the frame is drawn.
+     * @param g The graphics context to draw to.
+     */
+    public void draw(Graphics g)
+    {
+        long now = System.nanoTime();
+        fpsFrames++;
+        if(now - fpsWindowStart >= 1_000_000_000L)
+        {
+            fps = fpsFrames * 1_000_000_000.0 / (now - fpsWindowStart);
+            fpsFrames = 0;
+            fpsWindowStart = now;
+        }
+        if(!visible)
+            return;
+
+        if(now - lastRefresh >= REFRESH_NANOS)
+        {
+            lastRefresh = now;
+            refreshLines();
+        }
+        int y = MARGIN;
+        for(BufferedImage image : lineImages)
+        {
+            if(image == null)
+                continue;
+            g.drawImage(image, MARGIN, y, null);
+            y += image.getHeight();
+        }
+    }
+
+    //Rebuilds the text, and the image of every line whose text changed.
+    private void refreshLines()
+    {
+        int samples = tickCount;
+        System.arraycopy(tickNanos, 0, sortedNanos, 0, samples);
+        Arrays.sort(sortedNanos, 0, samples);
+        long bytes = 0;
+        for(int i = 0; i < samples; i++)
+            bytes += tickBytes[i];
+
+        Room room = world.getCurrentRoomRef();
+        String render = renderer != null
+                ? String.format("  render %.2f ms", renderer.getLastRenderNanos() / 1_000_000.0) : "";
+        setLine(0, String.format("FPS %.1f%s", fps, render));
+        setLine(1, String.format("Tick p50 %.3f ms  p99 %.3f ms",
+                percentile(samples, 0.50) / 1_000_000.0, percentile(samples, 0.99) / 1_000_000.0));
+        setLine(2, String.format("Enemies %d  Projectiles %d  Collideables %d",
+                room.getEnemies().size(), room.getProjectiles().size(), room.getCollideables().size()));
+        setLine(3, threads != null
+                ? String.format("Allocated %.1f bytes/tick", samples > 0 ? (double) bytes / samples : 0.0)
+                : "Allocated n/a");
+        setLine(4, "GC " + gcPauseSummary());
+        setLine(5, "Room " + world.getCurrentRoom() + "  cached rooms " + world.getRoomCache().getResidentCount());
+    }
+
+    private long percentile(int samples, double fraction)
+    {
+        if(samples == 0)
+            return 0;
+        return sortedNanos[Math.min(samples - 1, (int)(fraction * samples))];
+    }
+
+    private synchronized String gcPauseSummary()
+    {
+        if(gcTotal == 0)
+            return "no pauses yet";
+        StringBuilder summary = new StringBuilder().append(gcTotal).append(" pauses, recent");
+        for(int i = 1; i <= Math.min(gcTotal, GC_SAMPLES); i++)
+            summary.append(' ').append(gcPauseMillis[(gcIndex - i + GC_SAMPLES) % GC_SAMPLES]).append(" ms");
+        return summary.toString();
+    }
+
+    //Called on the notification thread of the JVM after every garbage collection.
+    private synchronized void garbageCollected(Notification notification, Object handback)
+    {
+        if(!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+            return;
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        //Collectors like ZGC also report their concurrent cycles, which do not stop the game.
+        if(info.getGcName().contains("Cycles"))
+            return;
+        gcPauseMillis[gcIndex] = info.getGcInfo().getDuration();
+        gcIndex = (gcIndex + 1) % GC_SAMPLES;
+        gcTotal++;
+    }
+
+    //Draws a line of text into its own image, only when the text changed.
+    private void setLine(int line, String text)
+    {
+        if(text.equals(lines[line]))
+            return;
+        lines[line] = text;
+
+        BufferedImage measure = lineImages[line] != null ? lineImages[line] : new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D mg = measure.createGraphics();
+        FontMetrics metrics = mg.getFontMetrics(FONT);
+        mg.dispose();
+
+        BufferedImage image = new BufferedImage(metrics.stringWidth(text) + 2 * MARGIN, metrics.getHeight() + 2,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D ig = image.createGraphics();
+        ig.setColor(BACKGROUND);
+        ig.fillRect(0, 0, image.getWidth(), image.getHeight());
+        ig.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        ig.setFont(FONT);
+        ig.setColor(Color.WHITE);
+        ig.drawString(text, MARGIN, metrics.getAscent() + 1);
+        ig.dispose();
+        lineImages[line] = image;
+    }
+}
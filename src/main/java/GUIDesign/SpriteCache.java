@@ -0,0 +1,80 @@
+package GUIDesign;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A central registry of sprites which decodes each image resource only once and hands out shared ImageIcons.
+ * When a screen is available, images are converted to the format of the default GraphicsConfiguration so Java2D can accelerate drawing them.
+ * When running headless the decoded image is used as is, since only its size is needed.
+ * The returned ImageIcons are shared between every object using the same sprite, so they must not be modified.
+ */
+public final class SpriteCache {
+
+    private static final ConcurrentHashMap<String, ImageIcon> SPRITES = new ConcurrentHashMap<String, ImageIcon>();
+
+    private SpriteCache()
+    {
+        //Nothing here
+    }
+
+    /**
+     * Returns the shared ImageIcon for an image resource, decoding it on the first request.
+     * @param fileName The name of the image file within the resources.
+     * @return The shared ImageIcon of the image.
+     * @throws IllegalArgumentException If the resource does not exist or is not a readable image.
+     */
+    public static ImageIcon get(String fileName)
+    {
+        return SPRITES.computeIfAbsent(fileName, SpriteCache::load);
+    }
+
+    /**
+     * Decodes every given image resource ahead of time, so nothing is decoded once the game is running.
+     * @param fileNames The names of the image files within the resources.
+     */
+    public static void preload(String... fileNames)
+    {
+        for(String fileName : fileNames)
+            get(fileName);
+    }
+
+    private static ImageIcon load(String fileName)
+    {
+        BufferedImage decoded;
+        try (InputStream in = SpriteCache.class.getClassLoader().getResourceAsStream(fileName)) {
+            if(in == null)
+                throw new IllegalArgumentException("Sprite not found: " + fileName);
+            decoded = ImageIO.read(in);
+        }
+        catch(IOException e) {
+            throw new IllegalArgumentException("Sprite could not be read: " + fileName, e);
+        }
+        if(decoded == null)
+            throw new IllegalArgumentException("Sprite is not a supported image: " + fileName);
+
+        if(GraphicsEnvironment.isHeadless())
+            return new ImageIcon(decoded);
+        return new ImageIcon(toCompatibleImage(decoded));
+    }
+
+    //Copies the image into the pixel format of the screen, which avoids conversion on every draw.
+    private static BufferedImage toCompatibleImage(BufferedImage image)
+    {
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        if(image.getColorModel().equals(config.getColorModel(image.getTransparency())))
+            return image;
+
+        BufferedImage compatible = config.createCompatibleImage(image.getWidth(), image.getHeight(), image.getTransparency());
+        Graphics2D g = compatible.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+}
@@ -5,9 +5,9 @@ package GUIDesign;
  */
 public interface Updateable {
     /**
-     * The method which classes implement to actually trigger updates to objects based on a swing Timer or other updating tool.
+     * The method which classes implement to actually trigger updates to objects based on the simulation thread or other updating tool.
      * @param updateObject An object with additional properties required in order to process an update() call.
-     * @see javax.swing.Timer
+     * @see Simulation.SimulationLoop
      */
     public void update(Object updateObject);
 }
@@ -1,6 +1,8 @@
 package MapDesign;
 import CharacterResources.Items.Item;
-import GUIDesign.GamePlayComponent;
+import Collision.CollisionLayers;
+import Simulation.GameWorld;
+import GUIDesign.SpriteCache;
 
 import javax.swing.*;
 /**
@@ -13,16 +15,21 @@ public class Chest extends Obstacle {
 
     private static final String CLOSED_CHEST_IMAGE = "Chest.png";
     private static final String OPEN_CHEST_IMAGE = "ChestOpen.png";
+
+    //Loads the open sprite along with the first chest, instead of when the first chest is opened.
+    static {
+        SpriteCache.preload(OPEN_CHEST_IMAGE);
+    }
     private Item containedItem ;
 
     /**
      * Constructs a Chest with the specified parameters.
-     * @param inParent The GamePlayComponent to be drawn to.
+     * @param inParent The GameWorld it belongs to.
      * @param xPos The initial x-position.
      * @param yPos The initial y-position.
      * @param inItem The Item to be stored within the Chest.
      */
-    public Chest(GamePlayComponent inParent, int xPos, int yPos, Item inItem)
+    public Chest(GameWorld inParent, int xPos, int yPos, Item inItem)
     {
         super(inParent, CLOSED_CHEST_IMAGE, xPos, yPos);
         containedItem = inItem;
@@ -31,13 +38,13 @@ public class Chest extends Obstacle {
     /**
      * Constructs a Chest with the specified parameters.
      * This is used to pass a different image to the chest. (Use for special Chests/Items).
-     * @param inParent The GamePlayComponent to be drawn to.
+     * @param inParent The GameWorld it belongs to.
      * @param inFileName The file-name of the picture to be associated with this chest.
      * @param xPos The initial x-position.
      * @param yPos The initial y-position.
      * @param inItem The Item to be stored within the Chest.
      */
-    public Chest(GamePlayComponent inParent, String inFileName, int xPos, int yPos, Item inItem)
+    public Chest(GameWorld inParent, String inFileName, int xPos, int yPos, Item inItem)
     {
         super(inParent, inFileName, xPos, yPos);
         containedItem = inItem;
@@ -49,7 +56,7 @@ public class Chest extends Obstacle {
      */
     public Item openChest()
     {
-        setImageIcon(new ImageIcon(getClass().getClassLoader().getResource(OPEN_CHEST_IMAGE)));
+        setImageIcon(SpriteCache.get(OPEN_CHEST_IMAGE));
         Item temp = containedItem;
         containedItem = null;
         return temp;
@@ -63,4 +70,14 @@ public class Chest extends Obstacle {
     {
         return containedItem;
     }
+
+    /**
+     * Chests block like other obstacles, and can also be struck open.
+     * @return Always returns CollisionLayers.INTERACTABLE.
+     */
+    @Override
+    public int getCollisionLayer()
+    {
+        return CollisionLayers.INTERACTABLE;
+    }
 }
@@ -0,0 +1,234 @@
+package MapDesign;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The layout of a dungeon: which rooms exist and which rooms their stairs lead to.
+ * Rooms are numbered densely from 0, room 0 is where the player starts.
+ * Every room sits on a cell of a square grid and can have stairs to the rooms in the four neighbouring cells,
+ * so stairs always lead back the way they came.
+ * The graph is kept in primitive arrays, four neighbour slots per room in the order north, south, west, east,
+ * matching the order of Stairs.Direction and Room.getStairs().
+ * @see Stairs.Direction
+ */
+public final class DungeonGraph {
+
+    /**
+     * Index of the northern neighbour slot.
+     */
+    public static final int NORTH = 0;
+    /**
+     * Index of the southern neighbour slot.
+     */
+    public static final int SOUTH = 1;
+    /**
+     * Index of the western neighbour slot.
+     */
+    public static final int WEST = 2;
+    /**
+     * Index of the eastern neighbour slot.
+     */
+    public static final int EAST = 3;
+    /**
+     * Stored in a neighbour slot which has no stairs.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * The room where every run starts.
+     */
+    public static final int START_ROOM = 0;
+
+    //Chance that a new room is also joined to another room next to it, which creates loops instead of a pure tree.
+    private static final int LOOP_ONE_IN = 8;
+
+    //Grid offsets of the neighbour slots.
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+    private static final int[] OPPOSITE = {SOUTH, NORTH, EAST, WEST};
+
+    private final int roomCount;
+    private final int[] neighbours;
+    private final int[] gridX;
+    private final int[] gridY;
+    private final int[] depth;
+    private final int bossRoom;
+
+    private DungeonGraph(int roomCount, int[] neighbours, int[] gridX, int[] gridY)
+    {
+        this.roomCount = roomCount;
+        this.neighbours = neighbours;
+        this.gridX = gridX;
+        this.gridY = gridY;
+        depth = new int[roomCount];
+        bossRoom = measureDepths();
+    }
+
+    /**
+     * Generates a connected dungeon by growing rooms outwards from the start room with a randomized Prim's algorithm.
+     * Each step picks a random empty cell next to the dungeon and adds a room there, joined to one of the rooms next to it,
+     * so every room can be reached from the start. Occasionally a new room is joined to more than one neighbour to form loops.
+     * The boss room is the room the furthest away from the start.
+     * The same seed and size always generate the same dungeon.
+     * @param seed The seed of the layout.
+     * @param roomCount The amount of rooms, at least 2 so the boss is not in the start room.
+     * @return The generated DungeonGraph.
+     */
+    public static DungeonGraph generate(long seed, int roomCount)
+    {
+        if(roomCount < 2)
+            throw new IllegalArgumentException("A dungeon needs at least 2 rooms, got " + roomCount);
+        Random rand = new Random(seed);
+
+        //Big enough that the dungeon never runs out of space, while keeping the layout compact.
+        int side = (int)Math.ceil(Math.sqrt(roomCount * 2.0)) + 2;
+        int[] cellRoom = new int[side * side];
+        Arrays.fill(cellRoom, NONE);
+        boolean[] inFrontier = new boolean[side * side];
+        int[] frontier = new int[side * side];
+        int frontierSize = 0;
+
+        int[] neighbours = new int[roomCount * 4];
+        Arrays.fill(neighbours, NONE);
+        int[] gridX = new int[roomCount];
+        int[] gridY = new int[roomCount];
+
+        int startCell = (side / 2) * side + side / 2;
+        frontier[frontierSize++] = startCell;
+        inFrontier[startCell] = true;
+
+        int[] candidates = new int[4];
+        for(int room = 0; room < roomCount; room++)
+        {
+            //Swap-remove of a random frontier cell.
+            int pick = rand.nextInt(frontierSize);
+            int cell = frontier[pick];
+            frontier[pick] = frontier[--frontierSize];
+
+            int x = cell % side;
+            int y = cell / side;
+            cellRoom[cell] = room;
+            gridX[room] = x;
+            gridY[room] = y;
+
+            //Joins the room to one random neighbour, and maybe some others.
+            int candidateCount = 0;
+            for(int dir = 0; dir < 4; dir++)
+            {
+                int nx = x + DX[dir], ny = y + DY[dir];
+                if(nx < 0 || ny < 0 || nx >= side || ny >= side)
+                    continue;
+                int neighbourCell = ny * side + nx;
+                if(cellRoom[neighbourCell] != NONE)
+                    candidates[candidateCount++] = dir;
+                else if(!inFrontier[neighbourCell])
+                {
+                    inFrontier[neighbourCell] = true;
+                    frontier[frontierSize++] = neighbourCell;
+                }
+            }
+            if(candidateCount > 0)
+            {
+                int parentDir = candidates[rand.nextInt(candidateCount)];
+                for(int i = 0; i < candidateCount; i++)
+                {
+                    int dir = candidates[i];
+                    if(dir == parentDir || rand.nextInt(LOOP_ONE_IN) == 0)
+                    {
+                        int other = cellRoom[(y + DY[dir]) * side + x + DX[dir]];
+                        neighbours[room * 4 + dir] = other;
+                        neighbours[other * 4 + OPPOSITE[dir]] = room;
+                    }
+                }
+            }
+        }
+        return new DungeonGraph(roomCount, neighbours, gridX, gridY);
+    }
+
+    //Breadth first search from the start room, returns the room furthest away.
+    private int measureDepths()
+    {
+        Arrays.fill(depth, NONE);
+        int[] queue = new int[roomCount];
+        int head = 0, tail = 0;
+        queue[tail++] = START_ROOM;
+        depth[START_ROOM] = 0;
+        int furthest = START_ROOM;
+        while(head < tail)
+        {
+            int room = queue[head++];
+            if(depth[room] > depth[furthest])
+                furthest = room;
+            for(int dir = 0; dir < 4; dir++)
+            {
+                int next = neighbours[room * 4 + dir];
+                if(next != NONE && depth[next] == NONE)
+                {
+                    depth[next] = depth[room] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return furthest;
+    }
+
+    /**
+     * Returns the amount of rooms in the dungeon.
+     * @return The amount of rooms.
+     */
+    public int size()
+    {
+        return roomCount;
+    }
+
+    /**
+     * Returns the room which the stairs of a room lead to in a direction.
+     * @param room The room number.
+     * @param direction One of NORTH, SOUTH, WEST or EAST.
+     * @return The number of the neighbouring room, or NONE if there are no stairs in that direction.
+     */
+    public int getNeighbour(int room, int direction)
+    {
+        return neighbours[room * 4 + direction];
+    }
+
+    /**
+     * Returns the room the boss is in, which is the room with the longest shortest path from the start room.
+     * @return The number of the boss room.
+     */
+    public int getBossRoom()
+    {
+        return bossRoom;
+    }
+
+    /**
+     * Returns the least amount of stairs which have to be taken to reach a room from the start room.
+     * @param room The room number.
+     * @return The distance from the start room.
+     */
+    public int getDepth(int room)
+    {
+        return depth[room];
+    }
+
+    /**
+     * Returns the column of the grid cell a room is placed on.
+     * @param room The room number.
+     * @return The x-position of the room on the grid.
+     */
+    public int getGridX(int room)
+    {
+        return gridX[room];
+    }
+
+    /**
+     * Returns the row of the grid cell a room is placed on.
+     * @param room The room number.
+     * @return The y-position of the room on the grid.
+     */
+    public int getGridY(int room)
+    {
+        return gridY[room];
+    }
+}
@@ -0,0 +1,296 @@
+package MapDesign;
+
+import Collision.Collideable;
+import Simulation.WorldBounds;
+
+import java.util.Arrays;
+
+/**
+ * Distances from every tile of a Room to the tile the player stands on, shared by every enemy in the Room.
+ * The distances are found by a breadth first search over the {@value WorldBounds#GRID_COLUMNS} by {@value WorldBounds#GRID_ROWS}
+ * tile grid around the static obstacles of the Room, and only searched again once the player reaches another tile.
+ * An enemy then finds its next step by comparing the distances of the tiles next to it, whatever the amount of enemies.
+ * Creatures larger than a tile use a separate field over the tiles where their whole footprint fits, so a
+ * 2x2 creature does not try to squeeze through a gap one tile wide. The footprint is measured from the top left tile.
+ * Fields are only searched when asked for, so a Room without large creatures never searches the larger field.
+ * This class is not thread safe, it should only be used by the simulation thread.
+ * @see #nextTile(int, int, int)
+ */
+public class FlowField {
+
+    /**
+     * The distance of tiles from which the player cannot be reached.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    /**
+     * The largest footprint, in tiles across, which has its own field.
+     */
+    public static final int MAX_FOOTPRINT = 2;
+
+    private static final int COLUMNS = WorldBounds.GRID_COLUMNS;
+    private static final int ROWS = WorldBounds.GRID_ROWS;
+    private static final int TILES = COLUMNS * ROWS;
+
+    private final int width;
+    private final int height;
+    private final boolean[] blocked = new boolean[TILES];
+    //One field per footprint, index 0 for creatures of one tile. Allocated up front, so searching never allocates.
+    private final boolean[][] passable = new boolean[MAX_FOOTPRINT][TILES];
+    private final int[][] distances = new int[MAX_FOOTPRINT][TILES];
+    private final boolean[] stale = new boolean[MAX_FOOTPRINT];
+    private final int[] queue = new int[TILES];
+
+    private int goal = -1;
+    //Total amount of searches, for profiling.
+    private long searchCount;
+
+    /**
+     * Constructs a FlowField without obstacles.
+     * @param bounds The play area the tile grid is laid over.
+     */
+    public FlowField(WorldBounds bounds)
+    {
+        width = bounds.getWidth();
+        height = bounds.getHeight();
+        Arrays.fill(stale, true);
+    }
+
+    /**
+     * Marks the tiles an obstacle covers as blocked. Parts of it outside the tile grid are ignored.
+     * @param obstacle The static obstacle, it should not move afterwards.
+     */
+    public void addObstacle(Collideable obstacle)
+    {
+        int minColumn = Math.floorDiv(obstacle.getX() * COLUMNS, width);
+        int maxColumn = Math.floorDiv((obstacle.getX() + obstacle.getWidth() - 1) * COLUMNS, width);
+        int minRow = Math.floorDiv(obstacle.getY() * ROWS, height);
+        int maxRow = Math.floorDiv((obstacle.getY() + obstacle.getHeight() - 1) * ROWS, height);
+        for(int row = Math.max(0, minRow); row <= Math.min(ROWS - 1, maxRow); row++)
+            for(int column = Math.max(0, minColumn); column <= Math.min(COLUMNS - 1, maxColumn); column++)
+                blocked[row * COLUMNS + column] = true;
+        Arrays.fill(stale, true);
+    }
+
+    /**
+     * Marks a tile of the grid as blocked.
+     * @param gridX The tile column, from 0 to 15.
+     * @param gridY The tile row, from 0 to 11. Tiles outside the grid are ignored.
+     */
+    public void blockTile(int gridX, int gridY)
+    {
+        if(gridX < 0 || gridX >= COLUMNS || gridY < 0 || gridY >= ROWS)
+            return;
+        blocked[gridY * COLUMNS + gridX] = true;
+        Arrays.fill(stale, true);
+    }
+
+    /**
+     * Returns whether a tile is covered by a static obstacle.
+     * @param tile The tile, row * 16 + column.
+     * @return True if the tile is blocked.
+     */
+    public boolean isBlocked(int tile)
+    {
+        return blocked[tile];
+    }
+
+    /**
+     * Moves the goal to the tile under a point, usually the center of the player. Cheap if the tile did not change.
+     * @param x The x-position of the point.
+     * @param y The y-position of the point.
+     */
+    public void setGoal(int x, int y)
+    {
+        int tile = tileOf(x, y);
+        if(tile == goal)
+            return;
+        goal = tile;
+        Arrays.fill(stale, true);
+    }
+
+    /**
+     * Returns the tile the distances are measured to.
+     * @return The goal tile, or -1 if no goal was set yet.
+     */
+    public int getGoal()
+    {
+        return goal;
+    }
+
+    /**
+     * Returns how many tiles across a creature of some size covers.
+     * @param creatureWidth The width of the creature in pixels.
+     * @param creatureHeight The height of the creature in pixels.
+     * @return The footprint, from 1 to MAX_FOOTPRINT.
+     */
+    public int footprintOf(int creatureWidth, int creatureHeight)
+    {
+        int across = Math.max(Math.abs(creatureWidth) * COLUMNS / width, Math.abs(creatureHeight) * ROWS / height);
+        return Math.max(1, Math.min(MAX_FOOTPRINT, across));
+    }
+
+    /**
+     * Returns the distance in steps from a tile to the goal, for a creature of some footprint standing on it.
+     * @param tile The top left tile of the footprint.
+     * @param footprint How many tiles across the creature covers.
+     * @return The amount of steps, or UNREACHABLE.
+     */
+    public int getDistance(int tile, int footprint)
+    {
+        return field(footprint)[tile];
+    }
+
+    /**
+     * Finds the tile a creature should step to next to get closer to the goal.
+     * @param centerX The x-center of the creature.
+     * @param centerY The y-center of the creature.
+     * @param footprint How many tiles across the creature covers, see footprintOf().
+     * @return The top left tile of the footprint after the step, or -1 if the creature is at the goal or cannot reach it.
+     */
+    public int nextTile(int centerX, int centerY, int footprint)
+    {
+        int[] distance = field(footprint);
+        //The top left tile of a footprint is the one under the center of its top left tile sized quarter.
+        int offsetX = (footprint - 1) * width / COLUMNS / 2;
+        int offsetY = (footprint - 1) * height / ROWS / 2;
+        int tile = tileOf(centerX - offsetX, centerY - offsetY);
+        int best = -1;
+        int bestDistance = distance[tile];
+        if(bestDistance == 0)
+            return -1;
+        int column = tile % COLUMNS;
+        int row = tile / COLUMNS;
+        //Fixed order, so ties always resolve the same way.
+        if(row > 0 && distance[tile - COLUMNS] < bestDistance)
+        {
+            best = tile - COLUMNS;
+            bestDistance = distance[best];
+        }
+        if(row < ROWS - 1 && distance[tile + COLUMNS] < bestDistance)
+        {
+            best = tile + COLUMNS;
+            bestDistance = distance[best];
+        }
+        if(column > 0 && distance[tile - 1] < bestDistance)
+        {
+            best = tile - 1;
+            bestDistance = distance[best];
+        }
+        if(column < COLUMNS - 1 && distance[tile + 1] < bestDistance)
+            best = tile + 1;
+        return best;
+    }
+
+    /**
+     * Returns the x-center of a creature standing on a tile.
+     * @param tile The top left tile of the footprint.
+     * @param footprint How many tiles across the creature covers.
+     * @return The x-position in pixels.
+     */
+    public int centerXOf(int tile, int footprint)
+    {
+        int column = tile % COLUMNS;
+        return (width * column + width * (column + footprint)) / COLUMNS / 2;
+    }
+
+    /**
+     * Returns the y-center of a creature standing on a tile.
+     * @param tile The top left tile of the footprint.
+     * @param footprint How many tiles across the creature covers.
+     * @return The y-position in pixels.
+     */
+    public int centerYOf(int tile, int footprint)
+    {
+        int row = tile / COLUMNS;
+        return (height * row + height * (row + footprint)) / ROWS / 2;
+    }
+
+    /**
+     * Returns how many times a field was searched since the FlowField was created.
+     * @return The total amount of searches.
+     */
+    public long getSearchCount()
+    {
+        return searchCount;
+    }
+
+    //Returns the field for a footprint, searching it first if the goal or the obstacles changed since.
+    private int[] field(int footprint)
+    {
+        int index = Math.max(1, Math.min(MAX_FOOTPRINT, footprint)) - 1;
+        if(stale[index])
+        {
+            search(index + 1, passable[index], distances[index]);
+            stale[index] = false;
+        }
+        return distances[index];
+    }
+
+    //Breadth first search outwards from every footprint position covering the goal.
+    private void search(int footprint, boolean[] open, int[] distance)
+    {
+        searchCount++;
+        Arrays.fill(distance, UNREACHABLE);
+        if(goal < 0)
+            return;
+        for(int tile = 0; tile < TILES; tile++)
+            open[tile] = fits(tile, footprint);
+
+        int head = 0, tail = 0;
+        int goalColumn = goal % COLUMNS, goalRow = goal / COLUMNS;
+        for(int row = Math.max(0, goalRow - footprint + 1); row <= goalRow; row++)
+        {
+            for(int column = Math.max(0, goalColumn - footprint + 1); column <= goalColumn; column++)
+            {
+                int tile = row * COLUMNS + column;
+                //The tile of the player itself always counts, even if it is next to or under an obstacle.
+                if(open[tile] || tile == goal)
+                {
+                    distance[tile] = 0;
+                    queue[tail++] = tile;
+                }
+            }
+        }
+        while(head < tail)
+        {
+            int tile = queue[head++];
+            int next = distance[tile] + 1;
+            int column = tile % COLUMNS;
+            int row = tile / COLUMNS;
+            if(row > 0) tail = visit(tile - COLUMNS, next, open, distance, tail);
+            if(row < ROWS - 1) tail = visit(tile + COLUMNS, next, open, distance, tail);
+            if(column > 0) tail = visit(tile - 1, next, open, distance, tail);
+            if(column < COLUMNS - 1) tail = visit(tile + 1, next, open, distance, tail);
+        }
+    }
+
+    private int visit(int tile, int next, boolean[] open, int[] distance, int tail)
+    {
+        if(!open[tile] || distance[tile] != UNREACHABLE)
+            return tail;
+        distance[tile] = next;
+        queue[tail] = tile;
+        return tail + 1;
+    }
+
+    //Whether a footprint with its top left corner on the tile lies on the grid without covering a blocked tile.
+    private boolean fits(int tile, int footprint)
+    {
+        int column = tile % COLUMNS;
+        int row = tile / COLUMNS;
+        if(column + footprint > COLUMNS || row + footprint > ROWS)
+            return false;
+        for(int y = row; y < row + footprint; y++)
+            for(int x = column; x < column + footprint; x++)
+                if(blocked[y * COLUMNS + x])
+                    return false;
+        return true;
+    }
+
+    private int tileOf(int x, int y)
+    {
+        int column = Math.max(0, Math.min(COLUMNS - 1, Math.floorDiv(x * COLUMNS, width)));
+        int row = Math.max(0, Math.min(ROWS - 1, Math.floorDiv(y * ROWS, height)));
+        return row * COLUMNS + column;
+    }
+}
@@ -1,7 +1,9 @@
 package MapDesign;
 
 import Collision.Collideable;
-import GUIDesign.GamePlayComponent;
+import Collision.CollisionLayers;
+import Simulation.GameWorld;
+import GUIDesign.SpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -12,8 +14,8 @@ import java.awt.*;
 public class Obstacle implements Collideable
 {
     /**
-     * The ImageIcon which represents the actual image of the object to be drawn to the GamePlayComponent.
-     * @see GamePlayComponent
+     * The ImageIcon which represents the actual image of the object to be drawn.
+     * @see GameWorld
      */
     protected ImageIcon obstacle;
     /**
@@ -21,10 +23,10 @@ public class Obstacle implements Collideable
      */
     protected int xPos, yPos;
     /**
-     * The GamePlayComponent which this object is linked and drawn to.
+     * The GameWorld which this object belongs to.
      */
-    protected GamePlayComponent parent;
-    private final ImageIcon OBSTACLE_DEFAULT = new ImageIcon(getClass().getClassLoader().getResource("ObstacleDefaultBlock.png"));
+    protected GameWorld parent;
+    private static final ImageIcon OBSTACLE_DEFAULT = SpriteCache.get("ObstacleDefaultBlock.png");
 
 
     /**
@@ -34,9 +36,9 @@ public class Obstacle implements Collideable
      * @param xPos Initial xPosition of the object.
      * @param yPos Initial yPosition of the object.
      */
-    public Obstacle(GamePlayComponent parent, String fileName, int xPos, int yPos)
+    public Obstacle(GameWorld parent, String fileName, int xPos, int yPos)
     {
-        obstacle = new ImageIcon(getClass().getClassLoader().getResource(fileName));
+        obstacle = SpriteCache.get(fileName);
         this.xPos = xPos;
         this.yPos = yPos;
         this.parent = parent;
@@ -48,7 +50,7 @@ public class Obstacle implements Collideable
      * @param xPos Initial xPosition of the object.
      * @param yPos Initial yPosition of the object.
      */
-    public Obstacle(GamePlayComponent parent, int xPos, int yPos)
+    public Obstacle(GameWorld parent, int xPos, int yPos)
     {
         obstacle = OBSTACLE_DEFAULT;
         this.xPos = xPos;
@@ -57,12 +59,12 @@ public class Obstacle implements Collideable
     }
 
     /**
-     * Draws the obstacle to the GamePlayComponent.
+     * Draws the obstacle to the GameWorld.
      * @param g The Graphics component to be drawn to.
      */
     public void drawObstacle(Graphics g)
     {
-        obstacle.paintIcon(parent, g, xPos, yPos);
+        obstacle.paintIcon(null, g, xPos, yPos);
     }
 
     /**
@@ -128,6 +130,16 @@ public class Obstacle implements Collideable
         return true;
     }
 
+    /**
+     * Returns the layer of static obstacles, which stop the player and walking enemies.
+     * @return CollisionLayers.OBSTACLE, unless overridden.
+     */
+    @Override
+    public int getCollisionLayer()
+    {
+        return CollisionLayers.OBSTACLE;
+    }
+
     /**
      * Returns a String representation of the data contained within the Obstacle object.
      * @return A String representation of the data contained within the Obstacle object.
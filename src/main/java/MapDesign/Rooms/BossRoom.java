@@ -1,7 +1,7 @@
 package MapDesign.Rooms;
 
 import CharacterResources.Enemies.GolemBoss;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
 
 import java.awt.*;
 
@@ -14,16 +14,25 @@ public class BossRoom extends Room {
 
     /**
      * Contructs BossRoom object with specified parameters.
-     * @param parentComponent The GamePlayComponent to which the Room is drawn to.
+     * @param parentWorld The GameWorld to which the Room belongs.
      * @param stairID The stairID which this room is associated with.
      */
-    public BossRoom(GamePlayComponent parentComponent, int stairID)
+    public BossRoom(GameWorld parentWorld, int stairID)
     {
-        super(parentComponent,stairID);
-        golemBoss = new GolemBoss(6,6, parentComponent);
+        super(parentWorld,stairID);
+        golemBoss = new GolemBoss(6,6, parentWorld);
         addEnemy(golemBoss);
     }
 
+    /**
+     * Returns whether the boss of this room has been defeated.
+     * @return True if the boss has no health left.
+     */
+    public boolean isBossDefeated()
+    {
+        return golemBoss.getCurrentHP() <= 0;
+    }
+
     /**
      * Draws the Room. Draws win screen once boss is dead.
      * @param g The graphics context that the room is drawn to.
@@ -32,11 +41,11 @@ public class BossRoom extends Room {
     public void drawRoom(Graphics g)
     {
         super.drawRoom(g);
-        if(golemBoss.getCurrentHP() <= 0)
+        if(isBossDefeated())
         {
             g.setColor(Color.GREEN);
             g.setFont(new Font("BOSS!", Font.PLAIN, 50));
-            g.drawString("YOU WIN!", parentComponent.getPreferredSize().width*6/16,parentComponent.getPreferredSize().height*6/12);
+            g.drawString("YOU WIN!", parentWorld.getBounds().getWidth()*6/16,parentWorld.getBounds().getHeight()*6/12);
         }
         else {
             drawBossBar(g);
@@ -45,20 +54,20 @@ public class BossRoom extends Room {
 
     private void drawBossBar(Graphics g)
     {
-        int barX = parentComponent.getPreferredSize().width*5/16;
-        int barY = parentComponent.getPreferredSize().height/32;
-        int barLength = parentComponent.getPreferredSize().width*6/16;
+        int barX = parentWorld.getBounds().getWidth()*5/16;
+        int barY = parentWorld.getBounds().getHeight()/32;
+        int barLength = parentWorld.getBounds().getWidth()*6/16;
         int currentBarLength = (int)((((double)golemBoss.getCurrentHP())/golemBoss.getMaxHP()) * barLength);
 
         g.setColor(Color.RED);
         g.fillRect(barX, barY, currentBarLength,
-                parentComponent.getPreferredSize().height/40);
+                parentWorld.getBounds().getHeight()/40);
         g.setColor(Color.BLACK);
         g.drawRect(barX, barY, currentBarLength,
-                parentComponent.getPreferredSize().height/40);
+                parentWorld.getBounds().getHeight()/40);
 
         g.setColor(Color.GREEN);
-        g.setFont(new Font("BOSS!", Font.PLAIN, parentComponent.getPreferredSize().height/40));
+        g.setFont(new Font("BOSS!", Font.PLAIN, parentWorld.getBounds().getHeight()/40));
         g.drawString("EVIL GOLEM", barX, barY);
     }
 
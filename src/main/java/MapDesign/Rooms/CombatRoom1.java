@@ -3,11 +3,12 @@ package MapDesign.Rooms;
 import CharacterResources.Enemies.EvilRock;
 import CharacterResources.Enemies.SoundBat;
 import CharacterResources.Items.Item;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
 import MapDesign.Chest;
-import MapDesign.Obstacle;
+import MapDesign.TileType;
+
+import java.util.Random;
 
-import java.awt.*;
 
 /**
  * A specialized class for a combat room a player can encounter in their adventure.
@@ -16,59 +17,58 @@ public class CombatRoom1 extends Room {
 
     /**
      * Constructs a CombatRoom1 object with the following parameters.
-     * @param parentComponent The GamePlayComponent the room is to be drawn to.
+     * @param parentWorld The GameWorld the room belongs to.
      * @param stairID The stairID associated with the room.
      * @param inItem An item to be put in a chest within the room. Pass null into this parameter if there is no chest in this room.
      */
-    public CombatRoom1(GamePlayComponent parentComponent, int stairID, Item inItem)
+    public CombatRoom1(GameWorld parentWorld, int stairID, Item inItem)
     {
-        super(parentComponent,stairID);
+        super(parentWorld,stairID);
+        //The bats fly from the seed of the run and the room number.
+        Random rand = parentWorld.createRoomRandom(stairID);
 
         //Add enemies for combat room.
-        addEnemy(new SoundBat(parentComponent.getPreferredSize().width/8,
-                parentComponent.getPreferredSize().height/6, parentComponent));
-        addEnemy(new SoundBat(parentComponent.getPreferredSize().width*12/16,
-                parentComponent.getPreferredSize().height*9/12, parentComponent));
-        addEnemy(new EvilRock(parentComponent.getPreferredSize().width*5/8,
-                parentComponent.getPreferredSize().height/3, parentComponent));
-        addEnemy(new EvilRock(parentComponent.getPreferredSize().width*5/16,
-                parentComponent.getPreferredSize().height*2/3,parentComponent));
+        addEnemy(new SoundBat(parentWorld.getBounds().getWidth()/8,
+                parentWorld.getBounds().getHeight()/6, parentWorld, rand));
+        addEnemy(new SoundBat(parentWorld.getBounds().getWidth()*12/16,
+                parentWorld.getBounds().getHeight()*9/12, parentWorld, rand));
+        addEnemy(new EvilRock(parentWorld.getBounds().getWidth()*5/8,
+                parentWorld.getBounds().getHeight()/3, parentWorld));
+        addEnemy(new EvilRock(parentWorld.getBounds().getWidth()*5/16,
+                parentWorld.getBounds().getHeight()*2/3,parentWorld));
 
         //Add obstacles to room
             //X row
 
         for(int x = 3; x < 14; x++)
         {
-            addObstacle(new Obstacle(parentComponent,parentComponent.getPreferredSize().width*x/16,
-                    parentComponent.getPreferredSize().height/4));
+            addSimpleObstacle(x, 3);
         }
 
         for(int y = 3; y < 11; y++)
         {
-            addObstacle(new Obstacle(parentComponent,parentComponent.getPreferredSize().width*3/16,
-                    parentComponent.getPreferredSize().height*y/12));
+            addSimpleObstacle(3, y);
         }
 
         if(inItem != null)
             //REMEMBER TO DO ITEM WORK
-            addObstacle(new Chest(parentComponent,parentComponent.getPreferredSize().width*11/16,
-                    parentComponent.getPreferredSize().height*6/12, inItem));
+            addObstacle(new Chest(parentWorld,parentWorld.getBounds().getWidth()*11/16,
+                    parentWorld.getBounds().getHeight()*6/12, inItem));
         else
-            addObstacle(new Obstacle(parentComponent,"MineCart.png",parentComponent.getPreferredSize().width*11/16,
-                parentComponent.getPreferredSize().height*6/12));
+            addTile(11, 6, TileType.MINE_CART);
         //System.out.println("Post-Construction Collideables " + getCollideables());
 
     }
 
     /**
-     * Draws the room to the associated Graphics context. First calls super version, then checks if the room has any enemies.
+     * Updates the room, then checks if the room has any enemies.
      * If all enemies are dead, then by extension the room has no enemies, and the stairs are activated.
-     * @param g The graphics context that the room is drawn to.
+     * @param nullPoint Should be null, doesn't do anything.
      */
     @Override
-    public void drawRoom(Graphics g) {
-        super.drawRoom(g);
-        if(getEnemies().isEmpty())
+    public void update(Object nullPoint) {
+        super.update(nullPoint);
+        if(getEnemies().isEmpty() && !isStairsActive())
             activateStairs();
     }
 }
@@ -2,11 +2,10 @@ package MapDesign.Rooms;
 import CharacterResources.Enemies.EvilRock;
 import CharacterResources.Enemies.SoundBat;
 import CharacterResources.Items.Item;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
 import MapDesign.Chest;
-import MapDesign.Obstacle;
+import MapDesign.TileType;
 
-import java.awt.*;
 import java.util.Random;
 
 /**
@@ -16,27 +15,29 @@ public class CombatRoom3 extends Room {
 
     /**
      * Constructs a CombatRoom2 object with the following parameters.
-     * @param parentComponent The GamePlayComponent the room is to be drawn to.
+     * @param parentWorld The GameWorld the room belongs to.
      * @param stairID The stairID associated with the room.
      * @param inItem An item to be put in a chest within the room. Pass null into this parameter if there is no chest in this room.
      */
-    public CombatRoom3(GamePlayComponent parentComponent, int stairID, Item inItem)
+    public CombatRoom3(GameWorld parentWorld, int stairID, Item inItem)
     {
-        super(parentComponent, stairID);
+        super(parentWorld, stairID);
+        //Every random choice of the room, bat flights first, comes from the seed of the run and the room number.
+        Random rand = parentWorld.createRoomRandom(stairID);
 
         //Enemies (Once elites are in the game, these should be elite)
 
             //Bats
-            addEnemy(new SoundBat(parentComponent.getPreferredSize().width*6/16,
-                    parentComponent.getPreferredSize().height*2/12, parentComponent));
-            addEnemy(new SoundBat(parentComponent.getPreferredSize().width*6/16,
-                    parentComponent.getPreferredSize().height*9/16, parentComponent));
+            addEnemy(new SoundBat(parentWorld.getBounds().getWidth()*6/16,
+                    parentWorld.getBounds().getHeight()*2/12, parentWorld, rand));
+            addEnemy(new SoundBat(parentWorld.getBounds().getWidth()*6/16,
+                    parentWorld.getBounds().getHeight()*9/16, parentWorld, rand));
 
             //Rocks
-            addEnemy(new EvilRock(parentComponent.getPreferredSize().width*5/16,
-                    parentComponent.getPreferredSize().height*5/12, parentComponent));
-            addEnemy(new EvilRock(parentComponent.getPreferredSize().width*9/16,
-                    parentComponent.getPreferredSize().height*9/12,parentComponent));
+            addEnemy(new EvilRock(parentWorld.getBounds().getWidth()*5/16,
+                    parentWorld.getBounds().getHeight()*5/12, parentWorld));
+            addEnemy(new EvilRock(parentWorld.getBounds().getWidth()*9/16,
+                    parentWorld.getBounds().getHeight()*9/12,parentWorld));
 
         //Obstacles
 
@@ -59,7 +60,6 @@ public class CombatRoom3 extends Room {
             addSimpleObstacle(10,8);
 
         //Chest TIME!
-        Random rand = new Random();
         int[] chestPos;
         int[] minecartPos;
         if(rand.nextInt(2) == 0) {
@@ -72,31 +72,28 @@ public class CombatRoom3 extends Room {
         }
         if(inItem != null)
         {
-            addObstacle(new Chest(parentComponent, parentComponent.getPreferredSize().width * chestPos[0] / 16,
-                    parentComponent.getPreferredSize().height * chestPos[1] / 12, inItem));
-            addObstacle(new Obstacle(parentComponent, "MineCart.png", parentComponent.getPreferredSize().width * minecartPos[0] / 16,
-                    parentComponent.getPreferredSize().height * minecartPos[1] / 12));
+            addObstacle(new Chest(parentWorld, parentWorld.getBounds().getWidth() * chestPos[0] / 16,
+                    parentWorld.getBounds().getHeight() * chestPos[1] / 12, inItem));
+            addTile(minecartPos[0], minecartPos[1], TileType.MINE_CART);
         }
         //Deals with rendering Mine-carts, should skip the chest space.
 
         else {
-            addObstacle(new Obstacle(parentComponent, "MineCart.png", parentComponent.getPreferredSize().width * chestPos[0] / 16,
-                    parentComponent.getPreferredSize().height * chestPos[1] / 12));
-            addObstacle(new Obstacle(parentComponent, "MineCart.png", parentComponent.getPreferredSize().width * minecartPos[0] / 16,
-                    parentComponent.getPreferredSize().height * minecartPos[1] / 12));
+            addTile(chestPos[0], chestPos[1], TileType.MINE_CART);
+            addTile(minecartPos[0], minecartPos[1], TileType.MINE_CART);
 
         }
     }
 
     /**
-     * Draws the room to the associated Graphics context. First calls super version, then checks if the room has any enemies.
+     * Updates the room, then checks if the room has any enemies.
      * If all enemies are dead, then by extension the room has no enemies, and the stairs are activated.
-     * @param g The graphics context that the room is drawn to.
+     * @param nullPoint Should be null, doesn't do anything.
      */
     @Override
-    public void drawRoom(Graphics g) {
-        super.drawRoom(g);
-        if(getEnemies().isEmpty())
+    public void update(Object nullPoint) {
+        super.update(nullPoint);
+        if(getEnemies().isEmpty() && !isStairsActive())
             activateStairs();
     }
 
@@ -1,14 +1,26 @@
 package MapDesign.Rooms;
 import java.awt.*;
-import java.util.HashSet;
-import java.util.Stack;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 import CharacterResources.Enemies.Enemy;
 import Collision.*;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
+import Simulation.Log;
+import Simulation.Events.GameEvents;
+import Simulation.Events.ProjectileSpawnEvent;
+import Simulation.WorldBounds;
 import GUIDesign.Updateable;
+import GUIDesign.SpriteCache;
+import MapDesign.Chest;
+import MapDesign.DungeonGraph;
+import MapDesign.FlowField;
 import MapDesign.Obstacle;
 import MapDesign.Stairs;
+import MapDesign.TileMap;
+import MapDesign.TileType;
 
 //This should stay abstract, for testing purposes, undoing this
 /**
@@ -18,23 +30,41 @@ import MapDesign.Stairs;
 public class Room implements Updateable
 {
     //General data
-    private final Stack<Enemy> ENEMIES_TO_BE_DELETED = new Stack<Enemy>();
-    private final Stack<Projectile> PROJECTILE_TO_BE_DELETED = new Stack<Projectile>();
+    //Entities are kept in EntityStores, so their order, and with it every collision outcome, only depends on the input.
     /**
-     * HashSet containing all obstacles to drawn in the Room.
+     * Store containing all obstacles to drawn in the Room which are objects, like chests.
+     * Static blocks are tiles of the TileMap instead.
      */
-    protected final HashSet<Obstacle> obstacles = new HashSet<Obstacle>();
+    protected final EntityStore<Obstacle> obstacles = new EntityStore<Obstacle>(32);
     /**
-     * HashSet responsible for storing all enemies in a room.
+     * Store responsible for storing all enemies in a room.
+     * It is walked by index every tick without allocating an iterator.
      */
-    protected final HashSet<Enemy> enemies  = new HashSet<Enemy>();
+    protected final EntityStore<Enemy> enemies = new EntityStore<Enemy>(8);
     /**
-     * GamePlayComponent to draw the room to.
+     * GameWorld to draw the room to.
      */
-    protected GamePlayComponent parentComponent;
+    protected GameWorld parentWorld;
     private Stairs[] stairs;
-    private final HashSet<Collideable> COLLIDEABLES = new HashSet<Collideable>();
-    private final HashSet<Projectile> PROJECTILES = new HashSet<Projectile>();
+    private final EntityStore<Collideable> COLLIDEABLES = new EntityStore<Collideable>(48);
+    private final EntityStore<Projectile> PROJECTILES = new EntityStore<Projectile>(16);
+    //Holds the same Collideables as COLLIDEABLES, bucketed by position for collision checks.
+    private final SpatialGrid SPATIAL_GRID;
+    //Area of effect queries over SPATIAL_GRID, for spells and explosions.
+    private final AreaQuery AREA_QUERY;
+    //Distances to the player around the obstacles, shared by every enemy.
+    private final FlowField FLOW_FIELD;
+    //Static blocks and mine carts, one byte per tile. Attached to SPATIAL_GRID for movement checks.
+    private final TileMap TILE_MAP;
+    //Every enemy and chest the room was built with, in the order they were added. Their indices identify them in snapshots.
+    private final ArrayList<Enemy> SPAWNED_ENEMIES = new ArrayList<Enemy>();
+    //The handle in enemies of every spawned enemy, by the same index.
+    private int[] spawnedEnemyHandles = new int[8];
+    private final ArrayList<Chest> CHESTS = new ArrayList<Chest>();
+
+    //Snapshot layout: stairs flag, chest count, an opened flag per chest, enemy count, then per enemy an alive flag, x, y and hp.
+    private static final int SNAPSHOT_HEADER = 1 + 1 + 2;
+    private static final int ENEMY_RECORD = 1 + 2 + 2 + 2;
 
     //Stairs Timer (Might need to be fixed)
     private static final int STAIRS_WAIT_TIME = 10; // in repaints
@@ -52,19 +82,37 @@ public class Room implements Updateable
      */
     protected boolean roomActive;
 
+    /**
+     * How far between the previous and current tick moving entities are drawn, set on every drawRoom(Graphics, double) call.
+     * @see #drawRoom(Graphics, double)
+     */
+    protected double renderAlpha = 1.0;
+
+    //The floor, obstacles and stairs baked into one image, redrawn only after invalidateBackground() is called.
+    private static final String FLOOR_IMAGE = "floor.png";
+    private BufferedImage background;
+    private boolean backgroundValid;
+
     /**
      * The basic constructor for a Room object.
-     * @param parentComponent The GamePlayComponent object which the room is being drawn to.
+     * @param parentWorld The GameWorld object which the room belongs to.
      * @param stairID The respective ID of the room, this is used to generate the stairs that need to be drawn and point to other rooms.
      */
-    public Room(GamePlayComponent parentComponent, int stairID)
+    public Room(GameWorld parentWorld, int stairID)
     {
-        this.parentComponent = parentComponent;
+        this.parentWorld = parentWorld;
         stairsActive = false;
         roomActive = false;
         stairs = new Stairs[4];
-        //Adds player to collideables
-        COLLIDEABLES.add(parentComponent.getPlayer());
+        SPATIAL_GRID = new SpatialGrid(parentWorld.getBounds().getWidth(), parentWorld.getBounds().getHeight(),
+                WorldBounds.GRID_COLUMNS, WorldBounds.GRID_ROWS);
+        FLOW_FIELD = new FlowField(parentWorld.getBounds());
+        TILE_MAP = new TileMap(parentWorld.getBounds());
+        SPATIAL_GRID.setTileMap(TILE_MAP);
+        AREA_QUERY = new AreaQuery(SPATIAL_GRID);
+        //Adds player to collideables, it is only put in the grid once the room is entered, as rooms can be built
+        //off the simulation thread while the player moves.
+        COLLIDEABLES.add(parentWorld.getPlayer());
 
         //Initializes stairs
         stairsCounter = 0;
@@ -74,12 +122,22 @@ public class Room implements Updateable
     /**
      * Returns the enemies within this room.
      * This does not include traps.
-     * @return A HashSet of type Enemy which includes all enemies within the room
+     * The returned store should not be modified, enemies are removed by the room once they die.
+     * @return A store of type Enemy which includes all enemies within the room
      */
-    public HashSet<Enemy> getEnemies() {
+    public EntityStore<Enemy> getEnemies() {
         return enemies;
     }
 
+    /**
+     * Returns the projectiles currently flying through this room.
+     * The returned store should not be modified, use addProjectile and removeProjectile instead.
+     * @return A store of every Projectile within the room.
+     */
+    public EntityStore<Projectile> getProjectiles() {
+        return PROJECTILES;
+    }
+
     /**
      * Adds an enemy to the Room
      * @param enemy The Enemy object to be added to the Room.
@@ -87,8 +145,12 @@ public class Room implements Updateable
     public void addEnemy(Enemy enemy)
     {
         COLLIDEABLES.add(enemy);
-        enemies.add(enemy);
-        System.out.println("Enemy Added: new Collideables: \n" + getCollideables() + "\n\n");
+        SPATIAL_GRID.insert(enemy);
+        if(SPAWNED_ENEMIES.size() == spawnedEnemyHandles.length)
+            spawnedEnemyHandles = Arrays.copyOf(spawnedEnemyHandles, spawnedEnemyHandles.length * 2);
+        spawnedEnemyHandles[SPAWNED_ENEMIES.size()] = enemies.add(enemy);
+        SPAWNED_ENEMIES.add(enemy);
+        Log.debug("Enemy Added, collideables in room: {}", COLLIDEABLES.size());
     }
 
     /**
@@ -98,7 +160,15 @@ public class Room implements Updateable
     public void addProjectile(Projectile projectile)
     {
         COLLIDEABLES.add(projectile);
+        SPATIAL_GRID.insert(projectile);
         PROJECTILES.add(projectile);
+        if(GameEvents.ENABLED)
+        {
+            ProjectileSpawnEvent event = new ProjectileSpawnEvent();
+            event.projectileType = projectile.getClass();
+            event.projectiles = PROJECTILES.size();
+            event.commit();
+        }
     }
 
     /**
@@ -109,29 +179,64 @@ public class Room implements Updateable
     {
         obstacles.add(obstacle);
         COLLIDEABLES.add(obstacle);
+        SPATIAL_GRID.insert(obstacle);
+        FLOW_FIELD.addObstacle(obstacle);
+        if(obstacle instanceof Chest)
+            CHESTS.add((Chest) obstacle);
+        invalidateBackground();
     }
 
     /**
-     * Adds Projectile object to Stack to be removed on update() call.
+     * Marks a Projectile to be removed at the end of the current update() call.
      * @param projectile The Projectile to be removed.
      */
     public void removeProjectile(Projectile projectile)
     {
-        PROJECTILE_TO_BE_DELETED.push(projectile);
+        PROJECTILES.removeLater(projectile);
     }
 
     /**
-     * Adds a default Obstacle to the room at specified position
+     * Adds a default block to the room at specified position
      * @param gridX The x grid location from 0 to 15 to draw properly on the map.
      * @param gridY The y grid location from 0 to 11 to draw properly on the map.
      */
     public void addSimpleObstacle(int gridX, int gridY)
     {
-        //Remember to throw error here if not used right.
-        Obstacle temp = new Obstacle(parentComponent, parentComponent.getPreferredSize().width*gridX/16,
-                parentComponent.getPreferredSize().height*gridY/12);
-        obstacles.add(temp);
-        COLLIDEABLES.add(temp);
+        addTile(gridX, gridY, TileType.BLOCK);
+    }
+
+    /**
+     * Places a static tile in the room, such as a block or a mine cart.
+     * Positions outside the grid are ignored, nothing could reach them.
+     * @param gridX The x grid location from 0 to 15.
+     * @param gridY The y grid location from 0 to 11.
+     * @param type The type of tile.
+     */
+    public void addTile(int gridX, int gridY, TileType type)
+    {
+        if(!TILE_MAP.set(gridX, gridY, type))
+            return;
+        if(type.isBlocking())
+            FLOW_FIELD.blockTile(gridX, gridY);
+        invalidateBackground();
+    }
+
+    /**
+     * Returns the static tiles of the room.
+     * @return The TileMap of the room.
+     */
+    public TileMap getTileMap()
+    {
+        return TILE_MAP;
+    }
+
+    /**
+     * Returns the FlowField enemies of the room follow towards the player.
+     * @return The FlowField of the room.
+     */
+    public FlowField getFlowField()
+    {
+        return FLOW_FIELD;
     }
 
     /**
@@ -152,111 +257,168 @@ public class Room implements Updateable
         roomActive = false;
     }
 
+    /**
+     * Draws the room with moving entities interpolated between their previous and current tick positions.
+     * Subclasses should override drawRoom(Graphics) instead of this method.
+     * @param g The graphics context that the room is drawn to.
+     * @param alpha How far between the previous (0) and current (1) tick to interpolate.
+     */
+    public final void drawRoom(Graphics g, double alpha)
+    {
+        renderAlpha = alpha;
+        drawRoom(g);
+    }
+
     //This will be overridden, but should have a call to super.
 
     /**
      * Draws the room and all relevant objects within it.
+     * The floor, obstacles and stairs are drawn from a cached background image, then the moving entities on top of it.
      * Subsequent subclasses will likely override this, and should include a call to super.
      * @param g The graphics context that the room is drawn to.
+     * @see #invalidateBackground()
      */
     public void drawRoom(Graphics g)
     {
+        if(!backgroundValid || background == null)
+            renderBackground(g);
+        g.drawImage(background, 0, 0, null);
+
+        for(int i = 0; i < enemies.size(); i++) {
+            enemies.get(i).drawInterpolated(g, renderAlpha);
+        }
+
+        for(int i = 0; i < PROJECTILES.size(); i++) {
+            PROJECTILES.get(i).drawInterpolated(g, renderAlpha);
+        }
+    }
+
+    /**
+     * Marks the cached background as outdated, so it is redrawn on the next frame.
+     * Must be called whenever something drawn in the background changes, like an obstacle being added or a chest opening.
+     */
+    public void invalidateBackground()
+    {
+        backgroundValid = false;
+    }
+
+    //Bakes the floor, obstacles and active stairs into the background image, in a format compatible with the screen.
+    private void renderBackground(Graphics g)
+    {
+        int width = parentWorld.getBounds().getWidth();
+        int height = parentWorld.getBounds().getHeight();
+        if(background == null || background.getWidth() != width || background.getHeight() != height)
+        {
+            if(g instanceof Graphics2D)
+                background = ((Graphics2D) g).getDeviceConfiguration().createCompatibleImage(width, height);
+            else
+                background = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+
+        Graphics bg = background.createGraphics();
+        SpriteCache.get(FLOOR_IMAGE).paintIcon(null, bg, 0, 0);
         if(stairsActive)
         {
             for (Stairs stair : stairs) {
                 if (stair != null) {
-                    stair.drawStairs(g);
+                    stair.drawStairs(bg);
                 }
             }
         }
-        for(Enemy e : enemies) {
-            e.draw(g);
-        }
-
-        for(Obstacle o : obstacles) {
-            o.drawObstacle(g);
+        TILE_MAP.draw(bg);
+        for(int i = 0; i < obstacles.size(); i++) {
+            obstacles.get(i).drawObstacle(bg);
         }
+        bg.dispose();
+        backgroundValid = true;
+    }
 
-        for(Projectile p : PROJECTILES) {
-            p.drawObstacle(g);
-        }
+    /**
+     * Returns the stairs of this room. Directions without stairs hold null.
+     * The returned array should not be modified.
+     * @return An array of Stairs in the order north, south, west, east.
+     */
+    public Stairs[] getStairs()
+    {
+        return stairs;
     }
 
     /**
-     * Returns array of hashsets. This array will only be filled with hashsets that have generic types which extend Collision.Collideable.
-     * @return Returns array of hashsets. This array will only be filled with hashsets that have generic types which extend Collision.Collideable.
+     * Returns every Collideable in the room: the player, enemies, obstacles and projectiles.
+     * The returned store should not be modified.
+     * @return The store of every Collideable in the room, in a deterministic order.
      */
-    public HashSet<Collideable> getCollideables()
+    public EntityStore<Collideable> getCollideables()
     {
         return COLLIDEABLES;
     }
 
-    //Method with giant switch case for deciding what stairs to spawn
+    /**
+     * Returns the SpatialGrid holding every Collideable in the room, used for collision checks near a position.
+     * @return The SpatialGrid of the room.
+     */
+    public SpatialGrid getSpatialGrid()
+    {
+        return SPATIAL_GRID;
+    }
+
+    /**
+     * Finds the Collideables in the room on some layers whose collision box touches a circle, such as an explosion.
+     * @param centerX The x-center of the circle.
+     * @param centerY The y-center of the circle.
+     * @param radius The radius of the circle.
+     * @param layerMask The layers to return, usually the contact mask of the caster.
+     * @return The Collideables caught. The list is reused by the next area query on the room, so it should not be kept.
+     * @see AreaQuery#circle(int, int, int, int)
+     */
+    public ArrayList<Collideable> queryCircle(int centerX, int centerY, int radius, int layerMask)
+    {
+        return AREA_QUERY.circle(centerX, centerY, radius, layerMask);
+    }
+
+    /**
+     * Finds the Collideables in the room on some layers whose collision box touches a cone, such as a breath attack.
+     * @param apexX The x-coordinate of the tip of the cone.
+     * @param apexY The y-coordinate of the tip of the cone.
+     * @param directionX The x-component of the direction the cone points in.
+     * @param directionY The y-component of the direction the cone points in.
+     * @param halfAngle The angle in radians between the direction and either side of the cone.
+     * @param range How far the cone reaches from its tip.
+     * @param layerMask The layers to return.
+     * @return The Collideables caught. The list is reused by the next area query on the room, so it should not be kept.
+     * @see AreaQuery#cone(int, int, double, double, double, int, int)
+     */
+    public ArrayList<Collideable> queryCone(int apexX, int apexY, double directionX, double directionY, double halfAngle, int range, int layerMask)
+    {
+        return AREA_QUERY.cone(apexX, apexY, directionX, directionY, halfAngle, range, layerMask);
+    }
+
+    /**
+     * Finds the Collideables in the room on some layers whose collision box touches a capsule around a line, such as a beam.
+     * @param startX The x-coordinate of the start of the line.
+     * @param startY The y-coordinate of the start of the line.
+     * @param endX The x-coordinate of the end of the line.
+     * @param endY The y-coordinate of the end of the line.
+     * @param radius How far from the line the capsule reaches.
+     * @param layerMask The layers to return.
+     * @return The Collideables caught. The list is reused by the next area query on the room, so it should not be kept.
+     * @see AreaQuery#capsule(int, int, int, int, int, int)
+     */
+    public ArrayList<Collideable> queryCapsule(int startX, int startY, int endX, int endY, int radius, int layerMask)
+    {
+        return AREA_QUERY.capsule(startX, startY, endX, endY, radius, layerMask);
+    }
+
+    //Creates stairs towards every room next to this one in the dungeon of the current run.
     private void initStairs(int roomNum)
     {
-        switch(roomNum)
+        DungeonGraph dungeon = parentWorld.getDungeon();
+        Stairs.Direction[] directions = Stairs.Direction.values();
+        for(int dir = 0; dir < stairs.length; dir++)
         {
-            //Center Rooms
-            case(24):
-                stairs = new Stairs[]{new Stairs(parentComponent, Stairs.Direction.NORTH,27), new Stairs(parentComponent, Stairs.Direction.SOUTH,31),
-                        new Stairs(parentComponent, Stairs.Direction.WEST,29), new Stairs(parentComponent, Stairs.Direction.EAST,25)};
-                break;
-            case(25):
-                stairs = new Stairs[]{new Stairs(parentComponent, Stairs.Direction.NORTH,26), new Stairs(parentComponent, Stairs.Direction.SOUTH,32),
-                        new Stairs(parentComponent, Stairs.Direction.WEST,24), new Stairs(parentComponent, Stairs.Direction.EAST,33)};
-                break;
-            case(27):
-                stairs = new Stairs[]{new Stairs(parentComponent, Stairs.Direction.NORTH,34), new Stairs(parentComponent, Stairs.Direction.SOUTH,24),
-                        new Stairs(parentComponent, Stairs.Direction.WEST,28), new Stairs(parentComponent, Stairs.Direction.EAST,26)};
-                break;
-            case(29):
-                stairs = new Stairs[]{new Stairs(parentComponent, Stairs.Direction.NORTH,28), new Stairs(parentComponent, Stairs.Direction.SOUTH,30),
-                        new Stairs(parentComponent, Stairs.Direction.WEST,35), new Stairs(parentComponent, Stairs.Direction.EAST,24)};
-                break;
-
-            //Corner rooms
-            case(26):
-                stairs = new Stairs[]{null, new Stairs(parentComponent, Stairs.Direction.SOUTH,25),
-                        new Stairs(parentComponent, Stairs.Direction.WEST,27),null};
-                break;
-            case(28):
-                stairs = new Stairs[]{null, new Stairs(parentComponent, Stairs.Direction.SOUTH,29),
-                        null,new Stairs(parentComponent, Stairs.Direction.EAST,27)};
-                break;
-            case(30):
-                stairs = new Stairs[]{new Stairs(parentComponent, Stairs.Direction.NORTH,29),null,
-                        null, new Stairs(parentComponent, Stairs.Direction.EAST,31)};
-                break;
-            case(32):
-                stairs = new Stairs[]{new Stairs(parentComponent, Stairs.Direction.NORTH,25), null,
-                        new Stairs(parentComponent, Stairs.Direction.WEST,31), null};
-                break;
-
-            //Other
-            case(31):
-                stairs = new Stairs[]{new Stairs(parentComponent, Stairs.Direction.NORTH,24), null,
-                        new Stairs(parentComponent, Stairs.Direction.WEST,30), new Stairs(parentComponent, Stairs.Direction.EAST,32)};
-                break;
-
-            //Exit pointing rooms
-            case(33):
-                stairs = new Stairs[]{new Stairs(parentComponent, Stairs.Direction.NORTH,36), new Stairs(parentComponent, Stairs.Direction.SOUTH,36),
-                        new Stairs(parentComponent, Stairs.Direction.WEST,25), null };
-                break;
-            case(35):
-                stairs = new Stairs[]{new Stairs(parentComponent, Stairs.Direction.NORTH,36), new Stairs(parentComponent, Stairs.Direction.SOUTH,36),
-                        null, new Stairs(parentComponent, Stairs.Direction.EAST,29)};
-                break;
-            case(34):
-                stairs = new Stairs[]{null, new Stairs(parentComponent, Stairs.Direction.SOUTH,27),
-                        new Stairs(parentComponent, Stairs.Direction.WEST,36), new Stairs(parentComponent, Stairs.Direction.EAST,36)};
-                break;
-
-            //Final Room (Boss)
-            case(36):
-                stairs = new Stairs[] {null,null,null,null};
-                break;
-
+            int nextRoom = dungeon.getNeighbour(roomNum, dir);
+            if(nextRoom != DungeonGraph.NONE)
+                stairs[dir] = new Stairs(parentWorld, directions[dir], nextRoom);
         }
     }
 
@@ -268,6 +430,84 @@ public class Room implements Updateable
     {
         stairsActive = true;
         stairsCounter = STAIRS_WAIT_TIME;
+        invalidateBackground();
+    }
+
+    /**
+     * Captures the state a player can change in this room: which enemies are alive with their position and health,
+     * which chests were opened and whether the stairs are active.
+     * Everything else is the same every time the room is built from the seed of the run, so a room rebuilt by GameWorld
+     * and given this snapshot through restoreSnapshot() is the room the player left.
+     * Timers, like enemy I-frames or attack cooldowns, and projectiles in flight are not kept.
+     * @return The snapshot, a few bytes per enemy.
+     * @see #restoreSnapshot(byte[])
+     */
+    public byte[] snapshot()
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_HEADER + CHESTS.size() + SPAWNED_ENEMIES.size() * ENEMY_RECORD);
+        buffer.put((byte)(stairsActive ? 1 : 0));
+        buffer.put((byte) CHESTS.size());
+        for(int i = 0; i < CHESTS.size(); i++)
+            buffer.put((byte)(CHESTS.get(i).peekChest() == null ? 1 : 0));
+        buffer.putShort((short) SPAWNED_ENEMIES.size());
+        for(int i = 0; i < SPAWNED_ENEMIES.size(); i++)
+        {
+            Enemy e = SPAWNED_ENEMIES.get(i);
+            boolean alive = enemies.contains(spawnedEnemyHandles[i]);
+            buffer.put((byte)(alive ? 1 : 0));
+            buffer.putShort((short)(alive ? e.getX() : 0));
+            buffer.putShort((short)(alive ? e.getY() : 0));
+            buffer.putShort((short)(alive ? e.getCurrentHP() : 0));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Applies a snapshot taken of an earlier build of this room to this freshly built one.
+     * Removes the enemies which were killed, moves and damages the others, opens the chests which were opened and activates the stairs.
+     * Opened chests no longer hold their item, so the item is not handed out twice.
+     * @param snapshot The snapshot returned by snapshot() on a build of the same room in the same run.
+     * @see #snapshot()
+     */
+    public void restoreSnapshot(byte[] snapshot)
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+        boolean snapshotStairsActive = buffer.get() != 0;
+        int chestCount = buffer.get();
+        if(chestCount != CHESTS.size())
+            throw new IllegalArgumentException("Snapshot has " + chestCount + " chests, the room has " + CHESTS.size());
+        for(int i = 0; i < chestCount; i++)
+        {
+            if(buffer.get() != 0 && CHESTS.get(i).peekChest() != null)
+            {
+                CHESTS.get(i).openChest();
+                invalidateBackground();
+            }
+        }
+
+        int enemyCount = buffer.getShort();
+        if(enemyCount != SPAWNED_ENEMIES.size())
+            throw new IllegalArgumentException("Snapshot has " + enemyCount + " enemies, the room has " + SPAWNED_ENEMIES.size());
+        for(int i = 0; i < enemyCount; i++)
+        {
+            Enemy e = SPAWNED_ENEMIES.get(i);
+            boolean alive = buffer.get() != 0;
+            int x = buffer.getShort(), y = buffer.getShort(), hp = buffer.getShort();
+            if(!alive)
+            {
+                COLLIDEABLES.remove(e);
+                SPATIAL_GRID.remove(e);
+                enemies.remove(spawnedEnemyHandles[i]);
+                continue;
+            }
+            e.setPos(x, y);
+            e.setCurrentHP(hp);
+            e.savePreviousPosition();
+            SPATIAL_GRID.update(e);
+        }
+
+        if(snapshotStairsActive && !stairsActive)
+            activateStairs();
     }
 
     /**
@@ -299,36 +539,51 @@ public class Room implements Updateable
 
 
     /**
-     * Updates the state of the room. This method is tied to a swing Timer object, and handles behavioral updates of objects and entities.
+     * Updates the state of the room. This method is called once per tick by the simulation thread, and handles behavioral updates of objects and entities.
      * @param nullPoint Should be null, doesn't do anything.
-     * @see javax.swing.Timer
+     * @see Simulation.SimulationLoop
      */
     @Override
     public void update(Object nullPoint)
     {
+        //Also catches anything moved by setPos since the last tick, such as knockback or the player taking stairs.
+        //Stores are walked by index so a tick does not allocate iterators.
+        SPATIAL_GRID.update(parentWorld.getPlayer());
+        for(int i = 0; i < enemies.size(); i++) {
+            Enemy e = enemies.get(i);
+            e.savePreviousPosition();
+            SPATIAL_GRID.update(e);
+        }
+        for(int i = 0; i < PROJECTILES.size(); i++)
+            PROJECTILES.get(i).savePreviousPosition();
+
         if(stairsActive)
         {
             for (Stairs stair : stairs) {
                 if (stair != null) {
-                    parentComponent.traverseStairs(stair);
+                    parentWorld.traverseStairs(stair);
                 }
             }
         }
 
         if(roomActive)
         {
-            //Move enemies via pathfinding.
-            for(Enemy e : enemies)
+            //Move enemies via pathfinding. The flow field is only searched again once the player reaches another tile.
+            FLOW_FIELD.setGoal(parentWorld.getPlayer().getImageCenterX(), parentWorld.getPlayer().getImageCenterY());
+            for(int i = 0; i < enemies.size(); i++)
             {
-                e.pathFinding(parentComponent.getPlayer().getImageCenterX(),
-                        parentComponent.getPlayer().getImageCenterY(), COLLIDEABLES);
+                Enemy e = enemies.get(i);
+                e.updateIFrames();
+                e.pathFinding(parentWorld.getPlayer().getImageCenterX(),
+                        parentWorld.getPlayer().getImageCenterY(), SPATIAL_GRID, FLOW_FIELD);
                 if(e.getCurrentHP() <= 0)
-                    ENEMIES_TO_BE_DELETED.push(e);
+                    enemies.removeLater(e);
             }
 
             //Moves projectiles.
-            for(Projectile p: PROJECTILES) {
-                p.move(COLLIDEABLES);
+            for(int i = 0; i < PROJECTILES.size(); i++) {
+                Projectile p = PROJECTILES.get(i);
+                p.move(SPATIAL_GRID);
 
                 //Default projectile update behavior.
                 if(p instanceof Updateable)
@@ -336,18 +591,30 @@ public class Room implements Updateable
             }
         }
 
-        //Deletes dead enemies via processing them off of a stack.
-        while(!ENEMIES_TO_BE_DELETED.isEmpty()) {
-            COLLIDEABLES.remove(ENEMIES_TO_BE_DELETED.peek());
-            enemies.remove(ENEMIES_TO_BE_DELETED.pop());
+        removePendingEntities();
+    }
+
+    /**
+     * Deletes the enemies and projectiles marked for removal, at the end of update() or once the contacts of a tick are resolved.
+     * Must not be called while the enemies or projectiles are being walked.
+     * @see #removeProjectile(Projectile)
+     */
+    public void removePendingEntities()
+    {
+        //Deletes dead enemies, now that nothing is walking the store.
+        for(int i = 0; i < enemies.getPendingCount(); i++) {
+            COLLIDEABLES.remove(enemies.getPending(i));
+            SPATIAL_GRID.remove(enemies.getPending(i));
         }
+        enemies.removePending();
 
-        //Deletes Projectiles pushed onto the stack.
-        while (!PROJECTILE_TO_BE_DELETED.isEmpty())
+        //Deletes Projectiles marked by removeProjectile.
+        for(int i = 0; i < PROJECTILES.getPendingCount(); i++)
         {
-            COLLIDEABLES.remove(PROJECTILE_TO_BE_DELETED.peek());
-            PROJECTILES.remove(PROJECTILE_TO_BE_DELETED.pop());
+            COLLIDEABLES.remove(PROJECTILES.getPending(i));
+            SPATIAL_GRID.remove(PROJECTILES.getPending(i));
         }
+        PROJECTILES.removePending();
     }
 
 }
@@ -1,7 +1,8 @@
 package MapDesign;
 
 import Collision.Collideable;
-import GUIDesign.GamePlayComponent;
+import Simulation.GameWorld;
+import GUIDesign.SpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -16,24 +17,24 @@ public class Stairs implements Collideable {
      * Unfortunately, very underutilized in the grand scheme of things.
      */
     public enum Direction  {NORTH,SOUTH,WEST,EAST}
-    private final ImageIcon NORTHSTAIRS = new ImageIcon(getClass().getClassLoader().getResource("StairsNorth.png"));
-    private final ImageIcon SOUTHSTAIRS = new ImageIcon(getClass().getClassLoader().getResource("StairsSouth.png"));
-    private final ImageIcon EASTSTAIRS = new ImageIcon(getClass().getClassLoader().getResource("StairsEast.png"));
-    private final ImageIcon WESTSTAIRS = new ImageIcon(getClass().getClassLoader().getResource("StairsWest.png"));
+    private static final ImageIcon NORTHSTAIRS = SpriteCache.get("StairsNorth.png");
+    private static final ImageIcon SOUTHSTAIRS = SpriteCache.get("StairsSouth.png");
+    private static final ImageIcon EASTSTAIRS = SpriteCache.get("StairsEast.png");
+    private static final ImageIcon WESTSTAIRS = SpriteCache.get("StairsWest.png");
     private int xPos, yPos;
-    private GamePlayComponent parent;
+    private GameWorld parent;
     private ImageIcon usedImageIcon;
 
     private Direction direction;
-    private Integer nextRoom;
+    private int nextRoom;
 
     /**
      * Constructs a Stairs object with the specified parameters.
-     * @param parent The GamePlayComponent the stairs are to be drawn to.
+     * @param parent The GameWorld the stairs belong to.
      * @param inDirection The direction which the stairs are supposed to represent.
      * @param nextRoom The room reference number which this set of Stairs points to.
      */
-    public Stairs(GamePlayComponent parent, Direction inDirection, int nextRoom)
+    public Stairs(GameWorld parent, Direction inDirection, int nextRoom)
     {
         super();
         direction = inDirection;
@@ -41,35 +42,35 @@ public class Stairs implements Collideable {
         switch(direction)
         {
             case NORTH:
-                xPos = parent.getPreferredSize().width*7/16;
+                xPos = parent.getBounds().getWidth()*7/16;
                 yPos = 0;
                 usedImageIcon = NORTHSTAIRS;
                 break;
             case SOUTH:
-                xPos = parent.getPreferredSize().width*7/16;
-                yPos = parent.getPreferredSize().height*11/12;
+                xPos = parent.getBounds().getWidth()*7/16;
+                yPos = parent.getBounds().getHeight()*11/12;
                 usedImageIcon = SOUTHSTAIRS;
                 break;
             case WEST:
                 xPos = 0;
-                yPos = parent.getPreferredSize().height*5/12;
+                yPos = parent.getBounds().getHeight()*5/12;
                 usedImageIcon = WESTSTAIRS;
                 break;
             case EAST:
-                xPos = parent.getPreferredSize().width*15/16;
-                yPos = parent.getPreferredSize().height*5/12;
+                xPos = parent.getBounds().getWidth()*15/16;
+                yPos = parent.getBounds().getHeight()*5/12;
                 usedImageIcon = EASTSTAIRS;
                 break;
         }
     }
 
     /**
-     * Draws Stairs object to GamePlayComponent.
+     * Draws Stairs object to GameWorld.
      * @param g The Graphics component to be drawn to.
      */
     public void drawStairs(Graphics g)
     {
-        usedImageIcon.paintIcon(parent,g,xPos,yPos);
+        usedImageIcon.paintIcon(null,g,xPos,yPos);
     }
 
     /**
@@ -84,7 +85,7 @@ public class Stairs implements Collideable {
      * Gets the integer number of the next room.
      * @return the integer of the next room.
      */
-    public Integer getNextRoom()
+    public int getNextRoom()
     {
         return nextRoom;
     }
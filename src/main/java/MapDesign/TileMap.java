@@ -0,0 +1,141 @@
+package MapDesign;
+
+import Simulation.WorldBounds;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * The static geometry of a Room, one byte per tile of its {@value WorldBounds#GRID_COLUMNS} by {@value WorldBounds#GRID_ROWS} grid.
+ * Each byte is the ordinal of a TileType, which holds the sprite and whether the tile blocks movement.
+ * A tile covers the size of its sprite from the top left corner of its grid cell, exactly like an Obstacle placed there would.
+ * Keeping blocks and mine carts here instead of as Obstacles keeps them out of the SpatialGrid, so movement checks near
+ * walls look at a few bytes instead of walking dozens of Collideables. Only dynamic objects, like chests, stay Obstacles.
+ * Tiles outside the grid are ignored, they could not be reached anyway.
+ * @see TileType
+ */
+public class TileMap {
+
+    private static final int COLUMNS = WorldBounds.GRID_COLUMNS;
+    private static final int ROWS = WorldBounds.GRID_ROWS;
+
+    private final WorldBounds bounds;
+    private final byte[] tiles = new byte[COLUMNS * ROWS];
+    //The largest sprite of a blocking tile, how far a tile can reach out of its cell.
+    private int maxTileWidth;
+    private int maxTileHeight;
+
+    /**
+     * Constructs a TileMap with nothing but floor.
+     * @param bounds The play area the grid is laid over.
+     */
+    public TileMap(WorldBounds bounds)
+    {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Places a tile, replacing whatever was there.
+     * @param gridX The tile column, from 0 to 15.
+     * @param gridY The tile row, from 0 to 11.
+     * @param type The type of tile.
+     * @return False if the position is outside the grid and nothing was placed.
+     */
+    public boolean set(int gridX, int gridY, TileType type)
+    {
+        if(gridX < 0 || gridX >= COLUMNS || gridY < 0 || gridY >= ROWS)
+            return false;
+        tiles[gridY * COLUMNS + gridX] = (byte) type.ordinal();
+        if(type.isBlocking())
+        {
+            maxTileWidth = Math.max(maxTileWidth, type.getSprite().getIconWidth());
+            maxTileHeight = Math.max(maxTileHeight, type.getSprite().getIconHeight());
+        }
+        return true;
+    }
+
+    /**
+     * Returns the tile at a position of the grid.
+     * @param gridX The tile column, from 0 to 15.
+     * @param gridY The tile row, from 0 to 11.
+     * @return The type of the tile.
+     */
+    public TileType get(int gridX, int gridY)
+    {
+        return TileType.fromCode(tiles[gridY * COLUMNS + gridX]);
+    }
+
+    /**
+     * Returns whether the tile at a position of the grid blocks movement.
+     * @param gridX The tile column, from 0 to 15.
+     * @param gridY The tile row, from 0 to 11.
+     * @return True if the tile blocks movement.
+     */
+    public boolean isBlocked(int gridX, int gridY)
+    {
+        return TileType.fromCode(tiles[gridY * COLUMNS + gridX]).isBlocking();
+    }
+
+    /**
+     * Checks whether a box overlaps any blocking tile, with the same square to square test as Collideable.collides.
+     * @param centerX The x-center of the box.
+     * @param centerY The y-center of the box.
+     * @param halfWidth Half the width of the box.
+     * @param halfHeight Half the height of the box.
+     * @return True if a blocking tile overlaps the box.
+     */
+    public boolean overlapsBlocked(int centerX, int centerY, int halfWidth, int halfHeight)
+    {
+        if(maxTileWidth == 0)
+            return false;
+        halfWidth = Math.abs(halfWidth);
+        halfHeight = Math.abs(halfHeight);
+        //A tile can only overlap the box if its cell starts less than a tile size before the box.
+        int minColumn = Math.max(0, columnOf(centerX - halfWidth - maxTileWidth));
+        int maxColumn = Math.min(COLUMNS - 1, columnOf(centerX + halfWidth));
+        int minRow = Math.max(0, rowOf(centerY - halfHeight - maxTileHeight));
+        int maxRow = Math.min(ROWS - 1, rowOf(centerY + halfHeight));
+        for(int row = minRow; row <= maxRow; row++)
+        {
+            for(int column = minColumn; column <= maxColumn; column++)
+            {
+                TileType type = TileType.fromCode(tiles[row * COLUMNS + column]);
+                if(!type.isBlocking())
+                    continue;
+                ImageIcon sprite = type.getSprite();
+                int xDist = Math.abs(bounds.gridX(column) + sprite.getIconWidth() / 2 - centerX);
+                int yDist = Math.abs(bounds.gridY(row) + sprite.getIconHeight() / 2 - centerY);
+                if(xDist < halfWidth + sprite.getIconWidth() / 2 && yDist < halfHeight + sprite.getIconHeight() / 2)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Draws every tile which has a sprite, in one pass over the grid.
+     * @param g The graphics context to draw to, usually the cached background of the Room.
+     */
+    public void draw(Graphics g)
+    {
+        for(int row = 0; row < ROWS; row++)
+        {
+            for(int column = 0; column < COLUMNS; column++)
+            {
+                ImageIcon sprite = TileType.fromCode(tiles[row * COLUMNS + column]).getSprite();
+                if(sprite != null)
+                    sprite.paintIcon(null, g, bounds.gridX(column), bounds.gridY(row));
+            }
+        }
+    }
+
+    private int columnOf(int x)
+    {
+        return Math.floorDiv(x * COLUMNS, bounds.getWidth());
+    }
+
+    private int rowOf(int y)
+    {
+        return Math.floorDiv(y * ROWS, bounds.getHeight());
+    }
+}
@@ -0,0 +1,64 @@
+package MapDesign;
+
+import GUIDesign.SpriteCache;
+
+import javax.swing.*;
+
+/**
+ * The palette of static tiles a TileMap is built from. A TileMap stores the ordinal of the type of each tile in a byte.
+ * @see TileMap
+ */
+public enum TileType {
+
+    /**
+     * Bare floor, nothing is drawn and nothing is blocked.
+     */
+    FLOOR(null, false),
+    /**
+     * The default stone block.
+     */
+    BLOCK("ObstacleDefaultBlock.png", true),
+    /**
+     * A mine cart, blocking like a block.
+     */
+    MINE_CART("MineCart.png", true);
+
+    private static final TileType[] PALETTE = values();
+
+    private final ImageIcon sprite;
+    private final boolean blocking;
+
+    TileType(String spriteName, boolean blocking)
+    {
+        sprite = spriteName != null ? SpriteCache.get(spriteName) : null;
+        this.blocking = blocking;
+    }
+
+    /**
+     * Returns the tile type stored as a byte.
+     * @param code The byte stored in a TileMap.
+     * @return The tile type with that ordinal.
+     */
+    public static TileType fromCode(byte code)
+    {
+        return PALETTE[code];
+    }
+
+    /**
+     * Returns the sprite drawn for tiles of this type.
+     * @return The shared ImageIcon, or null if nothing is drawn.
+     */
+    public ImageIcon getSprite()
+    {
+        return sprite;
+    }
+
+    /**
+     * Returns whether creatures are stopped by tiles of this type.
+     * @return True if the tile blocks movement.
+     */
+    public boolean isBlocking()
+    {
+        return blocking;
+    }
+}
@@ -0,0 +1,155 @@
+package Simulation;
+
+import CharacterResources.Player.Player;
+import MapDesign.Rooms.Room;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that the game tick does not allocate in steady state, using the per-thread allocation counter of the JVM.
+ * Plays seeded runs with a ScriptedBot and measures the bytes allocated by every call to GameWorld.tick().
+ * Ticks on which something is created are expected to allocate and are only reported, these are ticks where the room changes,
+ * a projectile is spawned or the player picks up an item. Every other tick must stay at or below the threshold.
+ * The JIT is warmed up on separate runs first, since interpreted code allocates where compiled code does not.
+ * Exits with status 1 if any steady state tick allocated more than the threshold.
+ * Usage: AllocationHarness [maxBytesPerTick] [ticks] [baseSeed]
+ */
+public class AllocationHarness {
+
+    private static final long DEFAULT_MAX_BYTES_PER_TICK = 64;
+    private static final int DEFAULT_TICKS = 50_000;
+    private static final long DEFAULT_BASE_SEED = 1;
+    private static final int WARMUP_RUNS = 40;
+    private static final int MAX_TICKS_PER_RUN = 20_000;
+    //How many of the worst ticks are printed.
+    private static final int REPORTED_OFFENDERS = 10;
+
+    /**
+     * Runs the check and prints the report.
+     * @param args Optionally the allowed bytes per steady state tick, the amount of ticks to measure and the base seed.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        long maxBytes = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_MAX_BYTES_PER_TICK;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+        long baseSeed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_BASE_SEED;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if(!threads.isThreadAllocatedMemorySupported())
+        {
+            System.out.println("Thread allocation counting is not supported by this JVM, skipping the check.");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        //Warmup runs use other seeds so the measured runs are not simply replays. Until C2 has compiled the tick, a tick
+        //now and then reports a few bytes the interpreter never allocates, so the warmup must cover the whole tick.
+        for(int run = 0; run < WARMUP_RUNS; run++)
+            MonteCarloRunner.playRun(baseSeed - 1 - run, MAX_TICKS_PER_RUN);
+
+        //Reading the counter may itself allocate, which is subtracted from every measurement.
+        long overhead = Long.MAX_VALUE;
+        for(int i = 0; i < 1000; i++)
+        {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            overhead = Math.min(overhead, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+
+        Measurement m = new Measurement(maxBytes);
+        long seed = baseSeed;
+        while(m.measured < ticks)
+        {
+            measureRun(threads, overhead, seed++, Math.min(MAX_TICKS_PER_RUN, ticks - m.measured), m);
+        }
+
+        printReport(m, seed - baseSeed);
+        if(m.failures > 0)
+            System.exit(1);
+    }
+
+    //Plays one run with a ScriptedBot, measuring every tick of it.
+    private static void measureRun(com.sun.management.ThreadMXBean threads, long overhead, long seed, int maxTicks, Measurement m)
+    {
+        GameWorld world = new GameWorld(WorldBounds.DEFAULT, RenderSink.NONE, seed);
+        ScriptedBot bot = new ScriptedBot(seed);
+        Player player = world.getPlayer();
+
+        for(int tick = 0; tick < maxTicks && !world.isWon() && !player.isDead(); tick++)
+        {
+            bot.decide(world);
+
+            Room room = world.getCurrentRoomRef();
+            int projectiles = room.getProjectiles().size();
+            int items = player.getITEMS().size();
+
+            long before = threads.getCurrentThreadAllocatedBytes();
+            world.tick();
+            long bytes = threads.getCurrentThreadAllocatedBytes() - before - overhead;
+
+            boolean event = world.getCurrentRoomRef() != room || room.getProjectiles().size() > projectiles
+                    || player.getITEMS().size() != items;
+            m.record(seed, tick, bytes, event);
+        }
+    }
+
+    private static void printReport(Measurement m, long runs)
+    {
+        System.out.printf("Measured %d ticks over %d runs: %d steady state ticks, %d ticks with spawns or room changes%n",
+                m.measured, runs, m.measured - m.eventTicks, m.eventTicks);
+        System.out.printf("Steady state: %d bytes in total, %.2f bytes/tick on average, %d bytes in the worst tick%n",
+                m.steadyBytes, (double)m.steadyBytes / Math.max(1, m.measured - m.eventTicks), m.worstSteady);
+        System.out.printf("Spawns and room changes: %.0f bytes/tick on average%n",
+                (double)m.eventBytes / Math.max(1, m.eventTicks));
+        if(m.failures == 0)
+        {
+            System.out.printf("PASSED: no steady state tick allocated more than %d bytes%n", m.maxBytes);
+            return;
+        }
+        System.out.printf("FAILED: %d steady state ticks allocated more than %d bytes%n", m.failures, m.maxBytes);
+        for(int i = 0; i < Math.min(m.failures, REPORTED_OFFENDERS); i++)
+            System.out.printf("  seed %d tick %d: %d bytes%n", m.offenderSeeds[i], m.offenderTicks[i], m.offenderBytes[i]);
+    }
+
+    //Totals over all measured ticks.
+    private static class Measurement {
+        final long maxBytes;
+        int measured;
+        int eventTicks;
+        long eventBytes;
+        long steadyBytes;
+        long worstSteady;
+        int failures;
+        final long[] offenderSeeds = new long[REPORTED_OFFENDERS];
+        final int[] offenderTicks = new int[REPORTED_OFFENDERS];
+        final long[] offenderBytes = new long[REPORTED_OFFENDERS];
+
+        Measurement(long maxBytes)
+        {
+            this.maxBytes = maxBytes;
+        }
+
+        void record(long seed, int tick, long bytes, boolean event)
+        {
+            measured++;
+            if(event)
+            {
+                eventTicks++;
+                eventBytes += bytes;
+                return;
+            }
+            steadyBytes += bytes;
+            worstSteady = Math.max(worstSteady, bytes);
+            if(bytes > maxBytes)
+            {
+                if(failures < REPORTED_OFFENDERS)
+                {
+                    offenderSeeds[failures] = seed;
+                    offenderTicks[failures] = tick;
+                    offenderBytes[failures] = bytes;
+                }
+                failures++;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package Simulation.Events;
+
+import jdk.jfr.*;
+
+/**
+ * How much broad-phase collision work a tick did in the SpatialGrid of the current room.
+ * @see Collision.SpatialGrid
+ */
+@Name("sns.BroadPhase")
+@Label("Broad Phase")
+@Category({GameEvents.CATEGORY, "Collision"})
+@Description("Spatial grid queries made during a tick and the candidates they returned")
+@StackTrace(false)
+public class BroadPhaseEvent extends Event {
+
+    @Label("Tick")
+    public long tick;
+
+    @Label("Queries")
+    public long queries;
+
+    @Label("Candidates")
+    @Description("Collideables returned by the queries, each of which was then checked exactly")
+    public long candidates;
+
+    @Label("Contacts")
+    @Description("Contacts found by the contact phase of the tick")
+    public int contacts;
+}
@@ -0,0 +1,46 @@
+package Simulation.Events;
+
+/**
+ * Switches the Java Flight Recorder events of the game on or off.
+ * The events are only created when the sns.jfr system property is set to true. The setting is held in a constant,
+ * so when it is off the JIT removes the event code and nothing is allocated or timed.
+ * When it is on, the events still have to be enabled in the recording, for example with
+ * java -Dsns.jfr=true -XX:StartFlightRecording=filename=game.jfr, and show up in JMC under the Stones n Spells category.
+ * @see TickEvent
+ * @see PhaseEvent
+ */
+public final class GameEvents {
+
+    /**
+     * The system property which turns the events on when set to true.
+     */
+    public static final String ENABLED_PROPERTY = "sns.jfr";
+
+    /**
+     * Whether events are created at all. Call sites must check this before touching any event class.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * The category every event of the game is listed under.
+     */
+    static final String CATEGORY = "Stones n Spells";
+
+    private GameEvents()
+    {
+    }
+
+    /**
+     * Starts timing a phase of a tick or frame, the phase ends when the returned event is committed.
+     * Call sites should only call this after checking ENABLED. Compiled code which reaches a call involving an event class
+     * loads that class in the middle of a tick, even if no event is ever created.
+     * @param phase The name of the phase, one of the PhaseEvent constants.
+     * @return The started event.
+     */
+    public static PhaseEvent beginPhase(String phase)
+    {
+        PhaseEvent event = new PhaseEvent(phase);
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,56 @@
+package Simulation.Events;
+
+import jdk.jfr.*;
+
+/**
+ * The time taken by one phase of a game tick, or by rendering a frame.
+ * @see GameEvents#beginPhase(String)
+ */
+@Name("sns.Phase")
+@Label("Game Phase")
+@Category({GameEvents.CATEGORY, "Simulation"})
+@Description("A phase of a game tick or of rendering a frame")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+
+    /**
+     * Handling the attack, item and reset inputs.
+     */
+    public static final String INPUT = "Input";
+    /**
+     * Moving the player by the movement inputs.
+     */
+    public static final String PLAYER_MOVE = "Player move";
+    /**
+     * Room.update(), which moves enemies and projectiles and checks the stairs.
+     */
+    public static final String ROOM_UPDATE = "Room update";
+    /**
+     * Player.update(), which positions the pickaxe and runs the I-frames of the player.
+     */
+    public static final String PLAYER_UPDATE = "Player update";
+    /**
+     * Finding the contacts of the tick: projectile sweeps, the pickaxe swing and enemy bodies touching the player.
+     */
+    public static final String CONTACT_GENERATION = "Contact generation";
+    /**
+     * Handing the contacts of the tick to the projectiles, the pickaxe and contact damage.
+     */
+    public static final String CONTACT_RESOLUTION = "Contact resolution";
+    /**
+     * Drawing a frame of the game.
+     */
+    public static final String RENDER = "Render";
+
+    @Label("Phase")
+    private String phase;
+
+    /**
+     * Constructs a PhaseEvent for the specified phase.
+     * @param phase The name of the phase.
+     */
+    public PhaseEvent(String phase)
+    {
+        this.phase = phase;
+    }
+}
@@ -0,0 +1,19 @@
+package Simulation.Events;
+
+import jdk.jfr.*;
+
+/**
+ * A projectile being added to a room.
+ */
+@Name("sns.ProjectileSpawn")
+@Label("Projectile Spawn")
+@Category({GameEvents.CATEGORY, "Projectiles"})
+@StackTrace(false)
+public class ProjectileSpawnEvent extends Event {
+
+    @Label("Projectile Type")
+    public Class<?> projectileType;
+
+    @Label("Projectiles In Room")
+    public int projectiles;
+}
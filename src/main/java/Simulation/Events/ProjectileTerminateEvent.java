@@ -0,0 +1,22 @@
+package Simulation.Events;
+
+import jdk.jfr.*;
+
+/**
+ * A projectile being removed from its room, because it hit something or left the screen.
+ */
+@Name("sns.ProjectileTerminate")
+@Label("Projectile Terminate")
+@Category({GameEvents.CATEGORY, "Projectiles"})
+@StackTrace(false)
+public class ProjectileTerminateEvent extends Event {
+
+    @Label("Projectile Type")
+    public Class<?> projectileType;
+
+    @Label("X")
+    public int x;
+
+    @Label("Y")
+    public int y;
+}
@@ -0,0 +1,23 @@
+package Simulation.Events;
+
+import jdk.jfr.*;
+
+/**
+ * The player taking stairs into another room. The duration covers waiting for the room to be built.
+ */
+@Name("sns.RoomChange")
+@Label("Room Change")
+@Category({GameEvents.CATEGORY, "Simulation"})
+@Description("The player took stairs into another room")
+public class RoomChangeEvent extends Event {
+
+    @Label("From Room")
+    public int fromRoom;
+
+    @Label("To Room")
+    public int toRoom;
+
+    @Label("Prebuilt")
+    @Description("Whether the room was already built or being built in the background when it was entered")
+    public boolean prebuilt;
+}
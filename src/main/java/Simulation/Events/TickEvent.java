@@ -0,0 +1,26 @@
+package Simulation.Events;
+
+import jdk.jfr.*;
+
+/**
+ * A single game tick, from reading the input to the last collision check.
+ */
+@Name("sns.Tick")
+@Label("Game Tick")
+@Category({GameEvents.CATEGORY, "Simulation"})
+@Description("One fixed timestep of the simulation")
+@StackTrace(false)
+public class TickEvent extends Event {
+
+    @Label("Tick")
+    public long tick;
+
+    @Label("Room")
+    public int room;
+
+    @Label("Enemies")
+    public int enemies;
+
+    @Label("Projectiles")
+    public int projectiles;
+}
@@ -0,0 +1,886 @@
+package Simulation;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import CharacterResources.Enemies.Enemy;
+import CharacterResources.Items.*;
+import CharacterResources.Player.Classes.PlayerIceMage;
+import CharacterResources.Player.Player;
+import Collision.Collideable;
+import Collision.ContactPhase;
+import Collision.ContactType;
+import Collision.EntityStore;
+import Collision.Projectile;
+import MapDesign.DungeonGraph;
+import MapDesign.Rooms.*;
+import MapDesign.Stairs;
+import Collision.SpatialGrid;
+import Simulation.Events.*;
+
+/**
+ * The headless core of a Stones n Spells game. Owns the player, the rooms and the per-tick input, and advances them one tick at a time.
+ * Nothing in here depends on a window, frontends such as GamePlayComponent draw the world and are notified of changes through a RenderSink.
+ * Only the layout of a run is decided up front. Rooms are built when they are first entered,
+ * and the rooms reachable through the stairs of the current room are built ahead of time on virtual threads.
+ * Only a bounded amount of rooms is kept built, the least recently visited rooms are evicted to snapshots in a RoomCache
+ * and rebuilt from the seed and their snapshot when they are entered again.
+ * @see RenderSink
+ * @see SimulationLoop
+ * @see RoomCache
+ */
+public class GameWorld {
+
+    /**
+     * The length of a single tick in ms.
+     */
+    public static final int TICK_INTERVAL = 12; //in ms
+
+    //Input slots, the key mask holds the entire player input for a tick, one bit per slot.
+    /**
+     * Input slot for moving west.
+     */
+    public static final int KEY_LEFT = 0;
+    /**
+     * Input slot for moving east.
+     */
+    public static final int KEY_RIGHT = 1;
+    /**
+     * Input slot for moving north.
+     */
+    public static final int KEY_UP = 2;
+    /**
+     * Input slot for moving south.
+     */
+    public static final int KEY_DOWN = 3;
+    /**
+     * Input slot for attacking and interacting.
+     */
+    public static final int KEY_ATTACK = 4;
+    /**
+     * Input slot for resetting the game.
+     */
+    public static final int KEY_RESET = 5;
+    /**
+     * Input slot which activates ActiveItems by default.
+     * @see ActiveItem
+     */
+    public static final int KEY_ITEM = 6;
+    /**
+     * Input slot which pauses the current room while held, the room is paused and resumed by the next tick.
+     */
+    public static final int KEY_PAUSE = 7;
+    /**
+     * The amount of input slots.
+     */
+    public static final int NUM_INPUT_KEYS = 8;
+
+    /**
+     * The amount of rooms in a dungeon when no size is given, the same as the original hand made layout.
+     */
+    public static final int DEFAULT_DUNGEON_SIZE = 13;
+
+    //In house objects
+    private static final int CHEST_CONSTANT = 3;
+    private static final int NUM_ROOM_TYPES = 3;
+
+    //Builds neighbouring rooms in the background, building a room only waits on the CPU so a virtual thread per room is enough.
+    private static final ExecutorService ROOM_BUILDER = Executors.newVirtualThreadPerTaskExecutor();
+    //How close the player has to be to stairs before awaitRoomBuilds() waits on the room they lead to, more than a tick of movement.
+    private static final int STAIRS_MARGIN = Collideable.PIXEL_CONSTANT;
+
+    private final WorldBounds bounds;
+    private final RenderSink renderSink;
+    private final Object lock = new Object();
+    private final int dungeonSize;
+
+    //Seeds, every run of the dungeon is reproducible from its seed.
+    private final Random seedSequence;
+    private long seed;
+
+    private Player player;
+    private final Queue<Item> ITEM_QUEUE = new LinkedList<Item>();
+    private final ArrayList<ActiveItem> ACTIVE_ITEMS = new ArrayList<ActiveItem>();
+    //The contacts of the current tick, found once and consumed by the projectiles, the pickaxe and contact damage.
+    private final ContactPhase CONTACTS = new ContactPhase(16);
+
+    //Room gaming
+    private int currentRoom;
+    private Room currentRoomRef;
+    //Indexed by room number. The layout is replaced on every run, so builds of a previous run never mix into the next one.
+    private DungeonGraph dungeon;
+    private int[] roomTypes;
+    private Item[] roomItems;
+    private CompletableFuture<Room>[] rooms;
+    private RoomCache roomCache;
+    //The builds awaitRoomBuilds() waits on, only touched by the simulation thread.
+    private final CompletableFuture<?>[] awaitedBuilds = new CompletableFuture<?>[4];
+
+    //Ticks run since the world was constructed, across resets.
+    private long tickCount;
+    private long runStartTick;
+
+    //The input of the current run is recorded while this is set, see startRecording().
+    private InputRecording recording;
+    private Consumer<InputRecording> recordingFinished;
+
+    //Written by the input thread and read by the simulation thread, so it is atomic rather than guarded by the lock.
+    private final AtomicInteger keyMask = new AtomicInteger();
+    //The input of the previous tick, only touched by the simulation thread.
+    private int previousKeyMask;
+
+    /**
+     * Constructs a GameWorld with a random seed and initializes the player and all rooms.
+     * @param bounds The geometry of the play area.
+     * @param renderSink The sink notified about changes, use RenderSink.NONE when running headless.
+     */
+    public GameWorld(WorldBounds bounds, RenderSink renderSink)
+    {
+        this(bounds, renderSink, new Random().nextLong());
+    }
+
+    /**
+     * Constructs a GameWorld whose first run is generated from the specified seed.
+     * Two worlds constructed with the same seed and fed the same input produce the same run.
+     * @param bounds The geometry of the play area.
+     * @param renderSink The sink notified about changes, use RenderSink.NONE when running headless.
+     * @param seed The seed for the layout of the first run.
+     */
+    public GameWorld(WorldBounds bounds, RenderSink renderSink, long seed)
+    {
+        this(bounds, renderSink, seed, DEFAULT_DUNGEON_SIZE);
+    }
+
+    /**
+     * Constructs a GameWorld whose runs take place in dungeons of the specified size.
+     * @param bounds The geometry of the play area.
+     * @param renderSink The sink notified about changes, use RenderSink.NONE when running headless.
+     * @param seed The seed for the layout of the first run.
+     * @param dungeonSize The amount of rooms in every dungeon, at least 2.
+     */
+    public GameWorld(WorldBounds bounds, RenderSink renderSink, long seed, int dungeonSize)
+    {
+        if(dungeonSize < 2)
+            throw new IllegalArgumentException("A dungeon needs at least 2 rooms, got " + dungeonSize);
+        this.bounds = bounds;
+        this.renderSink = renderSink;
+        this.dungeonSize = dungeonSize;
+        seedSequence = new Random(seed);
+        startRun(seed);
+    }
+
+    //Helper methods for constructor.
+
+        //Handles any behavior for initializing the player.
+        private void initPlayer()
+        {
+            player = new PlayerIceMage(this);
+        }
+
+        //Generates the dungeon and decides the type and chest item of every room, then builds only the starting room.
+        @SuppressWarnings("unchecked")
+        private void initRooms()
+        {
+            Random rand = new Random(seed);
+            //Construct Room stuff:
+            ITEM_QUEUE.clear();
+            dungeon = DungeonGraph.generate(rand.nextLong(), dungeonSize);
+            roomTypes = new int[dungeonSize];
+            roomItems = new Item[dungeonSize];
+            rooms = (CompletableFuture<Room>[]) new CompletableFuture<?>[dungeonSize];
+            if(roomCache != null)
+                roomCache.close();
+            roomCache = RoomCache.fromSystemProperties(dungeonSize);
+
+            HashSet<Integer> chestRooms = new HashSet<Integer>();
+            //Neither the start room nor the boss room has a chest.
+            int chestTotal = Math.min(CHEST_CONSTANT, dungeonSize - 2);
+
+            //Modify this to add new items!
+            for(int i = 0; i < chestTotal; i++)
+            {
+                switch(rand.nextInt(4))
+                {
+                    case(0) -> ITEM_QUEUE.add(new WhetstoneItem());
+                    case(1) -> ITEM_QUEUE.add(new StoneHeartItem());
+                    case(2) -> ITEM_QUEUE.add(new WingBootsItem());
+                    case(3) -> ITEM_QUEUE.add(new FireballScroll(this));
+                }
+            }
+
+            int chestCount = 0;
+            while(chestCount < chestTotal)
+            {
+                int newChestRoom = rand.nextInt(1, dungeonSize);
+                if(newChestRoom != dungeon.getBossRoom() && chestRooms.add(newChestRoom))
+                    chestCount++;
+            }
+
+            for(int roomNum = 0; roomNum < dungeonSize; roomNum++)
+            {
+                if(roomNum == DungeonGraph.START_ROOM || roomNum == dungeon.getBossRoom())
+                    continue;
+                if(chestRooms.contains(roomNum))
+                    roomItems[roomNum] = ITEM_QUEUE.remove();
+                roomTypes[roomNum] = rand.nextInt(NUM_ROOM_TYPES);
+            }
+
+            currentRoom = DungeonGraph.START_ROOM;
+            currentRoomRef = getRoom(currentRoom);
+            enterCurrentRoom();
+            currentRoomRef.activateStairs();
+            prebuildNeighbours(currentRoomRef);
+        }
+
+        //Builds a room of the run whose layout is given, then applies its snapshot if it was evicted before.
+        //Rooms only depend on the layout and the seed, so they can be built in any order and on any thread.
+        private Room buildRoom(int roomNum, DungeonGraph graph, int[] types, Item[] items, byte[] snapshot)
+        {
+            Room room;
+            if(roomNum == DungeonGraph.START_ROOM)
+                room = new Room(this, roomNum);
+            else if(roomNum == graph.getBossRoom())
+                room = new BossRoom(this, roomNum);
+            else
+                room = switch(types[roomNum]) {
+                    case(0) -> new CombatRoom1(this, roomNum, items[roomNum]);
+                    case(1) -> new CombatRoom2(this, roomNum, items[roomNum]);
+                    default -> new CombatRoom3(this, roomNum, items[roomNum]);
+                };
+            if(snapshot != null)
+                room.restoreSnapshot(snapshot);
+            return room;
+        }
+
+    /**
+     * Returns a room of the current run, building it first if it is not built.
+     * Waits for the room if it is still being built in the background.
+     * Counts as a use of the room, which may evict the least recently used room.
+     * @param roomNum The number of the room.
+     * @return The Room, or null if the run has no room with that number.
+     */
+    public Room getRoom(int roomNum)
+    {
+        if(roomNum < 0 || roomNum >= dungeonSize)
+            return null;
+        synchronized (lock) {
+            CompletableFuture<Room> room = rooms[roomNum];
+            if(room == null)
+            {
+                room = CompletableFuture.completedFuture(
+                        buildRoom(roomNum, dungeon, roomTypes, roomItems, roomCache.load(roomNum)));
+                rooms[roomNum] = room;
+            }
+            touchRoom(roomNum);
+            //Normally already done, as the simulation thread waits for the build outside the lock first, see awaitRoomBuilds().
+            return room.join();
+        }
+    }
+
+    /**
+     * Waits for the rooms still being built behind the stairs the player is about to reach, without holding the lock.
+     * Taking stairs waits for the build of the next room while holding the lock, which would also hold up every frame drawn
+     * in the meantime. A SimulationLoop calls this before taking the lock for every tick, so that wait is over by then.
+     * Only waits, so it does not change the world and runs play out the same whether it is called or not.
+     */
+    public void awaitRoomBuilds()
+    {
+        int count = 0;
+        synchronized (lock) {
+            for(Stairs stairs : getCurrentRoomRef().getStairs())
+            {
+                if(stairs == null || !nearStairs(stairs))
+                    continue;
+                CompletableFuture<Room> room = rooms[stairs.getNextRoom()];
+                if(room != null && !room.isDone())
+                    awaitedBuilds[count++] = room;
+            }
+        }
+        for(int i = 0; i < count; i++)
+        {
+            awaitedBuilds[i].join();
+            awaitedBuilds[i] = null;
+        }
+    }
+
+    //Whether the player could be on the stairs after the next tick.
+    private boolean nearStairs(Stairs stairs)
+    {
+        return Math.abs(player.getImageCenterX() - stairs.getImageCenterX()) < (player.getWidth() + stairs.getWidth()) / 2 + STAIRS_MARGIN
+                && Math.abs(player.getImageCenterY() - stairs.getImageCenterY()) < (player.getHeight() + stairs.getHeight()) / 2 + STAIRS_MARGIN;
+    }
+
+    /**
+     * Returns whether a room of the current run is built, or is being built in the background.
+     * Rooms which were evicted by the RoomCache count as not built.
+     * @param roomNum The number of the room.
+     * @return True if the room will not have to be built when it is entered.
+     */
+    public boolean isRoomBuilt(int roomNum)
+    {
+        synchronized (lock) {
+            return roomNum >= 0 && roomNum < dungeonSize && rooms[roomNum] != null;
+        }
+    }
+
+    /**
+     * Returns the cache which bounds the amount of built rooms of the current run.
+     * @return The RoomCache of the current run.
+     */
+    public RoomCache getRoomCache()
+    {
+        return roomCache;
+    }
+
+    //Marks a room as recently used and evicts the room which falls out of the cache, keeping only its snapshot.
+    //Rooms still being built were never entered, so there is nothing to keep and the build is abandoned.
+    private void touchRoom(int roomNum)
+    {
+        int evicted = roomCache.touch(roomNum);
+        if(evicted == DungeonGraph.NONE)
+            return;
+        CompletableFuture<Room> room = rooms[evicted];
+        rooms[evicted] = null;
+        if(room.isDone() && !room.isCompletedExceptionally())
+            roomCache.store(evicted, room.join().snapshot());
+    }
+
+    /**
+     * Returns the layout of the dungeon of the current run.
+     * @return The DungeonGraph of the current run.
+     */
+    public DungeonGraph getDungeon()
+    {
+        return dungeon;
+    }
+
+    //Starts building every room the stairs of a room lead to which was not built yet.
+    private void prebuildNeighbours(Room room)
+    {
+        DungeonGraph graph = dungeon;
+        int[] types = roomTypes;
+        Item[] items = roomItems;
+        for(Stairs stairs : room.getStairs())
+        {
+            if(stairs == null)
+                continue;
+            int roomNum = stairs.getNextRoom();
+            if(rooms[roomNum] == null)
+            {
+                byte[] snapshot = roomCache.load(roomNum);
+                rooms[roomNum] = CompletableFuture.supplyAsync(() -> buildRoom(roomNum, graph, types, items, snapshot), ROOM_BUILDER);
+            }
+            touchRoom(roomNum);
+        }
+        //The room the player is in stays the most recently used.
+        touchRoom(currentRoom);
+    }
+
+    /**
+     * Resets this world to a start-of-game state with a new layout.
+     * The seed of the new run is drawn from the seed the world was constructed with, so a sequence of resets is reproducible as well.
+     * Frontends should call this from a centralized space that also resets their own state.
+     */
+    public void resetGame()
+    {
+        startRun(seedSequence.nextLong());
+    }
+
+    //Starts a new run generated from the specified seed.
+    private void startRun(long runSeed)
+    {
+        synchronized (lock) {
+            //A reset ends the recording of the previous run and starts recording the new one.
+            if(recording != null)
+            {
+                recording.finish(stateHash());
+                recordingFinished.accept(recording);
+            }
+            runStartTick = tickCount;
+            seed = runSeed;
+            ACTIVE_ITEMS.clear();
+            keyMask.set(0);
+            previousKeyMask = 0;
+            //Player must be initialized before Rooms.
+            initPlayer();
+            initRooms();
+            //Started once the rooms are set up, so it holds the settings of the new RoomCache.
+            if(recording != null)
+                recording = new InputRecording(bounds, dungeonSize, runSeed, roomCache);
+        }
+    }
+
+    /**
+     * Returns the seed which the current run was generated from.
+     * @return The seed of the current run.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Creates a Random for the layout of a single room.
+     * The sequence only depends on the seed of the run and the room number, not on the order rooms are built in.
+     * @param roomNum The number of the room.
+     * @return A Random seeded for that room.
+     */
+    public Random createRoomRandom(int roomNum)
+    {
+        return new Random(seed ^ (roomNum * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Returns whether the boss has been defeated in the current run.
+     * @return True if the current room is the boss room and the boss is dead.
+     */
+    public boolean isWon()
+    {
+        return getCurrentRoomRef() instanceof BossRoom && ((BossRoom) getCurrentRoomRef()).isBossDefeated();
+    }
+
+    /**
+     * Returns the lock held while a tick is running.
+     * Anything outside the simulation thread which reads or modifies the game state, such as rendering, should hold this lock.
+     * @return The lock object of this world.
+     */
+    public Object getLock()
+    {
+        return lock;
+    }
+
+    /**
+     * Returns the geometry of the play area.
+     * @return The WorldBounds of this world.
+     */
+    public WorldBounds getBounds()
+    {
+        return bounds;
+    }
+
+    /**
+     * Returns the sink which is notified about changes in this world.
+     * @return The RenderSink of this world.
+     */
+    public RenderSink getRenderSink()
+    {
+        return renderSink;
+    }
+
+    /**
+     * Sets the state of an input slot. The state is read on the next tick.
+     * Safe to call from any thread, such as the event dispatch thread.
+     * @param key The input slot, one of the KEY_ constants.
+     * @param pressed Whether the input is held down.
+     */
+    public void setKey(int key, boolean pressed)
+    {
+        int bit = 1 << key;
+        if(pressed)
+            keyMask.accumulateAndGet(bit, (mask, b) -> mask | b);
+        else
+            keyMask.accumulateAndGet(~bit, (mask, b) -> mask & b);
+    }
+
+    /**
+     * Returns whether an input slot is currently held down.
+     * @param key The input slot, one of the KEY_ constants.
+     * @return True if the input is held down.
+     */
+    public boolean isKeyDown(int key)
+    {
+        return isKeyDown(keyMask.get(), key);
+    }
+
+    //Whether an input slot is held down in a key mask.
+    private static boolean isKeyDown(int mask, int key)
+    {
+        return (mask & (1 << key)) != 0;
+    }
+
+    /**
+     * Returns the state of every input slot as a bitmask.
+     * @return A mask where bit n is set if input slot n is held down.
+     */
+    public int getKeyMask()
+    {
+        return keyMask.get();
+    }
+
+    /**
+     * Sets the state of every input slot at once, as read back from an InputRecording.
+     * @param mask A mask where bit n is set if input slot n is held down.
+     */
+    public void setKeyMask(int mask)
+    {
+        keyMask.set(mask & ((1 << NUM_INPUT_KEYS) - 1));
+    }
+
+    /**
+     * Starts recording the input of every tick. Must be called before the first tick of a run.
+     * Every time the game is reset, the recording of the finished run is handed to the consumer and the new run is recorded.
+     * @param onRunFinished Receives the finished recording of every run which ends in a reset, on the thread resetting the game.
+     * @see #stopRecording()
+     */
+    public void startRecording(Consumer<InputRecording> onRunFinished)
+    {
+        synchronized (lock) {
+            if(tickCount != runStartTick)
+                throw new IllegalStateException("Recording has to start at the beginning of a run");
+            recording = new InputRecording(bounds, dungeonSize, seed, roomCache);
+            recordingFinished = onRunFinished;
+        }
+    }
+
+    /**
+     * Stops recording and returns the recording of the current run, finished with the current state.
+     * @return The recording of the run up to now, or null if nothing was being recorded.
+     */
+    public InputRecording stopRecording()
+    {
+        synchronized (lock) {
+            InputRecording finished = recording;
+            if(finished != null)
+                finished.finish(stateHash());
+            recording = null;
+            recordingFinished = null;
+            return finished;
+        }
+    }
+
+    /**
+     * Hashes the state a run is in: the seed, the current room, the player and the enemies and projectiles of the room.
+     * Two runs which played out the same have the same hash, which is how replays are checked.
+     * @return The hash of the current state.
+     */
+    public long stateHash()
+    {
+        synchronized (lock) {
+            long hash = mixHash(seed, currentRoom);
+            hash = mixHash(hash, player.getX());
+            hash = mixHash(hash, player.getY());
+            hash = mixHash(hash, player.getCurrentHP());
+            hash = mixHash(hash, player.getITEMS().size());
+            hash = mixHash(hash, tickCount - runStartTick);
+            Room room = getCurrentRoomRef();
+            hash = mixHash(hash, room.isStairsActive() ? 1 : 0);
+            EntityStore<Enemy> enemies = room.getEnemies();
+            for(int i = 0; i < enemies.size(); i++)
+            {
+                Enemy enemy = enemies.get(i);
+                hash = mixHash(hash, enemy.getX());
+                hash = mixHash(hash, enemy.getY());
+                hash = mixHash(hash, enemy.getCurrentHP());
+            }
+            for(int i = 0; i < room.getProjectiles().size(); i++)
+            {
+                hash = mixHash(hash, room.getProjectiles().get(i).getX());
+                hash = mixHash(hash, room.getProjectiles().get(i).getY());
+            }
+            return hash;
+        }
+    }
+
+    private static long mixHash(long hash, long value)
+    {
+        hash ^= value;
+        hash *= 0x100000001B3L;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * Registers an ActiveItem so that it is activated and deactivated by its input slot on every tick.
+     * @param item The ActiveItem to register.
+     */
+    public void registerActiveItem(ActiveItem item)
+    {
+        if(!ACTIVE_ITEMS.contains(item))
+            ACTIVE_ITEMS.add(item);
+    }
+
+    /**
+     * Stops an ActiveItem from receiving input.
+     * @param item The ActiveItem to unregister.
+     */
+    public void unregisterActiveItem(ActiveItem item)
+    {
+        ACTIVE_ITEMS.remove(item);
+    }
+
+    /**
+     * Returns whether an ActiveItem is currently receiving input.
+     * @param item The ActiveItem to check.
+     * @return True if the item is registered.
+     */
+    public boolean isActiveItemRegistered(ActiveItem item)
+    {
+        return ACTIVE_ITEMS.contains(item);
+    }
+
+    /**
+     * This method gets the current Room that is active.
+     * @return Returns the Room the player is currently in.
+     */
+    public Room getCurrentRoomRef() {
+        return currentRoomRef;
+    }
+
+    /**
+     * Returns currently active Room.
+     * @return Currently active Room location.
+     */
+    public int getCurrentRoom() {
+        return currentRoom;
+    }
+
+    /**
+     *  Gets the player from this GameWorld.
+     * @return The Player object from this world.
+     */
+    public Player getPlayer()
+    {
+        return player;
+    }
+
+    /**
+     * Changes the currently active room when a player collides with an active Stairs object.
+     * Also swaps the side of the screen the player is on to give illusion of traversing stairs.
+     * This doubles to ensure if the swapped room always has active stairs, the player does not instantly traverse to another room.
+     * @param stairs The stairs object being checked.
+     */
+    public void traverseStairs(Stairs stairs)
+    {
+        if(player.collides(stairs) != null)
+        {
+            //Don't forget to mirror player placement.
+            switch(stairs.getDirection())
+            {
+                case NORTH:
+                    player.setPos(player.getX(),bounds.getHeight() - stairs.getHeight()- Collideable.PIXEL_CONSTANT-5);
+                    break;
+                case SOUTH:
+                    player.setPos(player.getX(),stairs.getHeight()+5);
+                    break;
+                case WEST:
+                    player.setPos(bounds.getWidth() - stairs.getWidth()- Collideable.PIXEL_CONSTANT-5,player.getY());
+                    break;
+                case EAST:
+                    player.setPos(stairs.getWidth() +5,player.getY());
+                    break;
+            }
+            RoomChangeEvent event = null;
+            if(GameEvents.ENABLED)
+            {
+                event = new RoomChangeEvent();
+                event.begin();
+                event.fromRoom = currentRoom;
+                event.toRoom = stairs.getNextRoom();
+                event.prebuilt = isRoomBuilt(stairs.getNextRoom());
+            }
+            //Handles room activation stuff, important for thread management with enemies
+            getCurrentRoomRef().deactivateRoom();
+            currentRoom = stairs.getNextRoom();
+            currentRoomRef = getRoom(currentRoom);
+            if(GameEvents.ENABLED)
+                event.commit();
+            enterCurrentRoom();
+            //Builds the rooms the player may go to next while this one is being fought through.
+            prebuildNeighbours(currentRoomRef);
+            //Stops the player from being interpolated across the screen.
+            player.savePreviousPosition();
+
+            Log.debug("Room changed, new Room: {}", currentRoom);
+        }
+    }
+
+    //Activates the current room and puts the player in its grid, or moves it to its cells there if it was already in
+    //the room before. Only done on the simulation thread under the lock, as other threads may be reading the grid.
+    private void enterCurrentRoom()
+    {
+        currentRoomRef.activateRoom();
+        currentRoomRef.getSpatialGrid().insert(player);
+        currentRoomRef.getSpatialGrid().update(player);
+    }
+
+    /**
+     * Returns the amount of ticks this world has run since it was constructed, including ticks of earlier runs.
+     * @return The amount of completed ticks.
+     */
+    public long getTickCount()
+    {
+        return tickCount;
+    }
+
+    /**
+     * Advances the world by a single tick using the current state of the input slots.
+     * When GameEvents are enabled, the tick, each of its phases and the broad-phase work are recorded as JFR events.
+     * @see GameEvents
+     */
+    public void tick()
+    {
+        synchronized (lock) {
+            //The input is read once, so the tick and its recording see the same input even as keys change meanwhile.
+            int mask = keyMask.get();
+            if(recording != null)
+                recording.record(mask);
+            TickEvent tickEvent = null;
+            SpatialGrid grid = null;
+            long queries = 0, candidates = 0;
+            if(GameEvents.ENABLED)
+            {
+                tickEvent = new TickEvent();
+                tickEvent.begin();
+                grid = getCurrentRoomRef().getSpatialGrid();
+                queries = grid.getQueryCount();
+                candidates = grid.getCandidateCount();
+            }
+
+            //Pausing is part of the input, so a replay pauses on the same ticks.
+            boolean paused = isKeyDown(mask, KEY_PAUSE);
+            if(paused == getCurrentRoomRef().isRoomActive())
+            {
+                if(paused)
+                    getCurrentRoomRef().deactivateRoom();
+                else
+                    getCurrentRoomRef().activateRoom();
+            }
+
+            player.savePreviousPosition();
+            if (!player.isDead() && getCurrentRoomRef() != null && getCurrentRoomRef().isRoomActive()) {
+                PhaseEvent phase = GameEvents.ENABLED ? GameEvents.beginPhase(PhaseEvent.PLAYER_MOVE) : null;
+                if (isKeyDown(mask, KEY_LEFT))
+                    player.move("W", getCurrentRoomRef().getSpatialGrid());
+                if (isKeyDown(mask, KEY_RIGHT))
+                    player.move("E", getCurrentRoomRef().getSpatialGrid());
+                if (isKeyDown(mask, KEY_UP))
+                    player.move("N", getCurrentRoomRef().getSpatialGrid());
+                if (isKeyDown(mask, KEY_DOWN))
+                    player.move("S", getCurrentRoomRef().getSpatialGrid());
+                if(phase != null)
+                    phase.commit();
+
+                phase = GameEvents.ENABLED ? GameEvents.beginPhase(PhaseEvent.INPUT) : null;
+                //Add something here with regards to player attack procedure.
+                if (isKeyDown(mask, KEY_ATTACK)) {
+                    if (player.getPickaxe().getAttackCount() <= 0)
+                        player.getPickaxe().initAttack();
+                }
+                processItemInput(mask);
+                if(phase != null)
+                    phase.commit();
+            }
+            previousKeyMask = mask;
+
+            if (isKeyDown(mask, KEY_RESET)) {
+                setKey(KEY_RESET, false);
+                renderSink.resetRequested();
+            }
+
+            PhaseEvent phase = GameEvents.ENABLED ? GameEvents.beginPhase(PhaseEvent.ROOM_UPDATE) : null;
+            getCurrentRoomRef().update(null);
+            if(phase != null)
+                phase.commit();
+
+            phase = GameEvents.ENABLED ? GameEvents.beginPhase(PhaseEvent.PLAYER_UPDATE) : null;
+            player.update(null);
+            //Like those of enemies, the I-frames of the player do not run out while the room is paused.
+            if(getCurrentRoomRef().isRoomActive())
+                player.updateIFrames();
+            if(phase != null)
+                phase.commit();
+
+            phase = GameEvents.ENABLED ? GameEvents.beginPhase(PhaseEvent.CONTACT_GENERATION) : null;
+            CONTACTS.generate(getCurrentRoomRef(), player);
+            if(phase != null)
+                phase.commit();
+
+            phase = GameEvents.ENABLED ? GameEvents.beginPhase(PhaseEvent.CONTACT_RESOLUTION) : null;
+            resolveContacts();
+            //Projectiles terminated by their contacts are gone before they could move again.
+            getCurrentRoomRef().removePendingEntities();
+            if(phase != null)
+                phase.commit();
+
+            if(GameEvents.ENABLED)
+            {
+                tickEvent.tick = tickCount;
+                tickEvent.room = currentRoom;
+                tickEvent.enemies = getCurrentRoomRef().getEnemies().size();
+                tickEvent.projectiles = getCurrentRoomRef().getProjectiles().size();
+                tickEvent.commit();
+
+                //Counts only the room the tick started in, queries made after taking stairs are in the grid of the next room.
+                BroadPhaseEvent broadPhase = new BroadPhaseEvent();
+                broadPhase.tick = tickCount;
+                broadPhase.queries = grid.getQueryCount() - queries;
+                broadPhase.candidates = grid.getCandidateCount() - candidates;
+                broadPhase.contacts = CONTACTS.size();
+                broadPhase.commit();
+            }
+            tickCount++;
+        }
+    }
+
+    //Activates or deactivates registered ActiveItems when their input slot changes state.
+    private void processItemInput(int mask)
+    {
+        for(int i = 0; i < ACTIVE_ITEMS.size(); i++)
+        {
+            ActiveItem item = ACTIVE_ITEMS.get(i);
+            int key = item.getItemKey();
+            boolean down = isKeyDown(mask, key), wasDown = isKeyDown(previousKeyMask, key);
+            if(down && !wasDown)
+                item.activateEffect(item.getOwner());
+            else if(!down && wasDown)
+                item.deactivateEffect(item.getOwner());
+        }
+    }
+
+    /**
+     * Damages the player and starts its I-frames, typically called whenever an enemy collides with the player.
+     * Can be called by other classes to start the damage in other ways.
+     * Does nothing while the player is still invulnerable from a previous hit.
+     * @param damage The amount of damage to be done to the player.
+     */
+    public void startPlayerDamage(int damage) {
+        if(player.isInvulnerable())
+            return;
+        player.damagePlayer(damage);
+        player.startIFrames();
+        renderSink.hudChanged();
+    }
+
+    /**
+     * Returns the contacts found on the last tick.
+     * @return The ContactPhase of this world, it should not be modified.
+     */
+    public ContactPhase getContacts()
+    {
+        return CONTACTS;
+    }
+
+    //Hands every contact of the tick to the system it belongs to, in the order they were found.
+    private void resolveContacts()
+    {
+        for(int i = 0; i < CONTACTS.size(); i++)
+        {
+            ContactType type = CONTACTS.getType(i);
+            Collideable other = CONTACTS.getSecond(i);
+            if(type == ContactType.PROJECTILE)
+                CONTACTS.getProjectile(i).applyContact(other, CONTACTS.getTime(i));
+            else if(type == ContactType.MELEE)
+                player.getPickaxe().strike(other);
+            //Some enemies, like the boss, only hurt on touch while they attack.
+            else if(other.getContactDamage() > 0)
+                startPlayerDamage(other.getContactDamage());
+        }
+        //Projectiles which reached the edge of the world only leave it now, after hitting what was on their last move.
+        EntityStore<Projectile> projectiles = getCurrentRoomRef().getProjectiles();
+        for(int i = 0; i < projectiles.size(); i++)
+            projectiles.get(i).finishMove();
+    }
+}
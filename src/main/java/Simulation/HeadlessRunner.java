@@ -0,0 +1,31 @@
+package Simulation;
+
+/**
+ * Runs a GameWorld without any window as fast as possible and reports how many ticks per second were simulated.
+ * Usage: HeadlessRunner [ticks]
+ */
+public class HeadlessRunner {
+
+    private static final int DEFAULT_TICKS = 100_000;
+
+    /**
+     * Steps a headless GameWorld and prints the simulation throughput.
+     * @param args Optionally the amount of ticks to simulate.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TICKS;
+
+        GameWorld world = new GameWorld(WorldBounds.DEFAULT, RenderSink.NONE);
+        long start = System.nanoTime();
+        for(int i = 0; i < ticks; i++)
+            world.tick();
+        long elapsed = System.nanoTime() - start;
+
+        double seconds = elapsed / 1_000_000_000.0;
+        double realTime = ticks * (double)GameWorld.TICK_INTERVAL / 1000.0;
+        System.out.printf("Simulated %d ticks (%.1f s of game time) in %.3f s: %.0f ticks/s, %.0fx real time%n",
+                ticks, realTime, seconds, ticks / seconds, realTime / seconds);
+    }
+}
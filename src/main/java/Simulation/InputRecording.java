@@ -0,0 +1,289 @@
+package Simulation;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The input of a single run, enough to play the run again exactly.
+ * A run is fully determined by its seed, the size of its dungeon, its play area, the RoomCache settings and the input
+ * slots held on every tick. The cache settings matter because evicted rooms lose their timers, see Room.snapshot(). The input is stored as one bitmask per tick, bit n being input slot n, and compressed into runs of equal masks.
+ * The hash of the state the run ended in is stored along with it, so a replay can check it ended the same way.
+ * Files are a small header followed by the runs, each a mask byte and a variable length tick count.
+ * @see GameWorld#startRecording(java.util.function.Consumer)
+ * @see ReplayRunner
+ */
+public class InputRecording {
+
+    /**
+     * The system property holding the directory which the game saves a recording of every run to. Nothing is recorded if it is not set.
+     */
+    public static final String RECORD_PROPERTY = "sns.record";
+
+    /**
+     * The extension used for recording files.
+     */
+    public static final String FILE_EXTENSION = ".snsr";
+
+    private static final int MAGIC = 0x534E5352; //"SNSR"
+    private static final int VERSION = 2;
+
+    private final int width;
+    private final int height;
+    private final int dungeonSize;
+    private final long seed;
+    private final int roomCacheCapacity;
+    private final boolean roomSpill;
+
+    private byte[] runMasks = new byte[64];
+    private int[] runLengths = new int[64];
+    private int runCount;
+    private long tickCount;
+    private long endStateHash;
+    private boolean finished;
+
+    /**
+     * Constructs an empty recording of a run.
+     * @param bounds The play area of the run.
+     * @param dungeonSize The amount of rooms in the dungeon of the run.
+     * @param seed The seed the run was generated from.
+     * @param roomCache The RoomCache of the run, whose settings are kept.
+     */
+    public InputRecording(WorldBounds bounds, int dungeonSize, long seed, RoomCache roomCache)
+    {
+        this(bounds.getWidth(), bounds.getHeight(), dungeonSize, seed, roomCache.getCapacity(), roomCache.isSpilling());
+    }
+
+    private InputRecording(int width, int height, int dungeonSize, long seed, int roomCacheCapacity, boolean roomSpill)
+    {
+        this.width = width;
+        this.height = height;
+        this.dungeonSize = dungeonSize;
+        this.seed = seed;
+        this.roomCacheCapacity = roomCacheCapacity;
+        this.roomSpill = roomSpill;
+    }
+
+    /**
+     * Appends the input of one tick.
+     * @param keyMask The input slots held on the tick, bit n being input slot n.
+     * @see GameWorld#getKeyMask()
+     */
+    public void record(int keyMask)
+    {
+        if(finished)
+            throw new IllegalStateException("The recording is already finished");
+        tickCount++;
+        if(runCount > 0 && runMasks[runCount - 1] == (byte) keyMask)
+        {
+            runLengths[runCount - 1]++;
+            return;
+        }
+        if(runCount == runMasks.length)
+        {
+            runMasks = Arrays.copyOf(runMasks, runCount * 2);
+            runLengths = Arrays.copyOf(runLengths, runCount * 2);
+        }
+        runMasks[runCount] = (byte) keyMask;
+        runLengths[runCount] = 1;
+        runCount++;
+    }
+
+    /**
+     * Ends the recording.
+     * @param endStateHash The hash of the world after the last recorded tick.
+     * @see GameWorld#stateHash()
+     */
+    public void finish(long endStateHash)
+    {
+        this.endStateHash = endStateHash;
+        finished = true;
+    }
+
+    /**
+     * Returns the play area of the recorded run.
+     * @return The WorldBounds the run was played in.
+     */
+    public WorldBounds getBounds()
+    {
+        return new WorldBounds(width, height);
+    }
+
+    /**
+     * Returns the amount of rooms in the dungeon of the recorded run.
+     * @return The dungeon size.
+     */
+    public int getDungeonSize()
+    {
+        return dungeonSize;
+    }
+
+    /**
+     * Returns the seed the recorded run was generated from.
+     * @return The seed of the run.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Returns the capacity of the RoomCache the run was played with.
+     * @return The maximum amount of built rooms of the run.
+     * @see RoomCache#CAPACITY_PROPERTY
+     */
+    public int getRoomCacheCapacity()
+    {
+        return roomCacheCapacity;
+    }
+
+    /**
+     * Returns whether the RoomCache of the run spilled evicted rooms to a file.
+     * @return True if the run was played with a spill file.
+     * @see RoomCache#SPILL_PROPERTY
+     */
+    public boolean isRoomSpill()
+    {
+        return roomSpill;
+    }
+
+    /**
+     * Returns whether a RoomCache has the settings the run was played with, which a replay needs to reproduce it.
+     * @param roomCache The RoomCache to compare.
+     * @return True if the capacity and spilling of the cache are those of the recorded run.
+     */
+    public boolean matchesRoomCache(RoomCache roomCache)
+    {
+        return roomCache.getCapacity() == roomCacheCapacity && roomCache.isSpilling() == roomSpill;
+    }
+
+    /**
+     * Returns the amount of recorded ticks.
+     * @return The length of the run in ticks.
+     */
+    public long getTickCount()
+    {
+        return tickCount;
+    }
+
+    /**
+     * Returns the hash of the state the run ended in.
+     * @return The end state hash, only meaningful once the recording is finished.
+     */
+    public long getEndStateHash()
+    {
+        return endStateHash;
+    }
+
+    /**
+     * Returns the amount of runs of ticks with the same input.
+     * @return The amount of runs.
+     */
+    public int getRunCount()
+    {
+        return runCount;
+    }
+
+    /**
+     * Returns the input held during a run of ticks.
+     * @param run The index of the run.
+     * @return The key mask of every tick in the run.
+     */
+    public int getRunMask(int run)
+    {
+        return runMasks[run] & 0xFF;
+    }
+
+    /**
+     * Returns how many ticks a run lasts.
+     * @param run The index of the run.
+     * @return The amount of ticks in the run.
+     */
+    public int getRunLength(int run)
+    {
+        return runLengths[run];
+    }
+
+    /**
+     * Writes the finished recording to a file.
+     * @param file The file to write to, it is replaced if it exists.
+     * @throws IOException If the file could not be written.
+     */
+    public void save(Path file) throws IOException
+    {
+        if(!finished)
+            throw new IllegalStateException("Only finished recordings can be saved");
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeShort(width);
+            out.writeShort(height);
+            out.writeInt(dungeonSize);
+            out.writeLong(seed);
+            out.writeInt(roomCacheCapacity);
+            out.writeBoolean(roomSpill);
+            out.writeLong(endStateHash);
+            out.writeInt(runCount);
+            for(int i = 0; i < runCount; i++)
+            {
+                out.writeByte(runMasks[i]);
+                writeVarInt(out, runLengths[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a recording from a file.
+     * @param file The file written by save().
+     * @return The finished recording.
+     * @throws IOException If the file could not be read or is not a recording.
+     */
+    public static InputRecording load(Path file) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt() != MAGIC)
+                throw new IOException(file + " is not an input recording");
+            int version = in.readUnsignedByte();
+            if(version != VERSION)
+                throw new IOException(file + " has unsupported recording version " + version);
+            InputRecording recording = new InputRecording(in.readUnsignedShort(), in.readUnsignedShort(), in.readInt(), in.readLong(),
+                    in.readInt(), in.readBoolean());
+            long endStateHash = in.readLong();
+            int runs = in.readInt();
+            for(int i = 0; i < runs; i++)
+            {
+                int mask = in.readUnsignedByte();
+                int length = readVarInt(in);
+                for(int tick = 0; tick < length; tick++)
+                    recording.record(mask);
+            }
+            recording.finish(endStateHash);
+            return recording;
+        }
+    }
+
+    //Seven bits per byte, the high bit set on every byte but the last. Most runs fit in one or two bytes.
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException
+    {
+        while((value & ~0x7F) != 0)
+        {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException
+    {
+        int value = 0;
+        for(int shift = 0; shift < 32; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed run length");
+    }
+}
@@ -0,0 +1,376 @@
+package Simulation;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A levelled logger which never does console I/O on the calling thread.
+ * Messages are put into a fixed size lock-free ring buffer and written to the console by a daemon thread,
+ * so logging from the simulation thread or the event dispatch thread costs a few stores instead of a write to the console.
+ * The level is read once from the sns.log system property and held in a constant, so the JIT removes disabled calls entirely.
+ * Placeholders written as {} are replaced by the arguments on the logging thread, and only if the level is enabled.
+ * Because of this, arguments should be values which do not change afterwards, like numbers, strings or classes.
+ * Messages describing mutable objects should be built inside an isTraceEnabled() or isDebugEnabled() check instead.
+ * If the buffer is full the message is dropped rather than making the caller wait, and the amount of dropped messages is reported.
+ * @see #LEVEL_PROPERTY
+ */
+public final class Log {
+
+    /**
+     * The system property holding the lowest level which is logged: TRACE, DEBUG, INFO, WARN, ERROR or OFF.
+     */
+    public static final String LEVEL_PROPERTY = "sns.log";
+
+    /**
+     * Level for messages on paths which run every tick or every frame.
+     */
+    public static final int TRACE = 0;
+    /**
+     * Level for messages about individual game events, like a room changing.
+     */
+    public static final int DEBUG = 1;
+    /**
+     * Level for messages worth seeing on a normal run.
+     */
+    public static final int INFO = 2;
+    /**
+     * Level for recoverable problems.
+     */
+    public static final int WARN = 3;
+    /**
+     * Level for failures.
+     */
+    public static final int ERROR = 4;
+    /**
+     * Level which disables logging.
+     */
+    public static final int OFF = 5;
+
+    private static final String[] LEVEL_NAMES = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR", "OFF"};
+
+    //Messages below this level are discarded on the calling thread.
+    private static final int THRESHOLD = parseLevel(System.getProperty(LEVEL_PROPERTY, "INFO"));
+
+    //Must be a power of two.
+    private static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+    //How long the logging thread sleeps once the buffer is empty.
+    private static final long IDLE_NANOS = 1_000_000L;
+
+    //The ring buffer, a slot's sequence tells whether it is free for the producer at that position or holds a message for the consumer.
+    private static final AtomicLongArray SEQUENCES = new AtomicLongArray(CAPACITY);
+    private static final int[] LEVELS = new int[CAPACITY];
+    private static final String[] FORMATS = new String[CAPACITY];
+    private static final Object[] FIRST_ARGS = new Object[CAPACITY];
+    private static final Object[] SECOND_ARGS = new Object[CAPACITY];
+    private static final long[] NUMBERS = new long[CAPACITY];
+    private static final boolean[] HAS_NUMBER = new boolean[CAPACITY];
+    private static final AtomicLong TAIL = new AtomicLong();
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static long head;
+    private static long reportedDropped;
+
+    private static final PrintStream OUT = System.out;
+    private static final StringBuilder LINE = new StringBuilder(256);
+
+    static {
+        for(int i = 0; i < CAPACITY; i++)
+            SEQUENCES.set(i, i);
+        if(THRESHOLD < OFF)
+        {
+            Thread drainer = new Thread(Log::drainLoop, "Log");
+            drainer.setDaemon(true);
+            drainer.start();
+            //Writes whatever is still buffered when the program exits.
+            Runtime.getRuntime().addShutdownHook(new Thread(Log::drain, "Log shutdown"));
+        }
+    }
+
+    private Log()
+    {
+    }
+
+    /**
+     * Returns whether messages of a level are logged.
+     * @param level One of the level constants.
+     * @return True if the level is enabled.
+     */
+    public static boolean isEnabled(int level)
+    {
+        return level >= THRESHOLD;
+    }
+
+    /**
+     * Returns whether TRACE messages are logged.
+     * @return True if TRACE is enabled.
+     */
+    public static boolean isTraceEnabled()
+    {
+        return TRACE >= THRESHOLD;
+    }
+
+    /**
+     * Returns whether DEBUG messages are logged.
+     * @return True if DEBUG is enabled.
+     */
+    public static boolean isDebugEnabled()
+    {
+        return DEBUG >= THRESHOLD;
+    }
+
+    /**
+     * Logs a message at TRACE level.
+     * @param message The message.
+     */
+    public static void trace(String message)
+    {
+        if(TRACE >= THRESHOLD)
+            enqueue(TRACE, message, null, null, 0, false);
+    }
+
+    /**
+     * Logs a message at TRACE level.
+     * @param format The message, its first {} is replaced by the argument.
+     * @param arg The argument.
+     */
+    public static void trace(String format, Object arg)
+    {
+        if(TRACE >= THRESHOLD)
+            enqueue(TRACE, format, arg, null, 0, false);
+    }
+
+    /**
+     * Logs a message at TRACE level.
+     * @param format The message, its first two {} are replaced by the arguments.
+     * @param arg1 The first argument.
+     * @param arg2 The second argument.
+     */
+    public static void trace(String format, Object arg1, Object arg2)
+    {
+        if(TRACE >= THRESHOLD)
+            enqueue(TRACE, format, arg1, arg2, 0, false);
+    }
+
+    /**
+     * Logs a message at TRACE level without boxing its number.
+     * @param format The message, its first {} is replaced by the number.
+     * @param number The number.
+     */
+    public static void trace(String format, long number)
+    {
+        if(TRACE >= THRESHOLD)
+            enqueue(TRACE, format, null, null, number, true);
+    }
+
+    /**
+     * Logs a message at DEBUG level.
+     * @param message The message.
+     */
+    public static void debug(String message)
+    {
+        if(DEBUG >= THRESHOLD)
+            enqueue(DEBUG, message, null, null, 0, false);
+    }
+
+    /**
+     * Logs a message at DEBUG level.
+     * @param format The message, its first {} is replaced by the argument.
+     * @param arg The argument.
+     */
+    public static void debug(String format, Object arg)
+    {
+        if(DEBUG >= THRESHOLD)
+            enqueue(DEBUG, format, arg, null, 0, false);
+    }
+
+    /**
+     * Logs a message at DEBUG level.
+     * @param format The message, its first two {} are replaced by the arguments.
+     * @param arg1 The first argument.
+     * @param arg2 The second argument.
+     */
+    public static void debug(String format, Object arg1, Object arg2)
+    {
+        if(DEBUG >= THRESHOLD)
+            enqueue(DEBUG, format, arg1, arg2, 0, false);
+    }
+
+    /**
+     * Logs a message at DEBUG level without boxing its number.
+     * @param format The message, its first {} is replaced by the number.
+     * @param number The number.
+     */
+    public static void debug(String format, long number)
+    {
+        if(DEBUG >= THRESHOLD)
+            enqueue(DEBUG, format, null, null, number, true);
+    }
+
+    /**
+     * Logs a message at INFO level.
+     * @param message The message.
+     */
+    public static void info(String message)
+    {
+        if(INFO >= THRESHOLD)
+            enqueue(INFO, message, null, null, 0, false);
+    }
+
+    /**
+     * Logs a message at INFO level.
+     * @param format The message, its first {} is replaced by the argument.
+     * @param arg The argument.
+     */
+    public static void info(String format, Object arg)
+    {
+        if(INFO >= THRESHOLD)
+            enqueue(INFO, format, arg, null, 0, false);
+    }
+
+    /**
+     * Logs a message at WARN level.
+     * @param message The message.
+     */
+    public static void warn(String message)
+    {
+        if(WARN >= THRESHOLD)
+            enqueue(WARN, message, null, null, 0, false);
+    }
+
+    /**
+     * Logs a message at WARN level.
+     * @param format The message, its first {} is replaced by the argument.
+     * @param arg The argument.
+     */
+    public static void warn(String format, Object arg)
+    {
+        if(WARN >= THRESHOLD)
+            enqueue(WARN, format, arg, null, 0, false);
+    }
+
+    /**
+     * Logs a message at ERROR level.
+     * @param format The message, its first {} is replaced by the argument.
+     * @param arg The argument.
+     */
+    public static void error(String format, Object arg)
+    {
+        if(ERROR >= THRESHOLD)
+            enqueue(ERROR, format, arg, null, 0, false);
+    }
+
+    /**
+     * Returns how many messages were dropped because the buffer was full.
+     * @return The amount of dropped messages since the program started.
+     */
+    public static long getDroppedCount()
+    {
+        return DROPPED.get();
+    }
+
+    //Claims a slot with a compare and set on the tail, so any number of threads can log at once.
+    private static void enqueue(int level, String format, Object arg1, Object arg2, long number, boolean hasNumber)
+    {
+        long position;
+        int slot;
+        while(true)
+        {
+            position = TAIL.get();
+            slot = (int)(position & MASK);
+            long difference = SEQUENCES.get(slot) - position;
+            if(difference == 0)
+            {
+                if(TAIL.compareAndSet(position, position + 1))
+                    break;
+            }
+            else if(difference < 0)
+            {
+                //The logging thread has not caught up with a full lap of the buffer.
+                DROPPED.incrementAndGet();
+                return;
+            }
+        }
+        LEVELS[slot] = level;
+        FORMATS[slot] = format;
+        FIRST_ARGS[slot] = arg1;
+        SECOND_ARGS[slot] = arg2;
+        NUMBERS[slot] = number;
+        HAS_NUMBER[slot] = hasNumber;
+        //Publishes the message to the logging thread.
+        SEQUENCES.lazySet(slot, position + 1);
+    }
+
+    private static void drainLoop()
+    {
+        while(true)
+        {
+            if(!drain())
+                LockSupport.parkNanos(IDLE_NANOS);
+        }
+    }
+
+    //Writes every published message. Returns false if there was nothing to write.
+    private static synchronized boolean drain()
+    {
+        boolean wrote = false;
+        while(true)
+        {
+            int slot = (int)(head & MASK);
+            if(SEQUENCES.get(slot) != head + 1)
+                break;
+            LINE.setLength(0);
+            LINE.append('[').append(LEVEL_NAMES[LEVELS[slot]]).append("] ");
+            format(FORMATS[slot], slot);
+            FORMATS[slot] = null;
+            FIRST_ARGS[slot] = null;
+            SECOND_ARGS[slot] = null;
+            //Frees the slot for the producer one lap ahead.
+            SEQUENCES.lazySet(slot, head + CAPACITY);
+            head++;
+            OUT.println(LINE);
+            wrote = true;
+        }
+        long dropped = DROPPED.get();
+        if(dropped > reportedDropped)
+        {
+            OUT.println("[WARN] " + (dropped - reportedDropped) + " log messages were dropped, the log buffer was full");
+            reportedDropped = dropped;
+        }
+        if(wrote)
+            OUT.flush();
+        return wrote;
+    }
+
+    //Appends the format to LINE with its placeholders replaced, the number first if there is one.
+    private static void format(String format, int slot)
+    {
+        int argIndex = HAS_NUMBER[slot] ? 0 : 1;
+        int start = 0;
+        int placeholder;
+        while((placeholder = format.indexOf("{}", start)) >= 0 && argIndex <= 2)
+        {
+            LINE.append(format, start, placeholder);
+            switch(argIndex)
+            {
+                case 0 -> LINE.append(NUMBERS[slot]);
+                case 1 -> LINE.append(FIRST_ARGS[slot]);
+                default -> LINE.append(SECOND_ARGS[slot]);
+            }
+            argIndex++;
+            start = placeholder + 2;
+        }
+        LINE.append(format, start, format.length());
+    }
+
+    private static int parseLevel(String name)
+    {
+        for(int level = 0; level < LEVEL_NAMES.length; level++)
+        {
+            if(LEVEL_NAMES[level].equalsIgnoreCase(name.trim()))
+                return level;
+        }
+        return INFO;
+    }
+}
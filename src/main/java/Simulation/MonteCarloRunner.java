@@ -0,0 +1,168 @@
+package Simulation;
+
+import CharacterResources.Player.Player;
+import MapDesign.Rooms.Room;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays many seeded runs of the game headlessly with a ScriptedBot, in parallel on a ForkJoinPool.
+ * Reports the win rate, the damage taken, the ticks taken to clear each room type and the simulation throughput.
+ * Every run is fully determined by its seed, so the same arguments always produce the same report.
+ * Usage: MonteCarloRunner [runs] [parallelism] [baseSeed] [maxTicks]
+ */
+public class MonteCarloRunner {
+
+    private static final int DEFAULT_RUNS = 200;
+    private static final long DEFAULT_BASE_SEED = 1;
+    private static final int DEFAULT_MAX_TICKS = 100_000;
+    //Below this many runs a task is not split any further.
+    private static final int RUNS_PER_TASK = 4;
+
+    /**
+     * Plays the runs and prints the report.
+     * @param args Optionally the amount of runs, the parallelism, the base seed and the tick limit of a run.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RUNS;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long baseSeed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_BASE_SEED;
+        int maxTicks = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MAX_TICKS;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        ArrayList<RunResult> results = pool.invoke(new RunTask(baseSeed, 0, runs, maxTicks));
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        printReport(results, parallelism, elapsed);
+    }
+
+    /**
+     * Plays a single run of the game with a ScriptedBot.
+     * @param seed The seed of the run, used for both the world and the bot.
+     * @param maxTicks The tick limit after which the run is abandoned.
+     * @return The outcome of the run.
+     */
+    public static RunResult playRun(long seed, int maxTicks)
+    {
+        GameWorld world = new GameWorld(WorldBounds.DEFAULT, RenderSink.NONE, seed);
+        ScriptedBot bot = new ScriptedBot(seed);
+        Player player = world.getPlayer();
+
+        HashMap<String, int[]> clearTicks = new HashMap<String, int[]>();
+        int damageTaken = 0;
+        int lastHp = player.getCurrentHP();
+        Room room = world.getCurrentRoomRef();
+        int roomEnteredTick = 0;
+        boolean roomCleared = room.isStairsActive();
+
+        int tick = 0;
+        while(tick < maxTicks && !world.isWon() && !player.isDead())
+        {
+            bot.decide(world);
+            world.tick();
+            tick++;
+
+            if(player.getCurrentHP() < lastHp)
+                damageTaken += lastHp - player.getCurrentHP();
+            lastHp = player.getCurrentHP();
+
+            if(world.getCurrentRoomRef() != room)
+            {
+                room = world.getCurrentRoomRef();
+                roomEnteredTick = tick;
+                roomCleared = room.isStairsActive();
+            }
+            if(!roomCleared && (room.isStairsActive() || world.isWon()))
+            {
+                roomCleared = true;
+                int[] entry = clearTicks.computeIfAbsent(room.getClass().getSimpleName(), k -> new int[2]);
+                entry[0] += tick - roomEnteredTick;
+                entry[1]++;
+            }
+        }
+        return new RunResult(seed, world.isWon(), player.isDead(), tick, damageTaken, clearTicks);
+    }
+
+    //Prints the aggregated statistics of all runs.
+    private static void printReport(ArrayList<RunResult> results, int parallelism, long elapsedNanos)
+    {
+        int wins = 0, deaths = 0;
+        long totalTicks = 0, totalDamage = 0;
+        TreeMap<String, long[]> clearTicks = new TreeMap<String, long[]>();
+        for(RunResult result : results)
+        {
+            if(result.isWon())
+                wins++;
+            if(result.isDied())
+                deaths++;
+            totalTicks += result.getTicks();
+            totalDamage += result.getDamageTaken();
+            for(Map.Entry<String, int[]> entry : result.getClearTicks().entrySet())
+            {
+                long[] total = clearTicks.computeIfAbsent(entry.getKey(), k -> new long[2]);
+                total[0] += entry.getValue()[0];
+                total[1] += entry.getValue()[1];
+            }
+        }
+
+        int runs = results.size();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("Runs: %d, wins: %d (%.1f%%), deaths: %d, timeouts: %d%n",
+                runs, wins, 100.0 * wins / runs, deaths, runs - wins - deaths);
+        System.out.printf("Mean damage taken: %.2f, mean run length: %.0f ticks%n",
+                (double)totalDamage / runs, (double)totalTicks / runs);
+        for(Map.Entry<String, long[]> entry : clearTicks.entrySet())
+            System.out.printf("  %-12s cleared %6d times, mean %.0f ticks to clear%n",
+                    entry.getKey(), entry.getValue()[1], (double)entry.getValue()[0] / entry.getValue()[1]);
+        //Workers beyond the amount of cores share them, fewer workers leave the other cores idle.
+        int cores = Math.min(parallelism, Runtime.getRuntime().availableProcessors());
+        System.out.printf("Simulated %d ticks in %.3f s: %.0f ticks/s, %.0f ticks/s per core (%d workers on %d cores)%n",
+                totalTicks, seconds, totalTicks / seconds, totalTicks / seconds / cores, parallelism, cores);
+    }
+
+    //Plays the runs with seeds baseSeed + from until baseSeed + to, splitting the range in half until it is small.
+    private static class RunTask extends RecursiveTask<ArrayList<RunResult>> {
+
+        private final long baseSeed;
+        private final int from;
+        private final int to;
+        private final int maxTicks;
+
+        RunTask(long baseSeed, int from, int to, int maxTicks)
+        {
+            this.baseSeed = baseSeed;
+            this.from = from;
+            this.to = to;
+            this.maxTicks = maxTicks;
+        }
+
+        @Override
+        protected ArrayList<RunResult> compute()
+        {
+            if(to - from <= RUNS_PER_TASK)
+            {
+                ArrayList<RunResult> results = new ArrayList<RunResult>();
+                for(int i = from; i < to; i++)
+                    results.add(playRun(baseSeed + i, maxTicks));
+                return results;
+            }
+            int middle = (from + to) >>> 1;
+            RunTask left = new RunTask(baseSeed, from, middle, maxTicks);
+            left.fork();
+            ArrayList<RunResult> results = new RunTask(baseSeed, middle, to, maxTicks).compute();
+            ArrayList<RunResult> leftResults = left.join();
+            //Keeps the results in seed order.
+            leftResults.addAll(results);
+            return leftResults;
+        }
+    }
+}
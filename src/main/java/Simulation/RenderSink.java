@@ -0,0 +1,49 @@
+package Simulation;
+
+import CharacterResources.Items.Item;
+
+/**
+ * Receives notifications from a GameWorld about changes a frontend may want to present.
+ * All methods are called from whichever thread is running the simulation, implementations that touch Swing should hand the work to the EDT.
+ * @see GameWorld
+ */
+public interface RenderSink {
+
+    /**
+     * A sink which ignores every notification. Used when the simulation runs headless.
+     */
+    RenderSink NONE = new RenderSink() {
+        @Override
+        public void frameReady() {}
+
+        @Override
+        public void hudChanged() {}
+
+        @Override
+        public void itemAcquired(Item item) {}
+
+        @Override
+        public void resetRequested() {}
+    };
+
+    /**
+     * Called when a new simulation state is ready to be drawn.
+     */
+    public void frameReady();
+
+    /**
+     * Called when something shown on the HUD, such as player health, has changed.
+     */
+    public void hudChanged();
+
+    /**
+     * Called when the player picks up an Item.
+     * @param item The Item which was acquired.
+     */
+    public void itemAcquired(Item item);
+
+    /**
+     * Called when the player presses the reset input. Frontends should reset the GameWorld along with their own state.
+     */
+    public void resetRequested();
+}
@@ -0,0 +1,174 @@
+package Simulation;
+
+import Simulation.Events.GameEvents;
+import Simulation.Events.PhaseEvent;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Plays an InputRecording again headlessly at maximum speed, to check that the run is reproduced and to use it as a workload.
+ * Every pass feeds the recorded input into a fresh GameWorld and checks that it ends in the recorded state.
+ * The RoomCache settings of the recorded run are applied before replaying, as evicting rooms changes the run.
+ * After warming up, the replay throughput is measured on passes without any recording of events,
+ * then one last pass is recorded with Java Flight Recorder to report how long each phase of a tick took.
+ * The phase events are turned on for the whole replay, see GameEvents.
+ * Exits with status 1 if any pass did not end in the recorded state.
+ * Usage: ReplayRunner recording [passes]
+ * @see InputRecording
+ * @see GameEvents
+ */
+public class ReplayRunner {
+
+    private static final int DEFAULT_PASSES = 5;
+    private static final int WARMUP_PASSES = 3;
+
+    /**
+     * Replays the recording and prints the report.
+     * @param args The recording file, and optionally the amount of measured passes.
+     * @throws IOException If the recording could not be read.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length < 1)
+        {
+            System.out.println("Usage: ReplayRunner recording [passes]");
+            System.exit(2);
+        }
+        System.setProperty("java.awt.headless", "true");
+        //Must be set before GameEvents is loaded.
+        if(System.getProperty(GameEvents.ENABLED_PROPERTY) == null)
+            System.setProperty(GameEvents.ENABLED_PROPERTY, "true");
+
+        InputRecording recording = InputRecording.load(Paths.get(args[0]));
+        //Read by the GameWorld whenever it starts a run.
+        System.setProperty(RoomCache.CAPACITY_PROPERTY, Integer.toString(recording.getRoomCacheCapacity()));
+        System.setProperty(RoomCache.SPILL_PROPERTY, Boolean.toString(recording.isRoomSpill()));
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PASSES;
+        System.out.printf("Replaying %d ticks of seed %d in a %d room dungeon, %d input runs, room cache of %d%s%n",
+                recording.getTickCount(), recording.getSeed(), recording.getDungeonSize(), recording.getRunCount(),
+                recording.getRoomCacheCapacity(), recording.isRoomSpill() ? " spilling to a file" : "");
+
+        boolean matched = true;
+        for(int pass = 0; pass < WARMUP_PASSES; pass++)
+            matched &= replay(recording);
+
+        long start = System.nanoTime();
+        for(int pass = 0; pass < passes; pass++)
+            matched &= replay(recording);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long ticks = recording.getTickCount() * passes;
+        double realTime = ticks * (double)GameWorld.TICK_INTERVAL / 1000.0;
+        System.out.printf("Replayed %d ticks in %.3f s: %.0f ticks/s, %.0fx real time%n",
+                ticks, seconds, ticks / seconds, realTime / seconds);
+
+        if(GameEvents.ENABLED)
+            matched &= reportPhases(recording);
+        else
+            System.out.println("Phase timings need " + GameEvents.ENABLED_PROPERTY + "=true");
+
+        if(!matched)
+        {
+            System.out.println("FAILED: the replay did not end in the recorded state");
+            System.exit(1);
+        }
+        System.out.printf("PASSED: every pass ended in the recorded state %016x%n", recording.getEndStateHash());
+    }
+
+    /**
+     * Plays a recording once in a fresh GameWorld.
+     * The RoomCache settings of the recorded run have to be set in the system properties, see RoomCache.fromSystemProperties().
+     * @param recording The recording to play.
+     * @return True if the world ended in the recorded state.
+     * @throws IllegalStateException If the RoomCache settings differ from those of the recorded run.
+     */
+    public static boolean replay(InputRecording recording)
+    {
+        GameWorld world = new GameWorld(recording.getBounds(), RenderSink.NONE, recording.getSeed(), recording.getDungeonSize());
+        if(!recording.matchesRoomCache(world.getRoomCache()))
+            throw new IllegalStateException(String.format("The run was recorded with %s=%d and %s=%b, but the replay has %d and %b",
+                    RoomCache.CAPACITY_PROPERTY, recording.getRoomCacheCapacity(), RoomCache.SPILL_PROPERTY, recording.isRoomSpill(),
+                    world.getRoomCache().getCapacity(), world.getRoomCache().isSpilling()));
+        for(int run = 0; run < recording.getRunCount(); run++)
+        {
+            int mask = recording.getRunMask(run);
+            for(int tick = recording.getRunLength(run); tick > 0; tick--)
+            {
+                world.setKeyMask(mask);
+                world.tick();
+            }
+        }
+        return world.stateHash() == recording.getEndStateHash();
+    }
+
+    //Replays once while recording the phase events, then sums them up per phase.
+    private static boolean reportPhases(InputRecording recording) throws IOException
+    {
+        Path file = Files.createTempFile("sns-replay", ".jfr");
+        boolean matched;
+        try(Recording jfr = new Recording()) {
+            jfr.enable("sns.Phase").withoutThreshold();
+            jfr.enable("sns.Tick").withoutThreshold();
+            jfr.start();
+            matched = replay(recording);
+            jfr.stop();
+            jfr.dump(file);
+        }
+
+        Map<String, long[]> phases = new LinkedHashMap<String, long[]>();
+        for(String phase : new String[]{PhaseEvent.PLAYER_MOVE, PhaseEvent.INPUT, PhaseEvent.ROOM_UPDATE,
+                PhaseEvent.PLAYER_UPDATE, PhaseEvent.CONTACT_GENERATION, PhaseEvent.CONTACT_RESOLUTION})
+            phases.put(phase, new long[2]);
+        long[] tickNanos = new long[(int) recording.getTickCount()];
+        int ticks = 0;
+        for(RecordedEvent event : RecordingFile.readAllEvents(file))
+        {
+            String type = event.getEventType().getName();
+            long nanos = event.getDuration().toNanos();
+            if(type.equals("sns.Tick"))
+            {
+                if(ticks < tickNanos.length)
+                    tickNanos[ticks++] = nanos;
+                continue;
+            }
+            //The file also holds the events the JVM records about the recording itself.
+            if(!type.equals("sns.Phase"))
+                continue;
+            long[] totals = phases.computeIfAbsent(event.getString("phase"), p -> new long[2]);
+            totals[0]++;
+            totals[1] += nanos;
+        }
+        Files.deleteIfExists(file);
+
+        Arrays.sort(tickNanos, 0, ticks);
+        long tickTotal = 0;
+        for(int i = 0; i < ticks; i++)
+            tickTotal += tickNanos[i];
+        System.out.printf("Tick: mean %.2f us, p50 %.2f us, p99 %.2f us, max %.2f us (recorded pass)%n",
+                tickTotal / 1000.0 / Math.max(1, ticks), percentile(tickNanos, ticks, 0.50) / 1000.0,
+                percentile(tickNanos, ticks, 0.99) / 1000.0, ticks > 0 ? tickNanos[ticks - 1] / 1000.0 : 0.0);
+        for(Map.Entry<String, long[]> phase : phases.entrySet())
+        {
+            long[] totals = phase.getValue();
+            System.out.printf("  %-18s %8d times, mean %8.2f us, %5.1f%% of tick time%n", phase.getKey(), totals[0],
+                    totals[1] / 1000.0 / Math.max(1, totals[0]), 100.0 * totals[1] / Math.max(1, tickTotal));
+        }
+        return matched;
+    }
+
+    private static long percentile(long[] sorted, int count, double fraction)
+    {
+        if(count == 0)
+            return 0;
+        return sorted[Math.min(count - 1, (int)(fraction * count))];
+    }
+}
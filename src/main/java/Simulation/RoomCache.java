@@ -0,0 +1,214 @@
+package Simulation;
+
+import MapDesign.DungeonGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+
+/**
+ * Bounds how many rooms of a run are kept built at once, and stores the rooms which are evicted in a compact form.
+ * Rooms are tracked by their dense room number in least-recently-used order. Once more than the capacity are resident,
+ * the least recently used room is evicted and the GameWorld stores the snapshot of it here, see Room.snapshot().
+ * Snapshots are kept on the heap, or in a spill file so even the snapshots do not grow the heap with the size of the dungeon.
+ * Settings are read from system properties when created by GameWorld, see fromSystemProperties().
+ * @see MapDesign.Rooms.Room#snapshot()
+ * @see #fromSystemProperties(int)
+ */
+public class RoomCache {
+
+    /**
+     * The system property holding the maximum amount of built rooms.
+     */
+    public static final String CAPACITY_PROPERTY = "sns.roomCache";
+    /**
+     * The system property which stores evicted rooms in a spill file instead of on the heap when set to true.
+     */
+    public static final String SPILL_PROPERTY = "sns.roomSpill";
+
+    /**
+     * The amount of built rooms kept when no capacity is given, more than the rooms of a default dungeon.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+    /**
+     * The smallest capacity, the current room and the four rooms its stairs may lead to are always kept.
+     */
+    public static final int MIN_CAPACITY = 5;
+
+    private final int capacity;
+    //Resident room numbers, the most recently used first.
+    private final int[] order;
+    private int residentCount;
+
+    //Cold storage indexed by room number, either on the heap or as offset and length into the spill file.
+    private final byte[][] heapSnapshots;
+    private final RandomAccessFile spill;
+    private final File spillFile;
+    private final long[] spillOffsets;
+    private final int[] spillLengths;
+
+    /**
+     * Constructs a RoomCache with the specified parameters.
+     * @param roomCount The amount of rooms in the dungeon.
+     * @param capacity The maximum amount of built rooms, at least MIN_CAPACITY.
+     * @param useSpillFile Whether evicted rooms are written to a temporary file instead of being kept on the heap.
+     */
+    public RoomCache(int roomCount, int capacity, boolean useSpillFile)
+    {
+        if(capacity < MIN_CAPACITY)
+            throw new IllegalArgumentException("A room cache needs room for at least " + MIN_CAPACITY + " rooms, got " + capacity);
+        this.capacity = capacity;
+        order = new int[capacity + 1];
+
+        if(useSpillFile)
+        {
+            heapSnapshots = null;
+            spillOffsets = new long[roomCount];
+            spillLengths = new int[roomCount];
+            try {
+                spillFile = File.createTempFile("sns-rooms", ".bin");
+                spillFile.deleteOnExit();
+                spill = new RandomAccessFile(spillFile, "rw");
+            }
+            catch(IOException e) {
+                throw new UncheckedIOException("Room spill file could not be created", e);
+            }
+        }
+        else
+        {
+            heapSnapshots = new byte[roomCount][];
+            spill = null;
+            spillFile = null;
+            spillOffsets = null;
+            spillLengths = null;
+        }
+    }
+
+    /**
+     * Creates a RoomCache from the system properties.
+     * Defaults to DEFAULT_CAPACITY rooms and snapshots on the heap.
+     * @param roomCount The amount of rooms in the dungeon.
+     * @return The configured RoomCache.
+     */
+    public static RoomCache fromSystemProperties(int roomCount)
+    {
+        return new RoomCache(roomCount, Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY),
+                Boolean.getBoolean(SPILL_PROPERTY));
+    }
+
+    /**
+     * Returns the maximum amount of built rooms.
+     * @return The capacity of the cache.
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns whether evicted rooms are written to a spill file.
+     * @return True if the cache spills to a file, false if it keeps snapshots on the heap.
+     */
+    public boolean isSpilling()
+    {
+        return spill != null;
+    }
+
+    /**
+     * Returns the amount of rooms currently counted as built.
+     * @return The amount of resident rooms.
+     */
+    public int getResidentCount()
+    {
+        return residentCount;
+    }
+
+    /**
+     * Marks a room as the most recently used one, adding it to the resident rooms if it was not resident.
+     * @param roomNum The number of the room which was built or entered.
+     * @return The number of the least recently used room, which must now be evicted, or DungeonGraph.NONE if the cache is not full.
+     */
+    public int touch(int roomNum)
+    {
+        int index = 0;
+        while(index < residentCount && order[index] != roomNum)
+            index++;
+        if(index == residentCount)
+            residentCount++;
+        System.arraycopy(order, 0, order, 1, index);
+        order[0] = roomNum;
+
+        if(residentCount <= capacity)
+            return DungeonGraph.NONE;
+        return order[--residentCount];
+    }
+
+    /**
+     * Stores the snapshot of an evicted room, replacing any earlier snapshot of it.
+     * @param roomNum The number of the room.
+     * @param snapshot The snapshot of the room, the same length as any earlier snapshot of it.
+     * @throws IllegalArgumentException If an earlier snapshot of the room had another length.
+     */
+    public synchronized void store(int roomNum, byte[] snapshot)
+    {
+        if(spill == null)
+        {
+            heapSnapshots[roomNum] = snapshot;
+            return;
+        }
+        try {
+            //A snapshot holds a record for every chest and spawned enemy, dead or alive, so its length never changes
+            //and a room keeps the slot it was first given.
+            if(spillLengths[roomNum] == 0)
+                spillOffsets[roomNum] = spill.length();
+            else if(spillLengths[roomNum] != snapshot.length)
+                throw new IllegalArgumentException("Room " + roomNum + " was spilled with " + spillLengths[roomNum]
+                        + " bytes, not " + snapshot.length);
+            spill.seek(spillOffsets[roomNum]);
+            spill.write(snapshot);
+            spillLengths[roomNum] = snapshot.length;
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException("Room " + roomNum + " could not be spilled", e);
+        }
+    }
+
+    /**
+     * Returns the snapshot of a room which was evicted before.
+     * @param roomNum The number of the room.
+     * @return The latest snapshot of the room, or null if it was never evicted.
+     */
+    public synchronized byte[] load(int roomNum)
+    {
+        if(spill == null)
+            return heapSnapshots[roomNum];
+        if(spillLengths[roomNum] == 0)
+            return null;
+        try {
+            byte[] snapshot = new byte[spillLengths[roomNum]];
+            spill.seek(spillOffsets[roomNum]);
+            spill.readFully(snapshot);
+            return snapshot;
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException("Room " + roomNum + " could not be read back", e);
+        }
+    }
+
+    /**
+     * Releases the spill file, if there is one. The cache must not be used afterwards.
+     */
+    public synchronized void close()
+    {
+        if(spill == null)
+            return;
+        try {
+            spill.close();
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException("Room spill file could not be closed", e);
+        }
+        spillFile.delete();
+    }
+}
@@ -0,0 +1,86 @@
+package Simulation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The outcome of a single simulated run of the game.
+ * @see MonteCarloRunner
+ */
+public class RunResult {
+
+    private final long seed;
+    private final boolean won;
+    private final boolean died;
+    private final int ticks;
+    private final int damageTaken;
+    private final HashMap<String, int[]> clearTicks;
+
+    /**
+     * Constructs a RunResult.
+     * @param seed The seed the run was played with.
+     * @param won Whether the boss was defeated.
+     * @param died Whether the player died.
+     * @param ticks The amount of ticks the run lasted.
+     * @param damageTaken The total amount of damage the player took.
+     * @param clearTicks For each room type, the total ticks spent clearing rooms of that type and the amount of rooms cleared.
+     */
+    public RunResult(long seed, boolean won, boolean died, int ticks, int damageTaken, HashMap<String, int[]> clearTicks)
+    {
+        this.seed = seed;
+        this.won = won;
+        this.died = died;
+        this.ticks = ticks;
+        this.damageTaken = damageTaken;
+        this.clearTicks = clearTicks;
+    }
+
+    /**
+     * Returns the seed the run was played with.
+     * @return The seed of the run.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns whether the boss was defeated.
+     * @return True if the run was won.
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Returns whether the player died.
+     * @return True if the player died.
+     */
+    public boolean isDied() {
+        return died;
+    }
+
+    /**
+     * Returns the amount of ticks the run lasted.
+     * @return The amount of ticks simulated.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the total amount of damage the player took.
+     * @return The total damage taken.
+     */
+    public int getDamageTaken() {
+        return damageTaken;
+    }
+
+    /**
+     * Returns the clear times of the run, keyed by room type.
+     * Each value holds the total ticks spent clearing at index 0 and the amount of rooms cleared at index 1.
+     * @return The clear times of the run.
+     */
+    public Map<String, int[]> getClearTicks() {
+        return clearTicks;
+    }
+}
@@ -0,0 +1,254 @@
+package Simulation;
+
+import CharacterResources.Enemies.Enemy;
+import CharacterResources.Player.Player;
+import Collision.Collideable;
+import MapDesign.Obstacle;
+import MapDesign.Rooms.Room;
+import MapDesign.Stairs;
+import MapDesign.TileMap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * A simple scripted player which drives the input slots of a GameWorld.
+ * The bot walks to the nearest enemy and swings at it, and once a room is cleared it takes the stairs,
+ * preferring the boss room, then the room it has visited the least. The stairs are chosen once per visit to a room.
+ * Walking is done tile by tile along a breadth first search path around blocked tiles, obstacles and chests.
+ * When it stops making progress it wanders in a random direction for a while to get around obstacles.
+ */
+public class ScriptedBot {
+
+    private static final int ATTACK_RANGE = 55;
+    private static final int STUCK_TICKS = 30;
+    private static final int WANDER_TICKS = 40;
+
+    private final Random rand;
+    private final HashMap<Integer, Integer> roomVisits = new HashMap<Integer, Integer>();
+    private int lastRoom = -1;
+    private Stairs chosenStairs;
+
+    //Breadth first search buffers over the tile grid of a room.
+    private final boolean[] blocked = new boolean[WorldBounds.GRID_COLUMNS * WorldBounds.GRID_ROWS];
+    private final int[] cameFrom = new int[blocked.length];
+    private final int[] queue = new int[blocked.length];
+
+    private int lastX, lastY;
+    private int stuckCount;
+    private int wanderCount;
+    private int wanderKey;
+
+    /**
+     * Constructs a ScriptedBot.
+     * @param seed The seed for the random choices the bot makes.
+     */
+    public ScriptedBot(long seed)
+    {
+        rand = new Random(seed);
+    }
+
+    /**
+     * Sets the input slots of the world for the next tick.
+     * @param world The GameWorld to drive.
+     */
+    public void decide(GameWorld world)
+    {
+        Player player = world.getPlayer();
+        Room room = world.getCurrentRoomRef();
+        if(world.getCurrentRoom() != lastRoom)
+        {
+            lastRoom = world.getCurrentRoom();
+            roomVisits.merge(lastRoom, 1, Integer::sum);
+            chosenStairs = null;
+        }
+
+        for(int key = 0; key < GameWorld.NUM_INPUT_KEYS; key++)
+            world.setKey(key, false);
+
+        //Wanders for a while when stuck.
+        if(player.getX() == lastX && player.getY() == lastY)
+            stuckCount++;
+        else
+            stuckCount = 0;
+        lastX = player.getX();
+        lastY = player.getY();
+        if(stuckCount > STUCK_TICKS && wanderCount <= 0)
+        {
+            wanderCount = WANDER_TICKS;
+            wanderKey = rand.nextInt(4);
+        }
+        if(wanderCount > 0)
+        {
+            wanderCount--;
+            world.setKey(wanderKey, true);
+            return;
+        }
+
+        int playerX = player.getImageCenterX();
+        int playerY = player.getImageCenterY();
+
+        Enemy target = null;
+        long bestDistance = Long.MAX_VALUE;
+        for(Enemy enemy : room.getEnemies())
+        {
+            long dx = enemy.getImageCenterX() - playerX;
+            long dy = enemy.getImageCenterY() - playerY;
+            if(dx * dx + dy * dy < bestDistance)
+            {
+                bestDistance = dx * dx + dy * dy;
+                target = enemy;
+            }
+        }
+
+        if(target != null)
+        {
+            int dx = target.getImageCenterX() - playerX;
+            int dy = target.getImageCenterY() - playerY;
+            if(Math.abs(dx) < ATTACK_RANGE && Math.abs(dy) < ATTACK_RANGE)
+            {
+                //Face the target along the dominant axis, then swing.
+                if(Math.abs(dx) > Math.abs(dy))
+                    world.setKey(dx > 0 ? GameWorld.KEY_RIGHT : GameWorld.KEY_LEFT, true);
+                else
+                    world.setKey(dy > 0 ? GameWorld.KEY_DOWN : GameWorld.KEY_UP, true);
+                world.setKey(GameWorld.KEY_ATTACK, true);
+            }
+            else
+                navigate(world, room, playerX, playerY, target.getImageCenterX(), target.getImageCenterY());
+            return;
+        }
+
+        if(room.isStairsActive())
+        {
+            if(chosenStairs == null)
+                chosenStairs = chooseStairs(room, world.getDungeon().getBossRoom());
+            if(chosenStairs != null)
+                navigate(world, room, playerX, playerY, chosenStairs.getImageCenterX(), chosenStairs.getImageCenterY());
+        }
+    }
+
+    //Prefers the boss room, then the least visited room, ties are broken at random.
+    private Stairs chooseStairs(Room room, int bossRoom)
+    {
+        Stairs best = null;
+        int bestVisits = Integer.MAX_VALUE;
+        int ties = 0;
+        for(Stairs stairs : room.getStairs())
+        {
+            if(stairs == null)
+                continue;
+            if(stairs.getNextRoom() == bossRoom)
+                return stairs;
+            int visits = roomVisits.getOrDefault(stairs.getNextRoom(), 0);
+            if(visits < bestVisits)
+            {
+                best = stairs;
+                bestVisits = visits;
+                ties = 1;
+            }
+            else if(visits == bestVisits && rand.nextInt(++ties) == 0)
+                best = stairs;
+        }
+        return best;
+    }
+
+    //Walks towards the next tile on the shortest path to the goal, or straight at it if there is no path.
+    private void navigate(GameWorld world, Room room, int fromX, int fromY, int toX, int toY)
+    {
+        WorldBounds bounds = world.getBounds();
+        int start = tileOf(bounds, fromX, fromY);
+        int goal = tileOf(bounds, toX, toY);
+        int next = start == goal ? -1 : nextTile(bounds, room, start, goal);
+        if(next < 0)
+        {
+            walkTowards(world, toX - fromX, toY - fromY);
+            return;
+        }
+        int tileWidth = bounds.getWidth() / WorldBounds.GRID_COLUMNS;
+        int tileHeight = bounds.getHeight() / WorldBounds.GRID_ROWS;
+        int nextX = (next % WorldBounds.GRID_COLUMNS) * tileWidth + tileWidth / 2;
+        int nextY = (next / WorldBounds.GRID_COLUMNS) * tileHeight + tileHeight / 2;
+        walkTowards(world, nextX - fromX, nextY - fromY);
+    }
+
+    //Searches backwards from the goal so the tile following the start can be read directly, -1 if unreachable.
+    private int nextTile(WorldBounds bounds, Room room, int start, int goal)
+    {
+        TileMap tiles = room.getTileMap();
+        for(int y = 0; y < WorldBounds.GRID_ROWS; y++)
+            for(int x = 0; x < WorldBounds.GRID_COLUMNS; x++)
+                blocked[y * WorldBounds.GRID_COLUMNS + x] = tiles.isBlocked(x, y);
+        for(Collideable c : room.getCollideables())
+        {
+            //Chests are Obstacles as well.
+            if(!(c instanceof Obstacle))
+                continue;
+            int minX = columnOf(bounds, c.getX());
+            int minY = rowOf(bounds, c.getY());
+            int maxX = columnOf(bounds, c.getX() + c.getWidth() - 1);
+            int maxY = rowOf(bounds, c.getY() + c.getHeight() - 1);
+            for(int y = minY; y <= maxY; y++)
+                for(int x = minX; x <= maxX; x++)
+                    blocked[y * WorldBounds.GRID_COLUMNS + x] = true;
+        }
+        //The creature standing on a blocked tile must still be able to walk off it.
+        blocked[start] = false;
+        blocked[goal] = false;
+
+        Arrays.fill(cameFrom, -1);
+        int head = 0, tail = 0;
+        queue[tail++] = goal;
+        cameFrom[goal] = goal;
+        while(head < tail)
+        {
+            int tile = queue[head++];
+            if(tile == start)
+                return cameFrom[start];
+            int x = tile % WorldBounds.GRID_COLUMNS;
+            int y = tile / WorldBounds.GRID_COLUMNS;
+            if(x > 0) tail = visit(tile, tile - 1, tail);
+            if(x < WorldBounds.GRID_COLUMNS - 1) tail = visit(tile, tile + 1, tail);
+            if(y > 0) tail = visit(tile, tile - WorldBounds.GRID_COLUMNS, tail);
+            if(y < WorldBounds.GRID_ROWS - 1) tail = visit(tile, tile + WorldBounds.GRID_COLUMNS, tail);
+        }
+        return -1;
+    }
+
+    private int visit(int from, int tile, int tail)
+    {
+        if(blocked[tile] || cameFrom[tile] != -1)
+            return tail;
+        cameFrom[tile] = from;
+        queue[tail] = tile;
+        return tail + 1;
+    }
+
+    private static int tileOf(WorldBounds bounds, int x, int y)
+    {
+        return rowOf(bounds, y) * WorldBounds.GRID_COLUMNS + columnOf(bounds, x);
+    }
+
+    private static int columnOf(WorldBounds bounds, int x)
+    {
+        return Math.max(0, Math.min(WorldBounds.GRID_COLUMNS - 1, x * WorldBounds.GRID_COLUMNS / bounds.getWidth()));
+    }
+
+    private static int rowOf(WorldBounds bounds, int y)
+    {
+        return Math.max(0, Math.min(WorldBounds.GRID_ROWS - 1, y * WorldBounds.GRID_ROWS / bounds.getHeight()));
+    }
+
+    private static void walkTowards(GameWorld world, int dx, int dy)
+    {
+        if(dx > 0)
+            world.setKey(GameWorld.KEY_RIGHT, true);
+        else if(dx < 0)
+            world.setKey(GameWorld.KEY_LEFT, true);
+        if(dy > 0)
+            world.setKey(GameWorld.KEY_DOWN, true);
+        else if(dy < 0)
+            world.setKey(GameWorld.KEY_UP, true);
+    }
+}
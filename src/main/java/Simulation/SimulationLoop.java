@@ -0,0 +1,142 @@
+package Simulation;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the game simulation on a dedicated thread with a fixed timestep.
+ * Elapsed real time is collected into an accumulator and consumed in steps of exactly one tick,
+ * so the speed of the game no longer depends on how long painting or layout takes on the Event Dispatch Thread.
+ * Every tick is executed while holding the supplied lock, which frontends also hold while rendering.
+ */
+public class SimulationLoop implements Runnable {
+
+    /**
+     * The maximum amount of ticks which will be run to catch up after a stall before the remaining time is dropped.
+     * Prevents the simulation from spiraling when a single tick takes longer than the tick length.
+     */
+    public static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final long tickNanos;
+    private final Runnable beforeTick;
+    private final Runnable tick;
+    private final Runnable frameCallback;
+    private final Object lock;
+
+    private volatile boolean running;
+    private volatile long lastTickTime;
+    private Thread thread;
+
+    /**
+     * Constructs a SimulationLoop with the specified parameters.
+     * @param tickMillis The length of a single tick in ms.
+     * @param tick The simulation step executed once per tick.
+     * @param frameCallback Called after every batch of ticks, typically used to request a repaint.
+     * @param lock The lock which is held while a tick is executing.
+     */
+    public SimulationLoop(int tickMillis, Runnable tick, Runnable frameCallback, Object lock)
+    {
+        this(tickMillis, null, tick, frameCallback, lock);
+    }
+
+    /**
+     * Constructs a SimulationLoop which also runs a step before every tick, without holding the lock.
+     * @param tickMillis The length of a single tick in ms.
+     * @param beforeTick Run before taking the lock for every tick, for waiting that should not hold up rendering. May be null.
+     * @param tick The simulation step executed once per tick.
+     * @param frameCallback Called after every batch of ticks, typically used to request a repaint.
+     * @param lock The lock which is held while a tick is executing.
+     * @see GameWorld#awaitRoomBuilds()
+     */
+    public SimulationLoop(int tickMillis, Runnable beforeTick, Runnable tick, Runnable frameCallback, Object lock)
+    {
+        this.tickNanos = tickMillis * 1_000_000L;
+        this.beforeTick = beforeTick;
+        this.tick = tick;
+        this.frameCallback = frameCallback;
+        this.lock = lock;
+    }
+
+    /**
+     * Starts the simulation thread. Does nothing if it is already running.
+     */
+    public synchronized void start()
+    {
+        if(running)
+            return;
+        running = true;
+        thread = new Thread(this, "Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation thread after the tick in progress has finished.
+     */
+    public synchronized void stop()
+    {
+        running = false;
+        if(thread != null)
+            LockSupport.unpark(thread);
+    }
+
+    /**
+     * Returns how far real time has progressed between the last completed tick and the next one.
+     * Used by renderers to interpolate between the previous and current position of entities.
+     * @return A value between 0 and 1.
+     */
+    public double getInterpolationAlpha()
+    {
+        double alpha = (double)(System.nanoTime() - lastTickTime) / tickNanos;
+        return Math.max(0.0, Math.min(1.0, alpha));
+    }
+
+    /**
+     * Returns the length of a single tick.
+     * @return The tick length in nanoseconds.
+     */
+    public long getTickNanos()
+    {
+        return tickNanos;
+    }
+
+    /**
+     * The fixed timestep loop. Should not be called directly, use start() instead.
+     * @see #start()
+     */
+    @Override
+    public void run()
+    {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        lastTickTime = previous;
+
+        while(running)
+        {
+            long now = System.nanoTime();
+            accumulator += now - previous;
+            previous = now;
+
+            //Drops time which can't be caught up on instead of running a burst of ticks.
+            if(accumulator > tickNanos * MAX_CATCH_UP_TICKS)
+                accumulator = tickNanos * MAX_CATCH_UP_TICKS;
+
+            boolean ticked = false;
+            while(accumulator >= tickNanos)
+            {
+                if(beforeTick != null)
+                    beforeTick.run();
+                synchronized (lock) {
+                    tick.run();
+                }
+                accumulator -= tickNanos;
+                lastTickTime = System.nanoTime();
+                ticked = true;
+            }
+
+            if(ticked)
+                frameCallback.run();
+
+            LockSupport.parkNanos(tickNanos - accumulator);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package Simulation;
+
+/**
+ * The fixed geometry of the play area which the simulation runs inside.
+ * Replaces asking a Swing component for its size, so the game logic can run without any window.
+ * Rooms are laid out on a grid of {@value #GRID_COLUMNS} by {@value #GRID_ROWS} tiles.
+ */
+public final class WorldBounds {
+
+    /**
+     * The amount of tile columns which a Room is laid out on.
+     */
+    public static final int GRID_COLUMNS = 16;
+    /**
+     * The amount of tile rows which a Room is laid out on.
+     */
+    public static final int GRID_ROWS = 12;
+
+    /**
+     * The bounds used by the game window, 800 by 600 pixels.
+     */
+    public static final WorldBounds DEFAULT = new WorldBounds(800, 600);
+
+    private final int width;
+    private final int height;
+
+    /**
+     * Constructs WorldBounds with the specified size.
+     * @param width The width of the play area in pixels.
+     * @param height The height of the play area in pixels.
+     */
+    public WorldBounds(int width, int height)
+    {
+        if(width <= 0 || height <= 0)
+            throw new IllegalArgumentException("World bounds must be positive, got " + width + "x" + height);
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returns the width of the play area.
+     * @return The width in pixels.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Returns the height of the play area.
+     * @return The height in pixels.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Converts a tile column into the x-position of its left edge.
+     * @param gridX The tile column, from 0 to 15.
+     * @return The x-position in pixels.
+     */
+    public int gridX(int gridX)
+    {
+        return width * gridX / GRID_COLUMNS;
+    }
+
+    /**
+     * Converts a tile row into the y-position of its top edge.
+     * @param gridY The tile row, from 0 to 11.
+     * @return The y-position in pixels.
+     */
+    public int gridY(int gridY)
+    {
+        return height * gridY / GRID_ROWS;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WorldBounds[" + width + "x" + height + "]";
+    }
+}
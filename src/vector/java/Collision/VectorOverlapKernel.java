@@ -0,0 +1,43 @@
+package Collision;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The OverlapKernel using the Vector API, testing as many boxes at once as the CPU has int lanes.
+ * Needs the jdk.incubator.vector module, so it is only loaded by BoundsKernel when the module is present.
+ * Nothing else may refer to this class directly, or the game would not start without the module.
+ * @see BoundsKernel
+ */
+final class VectorOverlapKernel implements OverlapKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public long overlapMask(int centerX, int centerY, int halfWidth, int halfHeight,
+                            int[] centerXs, int[] centerYs, int[] halfWidths, int[] halfHeights, int from, int count)
+    {
+        long mask = 0;
+        int i = 0;
+        int upperBound = SPECIES.loopBound(count);
+        for(; i < upperBound; i += SPECIES.length())
+        {
+            IntVector xDist = IntVector.fromArray(SPECIES, centerXs, from + i).sub(centerX).lanewise(VectorOperators.ABS);
+            IntVector radiiX = IntVector.fromArray(SPECIES, halfWidths, from + i).add(halfWidth);
+            IntVector yDist = IntVector.fromArray(SPECIES, centerYs, from + i).sub(centerY).lanewise(VectorOperators.ABS);
+            IntVector radiiY = IntVector.fromArray(SPECIES, halfHeights, from + i).add(halfHeight);
+            VectorMask<Integer> hits = xDist.lt(radiiX).and(yDist.lt(radiiY));
+            mask |= hits.toLong() << i;
+        }
+        //The boxes which do not fill a whole vector.
+        for(; i < count; i++)
+        {
+            int j = from + i;
+            if(Math.abs(centerXs[j] - centerX) < halfWidth + halfWidths[j] && Math.abs(centerYs[j] - centerY) < halfHeight + halfHeights[j])
+                mask |= 1L << i;
+        }
+        return mask;
+    }
+}